@@ -0,0 +1,71 @@
+package hello.core;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 빈 조회 비용: 호출할 때마다 ac.getBean으로 찾는 경우 vs 주입받아 둔 참조를 쓰는 경우
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanLookupBenchmark {
+
+    AnnotationConfigApplicationContext ac;
+    MemberService injected;
+
+    @Setup
+    public void setUp() {
+        ac = new AnnotationConfigApplicationContext(AppConfig.class);
+        injected = ac.getBean("memberService", MemberService.class);
+        injected.join(new Member(1L, "memberA", Grade.VIP));
+    }
+
+    @TearDown
+    public void tearDown() {
+        ac.close();
+    }
+
+    @Benchmark
+    public MemberService getBeanByName() {
+        return ac.getBean("memberService", MemberService.class);
+    }
+
+    @Benchmark
+    public MemberService getBeanByType() {
+        return ac.getBean(MemberService.class);
+    }
+
+    @Benchmark
+    public MemberService injectedReference() {
+        return injected;
+    }
+
+    @Benchmark
+    public Member findMemberViaGetBean() {
+        return ac.getBean("memberService", MemberService.class).findMember(1L);
+    }
+
+    @Benchmark
+    public Member findMemberViaInjected() {
+        return injected.findMember(1L);
+    }
+}
@@ -0,0 +1,64 @@
+package hello.core;
+
+import hello.core.member.MemberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 콜드 스타트 비용
+ * - 컴포넌트 스캔(AutoAppConfig) vs 함수형 등록(FunctionalAppConfig)
+ * - CGLIB 프록시를 쓰는 AppConfig vs lite 모드 LiteAppConfig
+ * <p>
+ * 배치 컨테이너처럼 JVM을 새로 띄워 컨텍스트를 한 번 만드는 상황을 재현하려고, 포크마다 워밍업 없이 한 번만 잰다.
+ * 로딩된 클래스 수(메타스페이스)는 -prof cl, 할당량은 -prof gc 로 같이 볼 수 있다.
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Benchmark
+    public MemberService componentScan() {
+        try (AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(AutoAppConfig.class)) {
+            return ac.getBean(MemberService.class);
+        }
+    }
+
+    @Benchmark
+    public MemberService functional() {
+        try (GenericApplicationContext ac = new GenericApplicationContext()) {
+            new FunctionalAppConfig().initialize(ac);
+            ac.refresh();
+            return ac.getBean(MemberService.class);
+        }
+    }
+
+    @Benchmark
+    public MemberService enhancedAppConfig() {
+        try (AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(AppConfig.class)) {
+            return ac.getBean(MemberService.class);
+        }
+    }
+
+    @Benchmark
+    public MemberService liteAppConfig() {
+        try (AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(LiteAppConfig.class)) {
+            return ac.getBean(MemberService.class);
+        }
+    }
+}
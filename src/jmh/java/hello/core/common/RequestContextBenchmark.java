@@ -0,0 +1,99 @@
+package hello.core.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나의 로그 비용: request 스코프 프록시(RequestLogger) vs 요청 문맥(RequestLogContext + ContextRequestLogger)
+ * <p>
+ * 두 경우 모두 요청 시작/끝 처리와 로그 두 번(컨트롤러, 서비스)을 포함한다. 출력 비용은 빼기 위해 아무것도 하지 않는 LogWriter를 쓴다.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestContextBenchmark {
+
+    AnnotationConfigApplicationContext ac;
+    RequestLogger requestLogger;
+    ContextRequestLogger contextRequestLogger;
+
+    @Setup
+    public void setUp() {
+        ac = new AnnotationConfigApplicationContext();
+        ac.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+        ac.register(NoOpLogWriter.class, RequestLogger.class, ContextRequestLogger.class);
+        ac.refresh();
+        requestLogger = ac.getBean("requestLogger", RequestLogger.class);
+        contextRequestLogger = ac.getBean(ContextRequestLogger.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ac.close();
+    }
+
+    @Benchmark
+    public void proxiedRequestScope() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/log-demo");
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            requestLogger.setRequestURL(request.getRequestURL().toString());
+            requestLogger.log("controller log");
+            requestLogger.log("sirzzang service log");
+        } finally {
+            attributes.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Benchmark
+    public void requestLogContext() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/log-demo-context");
+        RequestLogContext.bind(new RequestLogContext(RequestIds.next(), request.getRequestURL().toString()));
+        try {
+            contextRequestLogger.log("controller log");
+            contextRequestLogger.log("sirzzang service log");
+        } finally {
+            RequestLogContext.clear();
+        }
+    }
+
+    @Benchmark
+    public String secureRandomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String threadLocalRandomUuid() {
+        return RequestIds.next();
+    }
+
+    static class NoOpLogWriter implements LogWriter {
+        @Override
+        public void write(String uuid, String requestURL, String message) {
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package hello.core.coupon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플래시 세일: 스레드 8개가 쿠폰 하나를 동시에 사용
+ * - stripes=1: 남은 수량 한 칸에 모든 스레드가 CAS (AtomicInteger 하나와 같다)
+ * - stripes=0: CPU 수만큼 나눈 칸에 스레드마다 다른 칸에서 CAS
+ * 한도가 매우 커서 측정 중에 소진되지 않는다. 회원당 한도가 있는 쿠폰은 회원 id 맵 조회가 더해진다
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponStoreBenchmark {
+
+    private static final int MEMBERS = 100_000;
+
+    @Param({"1", "0"})
+    int stripes;
+
+    CouponStore couponStore;
+
+    @Setup
+    public void setUp() {
+        couponStore = new CouponStore(stripes);
+        couponStore.register(new Coupon("flash", 1000, Integer.MAX_VALUE, Coupon.UNLIMITED));
+        couponStore.register(new Coupon("flashPerMember", 1000, Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CouponStore.Result hotCoupon() {
+        return couponStore.redeem("flash", randomMemberId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CouponStore.Result hotCouponPerMember() {
+        return couponStore.redeem("flashPerMember", randomMemberId());
+    }
+
+    private static long randomMemberId() {
+        return ThreadLocalRandom.current().nextLong(MEMBERS);
+    }
+}
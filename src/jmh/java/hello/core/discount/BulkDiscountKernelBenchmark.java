@@ -0,0 +1,99 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가격 SIZE건의 할인 금액 계산(건당 시간): RateDiscountPolicy 기준
+ * - perMember: 회원 객체마다 discount(member, price) 호출
+ * - scalarLoop: 같은 배열을 / 100 스칼라 루프로
+ * - kernel: BulkDiscountKernel. sorted=true면 등급별로 모여 있어 대부분의 블록이 벡터화된 경로를 탄다
+ * - kernelSingleGrade: 등급 하나로 배열 전체를 계산
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkDiscountKernelBenchmark {
+
+    private static final int SIZE = 1 << 16;
+
+    @Param({"false", "true"})
+    boolean sorted;
+
+    DiscountPolicy discountPolicy;
+    BulkDiscountKernel kernel;
+    int[] rates;
+    Member[] members;
+    int[] prices;
+    byte[] grades;
+    int[] discounts;
+
+    @Setup
+    public void setUp() {
+        RateDiscountPolicy rateDiscountPolicy = new RateDiscountPolicy();
+        discountPolicy = rateDiscountPolicy;
+        kernel = BulkDiscountKernel.compile(rateDiscountPolicy);
+        rates = rateDiscountPolicy.discountTable().rates();
+        Random random = new Random(1);
+        members = new Member[SIZE];
+        prices = new int[SIZE];
+        grades = new byte[SIZE];
+        discounts = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            Grade grade = sorted ? (i < SIZE / 2 ? Grade.VIP : Grade.BASIC) : Grade.values()[random.nextInt(2)];
+            members[i] = new Member((long) i, "member" + i, grade);
+            prices[i] = 1000 + random.nextInt(1_000_000);
+            grades[i] = (byte) grade.ordinal();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] perMember() {
+        for (int i = 0; i < SIZE; i++) {
+            discounts[i] = discountPolicy.discount(members[i], prices[i]);
+        }
+        return discounts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] scalarLoop() {
+        for (int i = 0; i < SIZE; i++) {
+            discounts[i] = prices[i] * rates[grades[i]] / 100;
+        }
+        return discounts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] kernel() {
+        kernel.discount(prices, grades, discounts);
+        return discounts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] kernelSingleGrade() {
+        kernel.discount(prices, Grade.VIP, discounts);
+        return discounts;
+    }
+}
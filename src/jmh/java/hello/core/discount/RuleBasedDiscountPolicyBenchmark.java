@@ -0,0 +1,83 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 할인 계산 비용: 손으로 짠 정책 vs 규칙 파일 정책
+ * - rate, fix: RateDiscountPolicy, FixDiscountPolicy
+ * - rulesRate, rulesFix: 같은 결과를 내는 규칙 한 줄
+ * - rules10: 앞에 상품, 가격 조건 규칙 9개가 있고 마지막 규칙이 맞는 경우(최악에 가까운 체인 길이)
+ * 회원은 VIP/BASIC이 섞인 배열을 돌아가며 쓴다
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleBasedDiscountPolicyBenchmark {
+
+    @Param({"rate", "fix", "rulesRate", "rulesFix", "rules10"})
+    String policy;
+
+    DiscountPolicy discountPolicy;
+    Member[] members;
+    int next;
+
+    @Setup
+    public void setUp() {
+        members = new Member[64];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = new Member((long) i, "member" + i, i % 2 == 0 ? Grade.VIP : Grade.BASIC);
+        }
+        switch (policy) {
+            case "rate":
+                discountPolicy = new RateDiscountPolicy();
+                break;
+            case "fix":
+                discountPolicy = new FixDiscountPolicy();
+                break;
+            case "rulesRate":
+                discountPolicy = RuleBasedDiscountPolicy.of("grade=VIP -> rate 10");
+                break;
+            case "rulesFix":
+                discountPolicy = RuleBasedDiscountPolicy.of("grade=VIP -> fixed 1000");
+                break;
+            case "rules10":
+                discountPolicy = RuleBasedDiscountPolicy.of(
+                        "item=event1 -> fixed 100",
+                        "item=event2 -> fixed 200",
+                        "item=promo* -> rate 5",
+                        "price>=1000000 -> rate 20 max 50000",
+                        "price>=500000 price<1000000 -> rate 15",
+                        "grade=VIP item=itemB -> fixed 3000",
+                        "grade=VIP item=itemC -> fixed 4000",
+                        "grade=BASIC price>=100000 -> rate 3",
+                        "item=gift* price<1000 -> fixed 100",
+                        "grade=VIP -> rate 10");
+                break;
+            default:
+                throw new IllegalArgumentException("알 수 없는 할인 정책: " + policy);
+        }
+    }
+
+    @Benchmark
+    public int discount() {
+        Member member = members[next++ & (members.length - 1)];
+        return discountPolicy.discount(member, "itemA", 10000);
+    }
+}
@@ -0,0 +1,74 @@
+package hello.core.lifecycle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 느린 @PostConstruct(50ms I/O 흉내) 8개: 서로 독립인 6개 + 그 뒤에 이어지는 2개
+ * - serial: AnnotationConfigApplicationContext, 초기화 시간의 합(약 400ms)
+ * - parallel: ParallelInitApplicationContext(4), 가장 긴 경로(약 150ms)에 가까워진다
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class ParallelInitBenchmark {
+
+    @Benchmark
+    public Object serial() {
+        try (AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(SlowInitConfig.class)) {
+            return ac.getBean("last");
+        }
+    }
+
+    @Benchmark
+    public Object parallel() {
+        try (ParallelInitApplicationContext ac = new ParallelInitApplicationContext(4, SlowInitConfig.class)) {
+            return ac.getBean("last");
+        }
+    }
+
+    @Configuration
+    public static class SlowInitConfig {
+
+        @Bean public SlowClient a() { return new SlowClient(); }
+        @Bean public SlowClient b() { return new SlowClient(); }
+        @Bean public SlowClient c() { return new SlowClient(); }
+        @Bean public SlowClient d() { return new SlowClient(); }
+        @Bean public SlowClient e() { return new SlowClient(); }
+        @Bean public SlowClient f() { return new SlowClient(); }
+
+        @Bean
+        public SlowClient joined(SlowClient a, SlowClient b) {
+            return new SlowClient();
+        }
+
+        @Bean
+        public SlowClient last(SlowClient joined) {
+            return new SlowClient();
+        }
+    }
+
+    public static class SlowClient {
+
+        @PostConstruct
+        public void connect() throws InterruptedException {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * JournaledMemberRepository
+ * - save 처리량: fsync 여부, 그룹 커밋 크기별. 그룹 커밋 효과를 보려고 여러 스레드에서 저장한다
+ * - 복구 시간: 스냅샷 없이 저널만 재생 vs 스냅샷 + 짧은 저널
+ */
+public class JournaledMemberRepositoryBenchmark {
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    @Threads(16)
+    @State(Scope.Benchmark)
+    public static class Write {
+
+        @Param({"true", "false"})
+        boolean fsync;
+
+        @Param({"1", "64"})
+        int groupCommitSize;
+
+        Path directory;
+        JournaledMemberRepository repository;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-bench");
+            repository = new JournaledMemberRepository(directory, groupCommitSize, 1, fsync, 0);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            repository.close();
+            deleteRecursively(directory);
+        }
+
+        @Benchmark
+        public void save() {
+            long id = IDS.incrementAndGet();
+            repository.save(new Member(id, "member" + id, Grade.VIP));
+        }
+    }
+
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(1)
+    @State(Scope.Benchmark)
+    public static class Recovery {
+
+        @Param({"100000"})
+        int members;
+
+        @Param({"journalOnly", "snapshot"})
+        String layout;
+
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-bench");
+            try (JournaledMemberRepository repository = new JournaledMemberRepository(directory, 1024, 1, false, 0)) {
+                int batch = 1000;
+                for (int from = 0; from < members; from += batch) {
+                    List<Member> chunk = new ArrayList<>(batch);
+                    for (long id = from; id < from + batch; id++) {
+                        chunk.add(new Member(id, "member" + id, Grade.VIP));
+                    }
+                    repository.saveAll(chunk);
+                }
+                if ("snapshot".equals(layout)) {
+                    repository.snapshot();
+                    for (long id = 0; id < members / 100; id++) {
+                        repository.save(new Member(id, "renamed" + id, Grade.BASIC)); // 스냅샷 뒤 짧은 저널
+                    }
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            deleteRecursively(directory);
+        }
+
+        @Benchmark
+        public int recover() throws IOException {
+            try (JournaledMemberRepository repository = new JournaledMemberRepository(directory)) {
+                return repository.size();
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
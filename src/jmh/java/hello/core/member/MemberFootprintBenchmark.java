@@ -0,0 +1,90 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 저장소 힙 사용량 비교: MemoryMemberRepository vs ColumnarMemberRepository
+ * - 포크마다 빈 힙에서 회원 members명을 저장한다. 점수(시간)는 저장에만 걸린 시간
+ * - 기준 힙은 반복 시작 전(@Setup)에 재고, 저장 뒤 GC하고 늘어난 힙은 결과를 모을 때
+ *   Footprint.bytesPerMember 보조 지표로 나온다. GC는 모두 측정 구간 밖에서 한다
+ * - 이름은 distinctNames 가지가 반복된다(같은 이름도 요청마다 새 String)
+ * - MemoryMemberRepository의 저장소는 static이므로 포크 하나에 한 번만 잰다
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 3, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class MemberFootprintBenchmark {
+
+    @Param({"memory", "columnar"})
+    String repository;
+
+    @Param({"1000000"})
+    int members;
+
+    @Param({"10000"})
+    int distinctNames;
+
+    // public 필드와 메서드가 보조 지표로 결과에 붙는다
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        MemberRepository target;
+        int members;
+        long baseline;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            target = null;
+            baseline = usedHeap();
+        }
+
+        // 결과를 모을 때 한 번 불린다: 저장소를 붙든 채로 GC 뒤 늘어난 힙
+        public double bytesPerMember() {
+            if (target == null) {
+                return 0;
+            }
+            long retained = usedHeap() - baseline;
+            return (double) retained / members;
+        }
+    }
+
+    @Benchmark
+    public MemberRepository fill(Footprint footprint) {
+        MemberRepository target = "memory".equals(repository) ? new MemoryMemberRepository() : new ColumnarMemberRepository();
+        for (long id = 1; id <= members; id++) {
+            target.save(new Member(id, "member" + (id % distinctNames), id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        footprint.target = target;
+        footprint.members = members;
+        return target;
+    }
+
+    // 약한 참조까지 정리되도록 몇 번 GC한 뒤의 사용량
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
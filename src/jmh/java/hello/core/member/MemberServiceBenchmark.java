@@ -0,0 +1,80 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberService join/findMember 벤치마크 (MemoryMemberRepository)
+ * - 단일 스레드: join, findMember
+ * - 경합: 8 스레드 findMember, 읽기 6 + 쓰기 2 스레드 혼합
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberServiceBenchmark {
+
+    private static final int MEMBERS = 100_000;
+
+    MemberService memberService;
+
+    @Setup
+    public void setUp() {
+        memberService = new MemberServiceImpl(new MemoryMemberRepository());
+        for (long id = 1; id <= MEMBERS; id++) {
+            memberService.join(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void join() {
+        memberService.join(new Member(randomId(), "member", Grade.BASIC));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Member findMember() {
+        return memberService.findMember(randomId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Member findMemberContended() {
+        return memberService.findMember(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public Member mixedFind() {
+        return memberService.findMember(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public void mixedJoin() {
+        memberService.join(new Member(randomId(), "member", Grade.VIP));
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, MEMBERS + 1);
+    }
+}
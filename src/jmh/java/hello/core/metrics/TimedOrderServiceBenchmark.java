@@ -0,0 +1,78 @@
+package hello.core.metrics;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.order.Order;
+import hello.core.order.OrderService;
+import hello.core.order.OrderServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계측 비용: createOrder를 그대로 부를 때와 TimedOrderService, TimedDiscountPolicy로 감쌌을 때 비교
+ * - 감싼 호출마다 System.nanoTime 두 번 + 스레드별 Recorder 기록. 비용은 대부분 nanoTime(클럭 소스에 따라 20~50ns)
+ * - 스레드별 Recorder에 기록하므로 스레드 수를 늘려도 기록끼리 경합하지 않는다
+ * - -prof gc로 보면 계측을 켜도 호출당 할당이 늘지 않는다
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimedOrderServiceBenchmark {
+
+    private static final int MEMBERS = 10_000;
+
+    @Param({"plain", "timed"})
+    String mode;
+
+    OrderService orderService;
+
+    @Setup
+    public void setUp() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        for (long id = 1; id <= MEMBERS; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        if ("timed".equals(mode)) {
+            MethodMetrics metrics = new MethodMetrics();
+            OrderService target = new OrderServiceImpl(memberRepository,
+                    TimedDiscountPolicy.of("rateDiscountPolicy", new RateDiscountPolicy(), metrics));
+            orderService = new TimedOrderService("orderServiceImpl", target, metrics);
+        } else {
+            orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Order createOrder() {
+        return orderService.createOrder(randomId(), "itemA", 10000);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Order createOrderContended() {
+        return orderService.createOrder(randomId(), "itemA", 10000);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, MEMBERS + 1);
+    }
+}
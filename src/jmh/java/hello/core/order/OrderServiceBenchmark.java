@@ -0,0 +1,70 @@
+package hello.core.order;
+
+import hello.core.discount.CompiledDiscountPolicy;
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.createOrder 벤치마크: 할인 정책별 비교
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    private static final int MEMBERS = 10_000;
+
+    @Param({"rate", "fix", "compiledRate"})
+    String policy;
+
+    OrderService orderService;
+
+    @Setup
+    public void setUp() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        for (long id = 1; id <= MEMBERS; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        orderService = new OrderServiceImpl(memberRepository, discountPolicy(policy));
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        long memberId = ThreadLocalRandom.current().nextLong(1, MEMBERS + 1);
+        return orderService.createOrder(memberId, "itemA", 10000);
+    }
+
+    static DiscountPolicy discountPolicy(String name) {
+        switch (name) {
+            case "rate":
+                return new RateDiscountPolicy();
+            case "fix":
+                return new FixDiscountPolicy();
+            case "compiledRate":
+                return CompiledDiscountPolicy.compile(new RateDiscountPolicy());
+            default:
+                throw new IllegalArgumentException("알 수 없는 할인 정책: " + name);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package hello.core.order;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 저장소
+ * - save: 스레드 8개가 같은 구간(현재 시각)에 동시에 저장. 반복(iteration)마다 저장소를 새로 만든다
+ * - findByMemberId: 24시간치 주문(구간 24개, 회원 MEMBERS명)에서 회원 한 명의 6시간 조회
+ *   sealed=false는 회원 색인 연결 리스트, sealed=true는 봉인된 열 배열에서 이진 탐색
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionedOrderRepositoryBenchmark {
+
+    private static final int MEMBERS = 10_000;
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @State(Scope.Benchmark)
+    public static class Writes {
+
+        PartitionedOrderRepository orderRepository;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            orderRepository = new PartitionedOrderRepository();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Reads {
+
+        private static final int ORDERS = 1_000_000;
+
+        @Param({"false", "true"})
+        boolean sealed;
+
+        PartitionedOrderRepository orderRepository;
+
+        @Setup
+        public void setUp() {
+            orderRepository = new PartitionedOrderRepository(HOUR);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ORDERS; i++) {
+                long memberId = random.nextLong(MEMBERS);
+                orderRepository.save(new Order(memberId, "item" + (i % 100), 10000, 1000, random.nextLong(24 * HOUR)));
+            }
+            if (sealed) {
+                orderRepository.sealBefore(24 * HOUR);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void save(Writes writes) {
+        long memberId = ThreadLocalRandom.current().nextLong(MEMBERS);
+        writes.orderRepository.save(new Order(memberId, "itemA", 10000, 1000));
+    }
+
+    @Benchmark
+    public List<Order> findByMemberId(Reads reads) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = random.nextLong(18) * HOUR;
+        return reads.orderRepository.findByMemberId(random.nextLong(MEMBERS), from, from + 6 * HOUR);
+    }
+}
@@ -0,0 +1,136 @@
+package hello.core.scope;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SingletonWithPrototypeProviderTest의 ClientBean2.logic()처럼 호출마다 빈을 얻어 쓰는 경우
+ * - prototype: ObjectProvider.getObject()마다 생성 + @PostConstruct + 버려진 인스턴스는 GC
+ * - pooled: PooledObjectProvider.borrow()로 빌리고 Lease를 닫아 돌려준다. 풀에 인스턴스가 있으면 생성, 주입, @PostConstruct가 없다
+ * -prof gc로 보면 pooled는 호출당 할당이 거의 없다(borrow()의 Lease는 탈출 분석으로 대개 사라진다)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class PooledScopeBenchmark {
+
+    AnnotationConfigApplicationContext ac;
+    ObjectProvider<PrototypeBean> prototypeProvider;
+    PooledObjectProvider<PooledBean> pooledProvider;
+
+    @Setup
+    public void setUp() {
+        ac = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        prototypeProvider = ac.getBeanProvider(PrototypeBean.class);
+        pooledProvider = ac.getBean(PooledScope.class).getProvider(PooledBean.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ac.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int prototype() {
+        PrototypeBean bean = prototypeProvider.getObject();
+        bean.addCount();
+        return bean.getCount();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int pooled() {
+        try (PooledObjectProvider.Lease<PooledBean> lease = pooledProvider.borrow()) {
+            lease.get().addCount();
+            return lease.get().getCount();
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int prototypeContended() {
+        return prototype();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int pooledContended() {
+        try (PooledObjectProvider.Lease<PooledBean> lease = pooledProvider.borrow()) {
+            lease.get().addCount();
+            return lease.get().getCount();
+        }
+    }
+
+    @Configuration
+    public static class BenchmarkConfig {
+
+        @Bean
+        public static PooledScope pooledScope() {
+            return new PooledScope();
+        }
+
+        @Bean
+        @Scope("prototype")
+        public PrototypeBean prototypeBean() {
+            return new PrototypeBean();
+        }
+
+        @Bean
+        @Scope(PooledScope.SCOPE_NAME)
+        public PooledBean pooledBean() {
+            return new PooledBean();
+        }
+    }
+
+    // 두 빈이 같은 일을 하도록 공통 부분만 둔다(서로 상속하면 타입으로 찾을 때 후보가 둘이 된다)
+    public abstract static class WorkBean {
+
+        int count;
+        private byte[] buffer;
+
+        @PostConstruct
+        public void init() {
+            buffer = new byte[256]; // 초기화 시 잡는 작업 버퍼 흉내
+        }
+
+        public void addCount() {
+            buffer[count++ & 255]++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    public static class PrototypeBean extends WorkBean {
+    }
+
+    public static class PooledBean extends WorkBean implements Poolable {
+
+        @Override
+        public void reset() {
+            count = 0;
+        }
+    }
+}
@@ -44,6 +44,8 @@ public class AppConfig {
     @Bean
     public MemberRepository memberRepository() {
 //        System.out.println("call AppConfig.MemberRepository");
+        // 느린 저장소 앞에 읽기 캐시를 둘 때: 서비스 코드는 그대로
+//        return new CachingMemberRepository(new MemoryMemberRepository(), 10_000);
         return new MemoryMemberRepository();
     }
 
@@ -0,0 +1,195 @@
+package hello.core;
+
+import hello.core.common.AsyncFileLogWriter;
+import hello.core.common.ConsoleLogWriter;
+import hello.core.common.ContextRequestLogger;
+import hello.core.common.LogWriter;
+import hello.core.common.RequestContextScheduler;
+import hello.core.common.RequestLogContextFilter;
+import hello.core.common.RequestLogger;
+import hello.core.coupon.CouponStore;
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.DiscountPolicyRouter;
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.discount.RuleBasedDiscountPolicy;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberServiceImpl;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.metrics.MethodMetrics;
+import hello.core.metrics.TimedBeanPostProcessor;
+import hello.core.order.OrderAggregates;
+import hello.core.order.OrderEventStream;
+import hello.core.order.OrderServiceImpl;
+import hello.core.order.PartitionedOrderRepository;
+import hello.core.web.DemoLogController;
+import hello.core.web.DemoLogService;
+import hello.core.web.MetricsController;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 컴포넌트 스캔 없이 함수형으로 스프링 빈 등록 (짧게 떠서 일하고 끝나는 배치 컨테이너용)
+ * <p>
+ * AutoAppConfig는 시작할 때마다 클래스패스의 .class 파일을 모두 읽어 애노테이션을 확인하고,
+ * 빈마다 생성자/필드/메서드를 리플렉션으로 뒤져 @Autowired, @PostConstruct 등을 찾는다.
+ * 여기서는 같은 빈을 같은 이름으로 직접 등록하고, 생성은 람다(Supplier)로 한다.
+ * - 의존관계는 람다 안에서 getBean으로 찾아 생성자에 넘긴다
+ * - @Value, @ConditionalOnProperty 대신 Environment에서 직접 읽는다
+ * - @PostConstruct, @PreDestroy 대신 init/destroy 메서드 이름을 빈 정의에 적는다
+ * 그래서 GenericApplicationContext에 애노테이션 처리기(ConfigurationClassPostProcessor 등)를 등록할 필요가 없다.
+ * </p>
+ * <p>
+ * 사용법
+ * <pre>
+ * GenericApplicationContext ac = new GenericApplicationContext();
+ * new FunctionalAppConfig().initialize(ac);
+ * ac.refresh();
+ * </pre>
+ * CoreApplication은 @SpringBootApplication 컴포넌트 스캔을 그대로 쓴다. 여기에 이 초기화기를 더하면 같은 이름의 빈이 두 번 등록되어 실패한다.
+ * @Configuration이 아니므로 컴포넌트 스캔 대상도 아니다. 시작 시간 비교는 StartupBenchmark 참고
+ * </p>
+ */
+public class FunctionalAppConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    private final boolean includeWeb;
+
+    public FunctionalAppConfig() {
+        this(true);
+    }
+
+    /**
+     * @param includeWeb false이면 웹(요청 로그, 데모 컨트롤러) 빈은 빼고 회원, 주문, 할인 빈만 등록
+     */
+    public FunctionalAppConfig(boolean includeWeb) {
+        this.includeWeb = includeWeb;
+    }
+
+    @Override
+    public void initialize(GenericApplicationContext ac) {
+        // 회원
+        ac.registerBean("memoryMemberRepository", MemoryMemberRepository.class, MemoryMemberRepository::new);
+        ac.registerBean("memberServiceImpl", MemberServiceImpl.class,
+                () -> new MemberServiceImpl(ac.getBean(MemberRepository.class)));
+
+        // 할인: RateDiscountPolicy가 @Primary, @MainDiscountPolicy
+        ac.registerBean("fixDiscountPolicy", FixDiscountPolicy.class, FixDiscountPolicy::new);
+        ac.registerBean("rateDiscountPolicy", RateDiscountPolicy.class, RateDiscountPolicy::new,
+                bd -> bd.setPrimary(true));
+        // 규칙 파일 할인: hello.discount.rules.location (RuleBasedDiscountPolicy의 @ConditionalOnProperty와 같은 규칙)
+        Environment env = ac.getEnvironment();
+        String rulesLocation = env.getProperty("hello.discount.rules.location");
+        if (rulesLocation != null) {
+            ac.registerBean("ruleBasedDiscountPolicy", RuleBasedDiscountPolicy.class, () -> new RuleBasedDiscountPolicy(
+                    rulesLocation, env.getProperty("hello.discount.rules.poll-interval-ms", Long.class, 1000L)),
+                    bd -> bd.setDestroyMethodName("close"));
+        }
+        // 할인 코드 라우터: 스캔 시 Map<String, DiscountPolicy> 주입과 같게 빈 이름 → 정책
+        ac.registerBean("discountPolicyRouter", DiscountPolicyRouter.class,
+                () -> new DiscountPolicyRouter(ac.getBeansOfType(DiscountPolicy.class)));
+
+        // 쿠폰
+        ac.registerBean("couponStore", CouponStore.class,
+                () -> new CouponStore(env.getProperty("hello.coupon.stripes", Integer.class, 0)));
+
+        // 주문: 이벤트 스트림, 집계, 주문 저장소, 할인 코드 라우터, 쿠폰 저장소는 @Autowired(required = false) 수정자 주입을 직접 한다
+        ac.registerBean("orderEventStream", OrderEventStream.class, () -> new OrderEventStream(
+                env.getProperty("hello.order-events.buffer-size", Integer.class, 1024),
+                env.getProperty("hello.order-events.overflow", OrderEventStream.OverflowPolicy.class, OrderEventStream.OverflowPolicy.DROP),
+                env.getProperty("hello.order-events.sample-rate", Integer.class, 10),
+                env.getProperty("hello.order-events.spill-limit", Integer.class, 65536),
+                env.getProperty("hello.order-events.max-batch", Integer.class, 64),
+                env.getProperty("hello.order-events.threads", Integer.class, 2)),
+                bd -> bd.setDestroyMethodName("close"));
+        ac.registerBean("orderAggregates", OrderAggregates.class, OrderAggregates::new);
+        // 주문 저장소: hello.order-repository.enabled (PartitionedOrderRepository의 @ConditionalOnProperty와 같은 규칙)
+        boolean orderRepository = env.getProperty("hello.order-repository.enabled", Boolean.class, false);
+        if (orderRepository) {
+            ac.registerBean("partitionedOrderRepository", PartitionedOrderRepository.class, () -> new PartitionedOrderRepository(
+                    env.getProperty("hello.order-repository.partition-millis", Long.class, PartitionedOrderRepository.DEFAULT_PARTITION_MILLIS)));
+        }
+        ac.registerBean("orderServiceImpl", OrderServiceImpl.class, () -> {
+            OrderServiceImpl orderService = new OrderServiceImpl(ac.getBean(MemberRepository.class), ac.getBean(DiscountPolicy.class));
+            orderService.setOrderEventStream(ac.getBean(OrderEventStream.class));
+            orderService.setOrderAggregates(ac.getBean(OrderAggregates.class));
+            orderService.setDiscountPolicyRouter(ac.getBean(DiscountPolicyRouter.class));
+            orderService.setCouponStore(ac.getBean(CouponStore.class));
+            if (orderRepository) {
+                orderService.setOrderRepository(ac.getBean(PartitionedOrderRepository.class));
+            }
+            return orderService;
+        });
+
+        // 메서드 시간 계측: hello.metrics.enabled (MethodMetrics, TimedBeanPostProcessor의 @ConditionalOnProperty와 같은 규칙)
+        // BeanPostProcessor 타입 빈은 refresh 때 다른 빈보다 먼저 만들어져 적용된다
+        boolean metrics = env.getProperty("hello.metrics.enabled", Boolean.class, false);
+        if (metrics) {
+            ac.registerBean("methodMetrics", MethodMetrics.class, MethodMetrics::new);
+            ac.registerBean("timedBeanPostProcessor", TimedBeanPostProcessor.class,
+                    () -> new TimedBeanPostProcessor(ac.getBean(MethodMetrics.class)));
+        }
+
+        if (includeWeb) {
+            registerWebBeans(ac);
+            if (metrics) {
+                ac.registerBean("metricsController", MetricsController.class,
+                        () -> new MetricsController(ac.getBean(MethodMetrics.class)));
+            }
+        }
+    }
+
+    private static void registerWebBeans(GenericApplicationContext ac) {
+        Environment env = ac.getEnvironment();
+
+        // 로그 출력 방식: hello.log.async.enabled (ConsoleLogWriter, AsyncFileLogWriter의 @ConditionalOnProperty와 같은 규칙)
+        if (env.getProperty("hello.log.async.enabled", Boolean.class, false)) {
+            String file = env.getProperty("hello.log.async.file", "logs/request.log");
+            ac.registerBean("asyncFileLogWriter", AsyncFileLogWriter.class, () -> {
+                try {
+                    return new AsyncFileLogWriter(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, bd -> bd.setDestroyMethodName("close"));
+        } else {
+            ac.registerBean("consoleLogWriter", ConsoleLogWriter.class, ConsoleLogWriter::new);
+        }
+
+        // request 스코프 + 프록시: 스캔 시 @Scope(proxyMode = TARGET_CLASS)가 하는 일을 직접 한다
+        // 실제 빈은 scopedTarget.requestLogger, requestLogger 이름으로는 CGLIB 프록시가 등록된다
+        AbstractBeanDefinition requestLogger = BeanDefinitionBuilder
+                .genericBeanDefinition(RequestLogger.class, () -> new RequestLogger(ac.getBean(LogWriter.class)))
+                .setScope(WebApplicationContext.SCOPE_REQUEST)
+                .setInitMethodName("init")
+                .setDestroyMethodName("close")
+                .getBeanDefinition();
+        BeanDefinitionHolder proxy = ScopedProxyUtils.createScopedProxy(
+                new BeanDefinitionHolder(requestLogger, "requestLogger"), ac, true);
+        ac.registerBeanDefinition(proxy.getBeanName(), proxy.getBeanDefinition());
+
+        ac.registerBean("contextRequestLogger", ContextRequestLogger.class,
+                () -> new ContextRequestLogger(ac.getBean(LogWriter.class)));
+        ac.registerBean("requestLogContextFilter", RequestLogContextFilter.class, RequestLogContextFilter::new);
+        int poolSize = env.getProperty("hello.async.pool-size", Integer.class, 4);
+        ac.registerBean("requestContextScheduler", RequestContextScheduler.class,
+                () -> new RequestContextScheduler(poolSize), bd -> bd.setDestroyMethodName("shutdown"));
+
+        ac.registerBean("demoLogService", DemoLogService.class,
+                () -> new DemoLogService(ac.getBean("requestLogger", RequestLogger.class), ac.getBean(ContextRequestLogger.class)));
+        ac.registerBean("demoLogController", DemoLogController.class,
+                () -> new DemoLogController(
+                        ac.getBean("requestLogger", RequestLogger.class),
+                        ac.getBean(ContextRequestLogger.class),
+                        ac.getBean(DemoLogService.class),
+                        ac.getBean(RequestContextScheduler.class)));
+    }
+}
@@ -0,0 +1,48 @@
+package hello.core;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberService;
+import hello.core.member.MemberServiceImpl;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.order.OrderService;
+import hello.core.order.OrderServiceImpl;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * AppConfig의 lite 모드 버전: CGLIB 프록시 없이 싱글톤 보장
+ * <p>
+ * AppConfig는 memberService(), orderService() 안에서 memberRepository()를 직접 호출하기 때문에,
+ * 싱글톤을 지키려면 @Configuration이 만드는 CGLIB 하위 클래스가 호출을 가로채야 한다.
+ * 여기서는 @Bean 메서드끼리 서로 호출하지 않고, 필요한 빈을 메서드 파라미터로 받는다.
+ * 스프링 컨테이너가 이미 만든 빈을 넘겨주므로 MemoryMemberRepository는 하나뿐이고, 프록시 클래스 생성과 호출 가로채기가 없다.
+ * </p>
+ * <p>
+ * @Configuration(proxyBeanMethods = false)와 같은 lite 모드다. 애노테이션은 일부러 붙이지 않았다.
+ * 붙이면 CoreApplication의 컴포넌트 스캔에 잡혀 AppConfig와 같은 이름의 빈이 두 번 등록되기 때문.
+ * new AnnotationConfigApplicationContext(LiteAppConfig.class)처럼 직접 지정해서 쓴다. 비교는 StartupBenchmark 참고
+ * </p>
+ */
+public class LiteAppConfig {
+
+    @Bean
+    public MemberRepository memberRepository() {
+        return new MemoryMemberRepository();
+    }
+
+    @Bean
+    public DiscountPolicy discountPolicy() {
+        return new RateDiscountPolicy();
+    }
+
+    @Bean
+    public MemberService memberService(MemberRepository memberRepository) {
+        return new MemberServiceImpl(memberRepository);
+    }
+
+    @Bean
+    public OrderService orderService(MemberRepository memberRepository, DiscountPolicy discountPolicy) {
+        return new OrderServiceImpl(memberRepository, discountPolicy);
+    }
+}
@@ -0,0 +1,273 @@
+package hello.core.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * 비동기 파일 로그 출력 (hello.log.async.enabled=true 일 때 등록)
+ * <p>
+ * - 요청 스레드는 락 없이(CAS) 링 버퍼의 칸을 하나 예약하고, 미리 할당해 둔 칸의 byte[]에 UTF-8로 바로 인코딩한 뒤 공개만 한다
+ *   문자열 연결이나 새 버퍼 할당이 없고, 파일 I/O는 기다리지 않는다
+ * - 기록 스레드 하나가 공개된 칸을 순서대로 모아 direct 버퍼에 담고, 버퍼가 차거나 링이 비면 FileChannel에 한 번에 쓴다
+ * - 링이 가득 차면 요청 스레드를 막지 않고 그 줄을 버린다. 버린 줄 수는 로그 파일과 getDroppedCount()로 알 수 있다
+ * - 한 줄이 SLOT_SIZE 바이트를 넘으면 잘린다
+ * - 파일 쓰기가 실패하면 그 묶음은 버리고 계속한다. 실패는 로그로 남기고(연달아 실패하면 처음 한 번만) getWriteFailureCount, getLastWriteFailure로 볼 수 있다
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "hello.log.async.enabled", havingValue = "true")
+public class AsyncFileLogWriter implements LogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncFileLogWriter.class);
+
+    private static final int DEFAULT_CAPACITY = 8192; // 링 버퍼 칸 수
+    private static final int SLOT_SIZE = 512; // 한 줄 최대 바이트(줄바꿈 포함)
+    private static final int LIMIT = SLOT_SIZE - 1; // 줄바꿈 자리를 남겨 둔다
+    private static final int BATCH_BYTES = 64 * 1024;
+    private static final long MAX_IDLE_PARK_NANOS = 1_000_000L;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final byte[][] slots;
+    private final int[] lengths;
+    private final AtomicLongArray published; // 칸마다 마지막으로 공개된 순번
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong(); // 다음에 예약될 순번
+    private volatile long head; // 기록 스레드가 다음에 읽을 순번
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong writeFailures = new AtomicLong();
+    private volatile IOException lastWriteFailure;
+    private boolean failing; // 기록 스레드만 쓴다: 직전 쓰기가 실패했는지
+
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AsyncFileLogWriter(@Value("${hello.log.async.file:logs/request.log}") String file) throws IOException {
+        this(Paths.get(file), DEFAULT_CAPACITY);
+    }
+
+    public AsyncFileLogWriter(Path file, int capacity) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity는 0보다 커야 합니다");
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.file = file;
+        this.channel = FileChannel.open(file, CREATE, WRITE, APPEND);
+
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1; // 순번을 칸 번호로 바꿀 때 mask를 쓰도록 2의 거듭제곱으로
+        }
+        this.slots = new byte[size][SLOT_SIZE];
+        this.lengths = new int[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1L);
+        }
+        this.mask = size - 1;
+
+        this.writerThread = new Thread(this::drainLoop, "async-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void write(String uuid, String requestURL, String message) {
+        long seq = claim();
+        if (seq < 0) {
+            dropped.increment();
+            return;
+        }
+        int index = (int) seq & mask;
+        byte[] slot = slots[index];
+
+        int pos = put(slot, 0, '[');
+        pos = encode(slot, pos, uuid);
+        pos = put(slot, pos, ']');
+        if (requestURL != null) {
+            pos = put(slot, pos, '[');
+            pos = encode(slot, pos, requestURL);
+            pos = put(slot, pos, ']');
+        }
+        pos = put(slot, pos, ' ');
+        pos = encode(slot, pos, message);
+        slot[pos++] = '\n';
+
+        lengths[index] = pos;
+        published.set(index, seq); // 칸 내용을 다 쓴 뒤에 공개
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // 파일 쓰기 실패 횟수(실패한 묶음 수)
+    public long getWriteFailureCount() {
+        return writeFailures.get();
+    }
+
+    // 마지막 파일 쓰기 실패, 없으면 null
+    public IOException getLastWriteFailure() {
+        return lastWriteFailure;
+    }
+
+    // 남은 로그를 모두 기록하고 파일을 닫는다
+    @PreDestroy
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    // 칸 하나 예약. 링이 가득 찼거나 닫혔으면 -1
+    private long claim() {
+        long seq;
+        do {
+            if (!running) {
+                return -1;
+            }
+            seq = tail.get();
+            if (seq - head >= slots.length) {
+                return -1;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+        return seq;
+    }
+
+    private void drainLoop() {
+        long next = head;
+        long reportedDrops = 0;
+        long parkNanos = 1_000L;
+        while (running || next < tail.get()) {
+            int index = (int) next & mask;
+            if (published.get(index) == next) {
+                int length = lengths[index];
+                if (batch.remaining() < length) {
+                    flush();
+                }
+                batch.put(slots[index], 0, length);
+                head = ++next; // 복사했으니 칸을 돌려준다
+                parkNanos = 1_000L;
+                continue;
+            }
+
+            // 링이 비었음: 모아 둔 것을 쓰고 잠시 쉰다
+            long drops = dropped.sum();
+            if (drops != reportedDrops) {
+                byte[] notice = ("[async-log] dropped " + (drops - reportedDrops) + " lines\n").getBytes(StandardCharsets.UTF_8);
+                if (batch.remaining() < notice.length) {
+                    flush();
+                }
+                batch.put(notice);
+                reportedDrops = drops;
+            }
+            if (batch.position() > 0) {
+                flush();
+            }
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos * 2, MAX_IDLE_PARK_NANOS);
+        }
+        flush();
+    }
+
+    private void flush() {
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (failing) {
+                failing = false;
+                log.info("비동기 로그 파일 쓰기 복구: {}", file);
+            }
+        } catch (IOException e) {
+            // 기록 실패는 요청 처리에 영향을 주지 않는다. 연달아 실패하는 동안은 로그를 한 번만 남긴다
+            lastWriteFailure = e;
+            writeFailures.incrementAndGet();
+            if (!failing) {
+                failing = true;
+                log.error("비동기 로그 파일 쓰기 실패: " + file, e);
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static int put(byte[] slot, int pos, char c) {
+        if (pos >= LIMIT) {
+            return LIMIT;
+        }
+        slot[pos] = (byte) c;
+        return pos + 1;
+    }
+
+    // UTF-8 인코딩. 자리가 모자라면 그 글자부터 잘라내고 LIMIT를 돌려준다
+    private static int encode(byte[] slot, int pos, String s) {
+        if (s == null) {
+            s = "null";
+        }
+        for (int i = 0; i < s.length() && pos < LIMIT; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                slot[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                if (pos + 2 > LIMIT) {
+                    return LIMIT;
+                }
+                slot[pos++] = (byte) (0xC0 | (c >> 6));
+                slot[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                if (pos + 4 > LIMIT) {
+                    return LIMIT;
+                }
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                slot[pos++] = (byte) (0xF0 | (cp >> 18));
+                slot[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                slot[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                slot[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                slot[pos++] = '?'; // 짝이 없는 surrogate
+            } else {
+                if (pos + 3 > LIMIT) {
+                    return LIMIT;
+                }
+                slot[pos++] = (byte) (0xE0 | (c >> 12));
+                slot[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                slot[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+}
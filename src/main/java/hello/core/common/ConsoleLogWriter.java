@@ -0,0 +1,21 @@
+package hello.core.common;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기본 로그 출력: System.out (요청 스레드가 stdout 락을 잡고 바로 출력)
+ */
+@Component
+@ConditionalOnProperty(name = "hello.log.async.enabled", havingValue = "false", matchIfMissing = true)
+public class ConsoleLogWriter implements LogWriter {
+
+    @Override
+    public void write(String uuid, String requestURL, String message) {
+        if (requestURL == null) {
+            System.out.println("[" + uuid + "] " + message);
+        } else {
+            System.out.println("[" + uuid + "]" + "[" + requestURL + "] " + message);
+        }
+    }
+}
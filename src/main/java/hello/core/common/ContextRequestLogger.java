@@ -0,0 +1,27 @@
+package hello.core.common;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * RequestLogger의 싱글톤 버전: 현재 스레드의 RequestLogContext로 uuid, URL을 찍는다
+ */
+@Component
+public class ContextRequestLogger {
+
+    private final LogWriter logWriter;
+
+    public ContextRequestLogger(LogWriter logWriter) {
+        this.logWriter = logWriter;
+    }
+
+    /**
+     * @throws IllegalStateException 요청 문맥이 묶여 있지 않은 스레드에서 호출한 경우
+     */
+    public void log(String message) {
+        RequestLogContext context = RequestLogContext.current();
+        if (context == null) {
+            throw new IllegalStateException("요청 문맥이 없습니다. RequestLogContextFilter를 거친 요청 스레드에서 호출해야 합니다");
+        }
+        logWriter.write(context.getUuid(), context.getRequestURL(), message);
+    }
+}
@@ -0,0 +1,14 @@
+package hello.core.common;
+
+/**
+ * RequestLogger가 로그 한 줄을 내보내는 곳
+ * <p>
+ * 한 줄의 형식은 "[uuid][requestURL] message" (requestURL이 없으면 "[uuid] message")
+ * 조각을 그대로 넘겨서, 구현체가 문자열을 이어 붙이지 않고 바로 기록할 수 있게 한다.
+ * </p>
+ */
+public interface LogWriter {
+
+    void write(String uuid, String requestURL, String message);
+
+}
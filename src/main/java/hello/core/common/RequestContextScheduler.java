@@ -0,0 +1,86 @@
+package hello.core.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 요청 문맥을 그대로 들고 가는 지연 실행기
+ * <p>
+ * 컨트롤러가 Thread.sleep으로 기다리는 대신 이 실행기에 뒷일을 맡기고 CompletableFuture를 돌려주면,
+ * 서블릿(Tomcat) 스레드는 바로 반납되고 응답은 작업이 끝날 때 비동기로 나간다.
+ * </p>
+ * <p>
+ * 예약하는 시점의 요청 정보(RequestContextHolder, RequestLogContext)를 잡아 두었다가 작업 스레드에 다시 묶는다.
+ * 같은 HttpServletRequest를 감싸므로 request 스코프 빈(RequestLogger)은 요청 속성에 저장된 같은 인스턴스가 조회된다.
+ * 단, 첫 디스패치가 끝날 때 DispatcherServlet이 요청 속성을 완료 처리하므로 request 스코프 빈의 @PreDestroy는 작업보다 먼저 호출된다.
+ * </p>
+ */
+@Component
+public class RequestContextScheduler {
+
+    private final ScheduledExecutorService executor;
+
+    public RequestContextScheduler(@Value("${hello.async.pool-size:4}") int poolSize) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(poolSize, task -> {
+            Thread thread = new Thread(task, "request-scheduler-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * delay 뒤에 현재 요청 문맥으로 task를 실행한다
+     *
+     * @return task의 결과. task가 던진 예외는 이 future의 예외로 전달된다
+     */
+    public <T> CompletableFuture<T> schedule(Supplier<T> task, long delay, TimeUnit unit) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        RequestLogContext logContext = RequestLogContext.current();
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.schedule(() -> {
+            ServletRequestAttributes bound = bind(requestAttributes);
+            RequestLogContext.bind(logContext);
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                RequestLogContext.clear();
+                if (bound != null) {
+                    bound.requestCompleted();
+                }
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }, delay, unit);
+        return future;
+    }
+
+    // 원래 요청을 감싼 새 ServletRequestAttributes를 묶는다. 원래 것은 첫 디스패치가 끝나면서 이미 완료 처리되었을 수 있다
+    private static ServletRequestAttributes bind(RequestAttributes requestAttributes) {
+        if (!(requestAttributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        ServletRequestAttributes original = (ServletRequestAttributes) requestAttributes;
+        ServletRequestAttributes attributes = new ServletRequestAttributes(original.getRequest(), original.getResponse());
+        RequestContextHolder.setRequestAttributes(attributes);
+        return attributes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
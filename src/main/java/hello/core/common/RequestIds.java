@@ -0,0 +1,24 @@
+package hello.core.common;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청 식별자 생성
+ * <p>
+ * UUID.randomUUID()는 SecureRandom을 쓰기 때문에 요청마다 부르기엔 비싸다.
+ * 요청 로그 구분에는 암호학적 난수가 필요 없으므로 ThreadLocalRandom으로 같은 형식(버전 4 UUID 문자열)을 만든다.
+ * </p>
+ */
+public final class RequestIds {
+
+    private RequestIds() {
+    }
+
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L; // 버전 4
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48); // IETF variant
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+}
@@ -0,0 +1,45 @@
+package hello.core.common;
+
+/**
+ * 요청 하나의 로그 문맥(uuid, 요청 URL)
+ * <p>
+ * request 스코프 빈(RequestLogger) 대신 쓰는 가벼운 방식.
+ * RequestLogContextFilter가 요청마다 한 번 만들어 현재 스레드에 묶어 두고, ContextRequestLogger가 꺼내 쓴다.
+ * CGLIB 프록시, 스코프 조회, 요청마다의 빈 생성이 없다.
+ * </p>
+ */
+public final class RequestLogContext {
+
+    private static final ThreadLocal<RequestLogContext> CURRENT = new ThreadLocal<>();
+
+    private final String uuid;
+    private final String requestURL;
+
+    public RequestLogContext(String uuid, String requestURL) {
+        this.uuid = uuid;
+        this.requestURL = requestURL;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getRequestURL() {
+        return requestURL;
+    }
+
+    /**
+     * @return 현재 스레드에 묶인 문맥, 없으면 null
+     */
+    public static RequestLogContext current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(RequestLogContext context) {
+        CURRENT.set(context);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,45 @@
+package hello.core.common;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청마다 RequestLogContext를 한 번 만들어 요청 처리 스레드에 묶는다
+ * <p>
+ * 문맥은 요청 속성에도 넣어 두어, 비동기 처리 후 다시 디스패치될 때도 같은 uuid를 쓴다.
+ * </p>
+ */
+@Component
+public class RequestLogContextFilter extends OncePerRequestFilter {
+
+    public static final String ATTRIBUTE_NAME = RequestLogContext.class.getName();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestLogContext context = (RequestLogContext) request.getAttribute(ATTRIBUTE_NAME);
+        if (context == null) {
+            context = new RequestLogContext(RequestIds.next(), request.getRequestURL().toString());
+            request.setAttribute(ATTRIBUTE_NAME, context);
+        }
+
+        RequestLogContext.bind(context);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestLogContext.clear();
+        }
+    }
+
+    // 비동기 디스패치에서도 문맥을 다시 묶는다
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
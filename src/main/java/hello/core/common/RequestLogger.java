@@ -15,24 +15,31 @@ public class RequestLogger {
     private String uuid;
     private String RequestURL;
 
+    // 실제 출력: 기본은 콘솔, hello.log.async.enabled=true 이면 비동기 파일 기록
+    private final LogWriter logWriter;
+
+    public RequestLogger(LogWriter logWriter) {
+        this.logWriter = logWriter;
+    }
+
     public void setRequestURL(String requestURL) {
         this.RequestURL = requestURL;
     }
 
     public void log(String message) {
-        System.out.println("[" + uuid + "]" + "[" + RequestURL + "] " + message);
+        logWriter.write(uuid, RequestURL, message);
     }
 
     // 의존관계 주입 후 빈 uuid 속성 값 설정
     @PostConstruct
     public void init() {
         uuid = UUID.randomUUID().toString();
-        System.out.println("[" + uuid + "] request scope bean created: " + this);
+        logWriter.write(uuid, null, "request scope bean created: " + this);
     }
 
     // 소멸
     @PreDestroy
     public void close() {
-        System.out.println("[" + uuid + "] request scope bean destroyed: " + this);
+        logWriter.write(uuid, null, "request scope bean destroyed: " + this);
     }
 }
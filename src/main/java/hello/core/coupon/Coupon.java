@@ -0,0 +1,68 @@
+package hello.core.coupon;
+
+/**
+ * 쿠폰 정의(불변): 정액 할인 금액, 전체 사용 한도, 회원당 사용 한도
+ */
+public final class Coupon {
+
+    public static final int UNLIMITED = 0;
+
+    private final String id;
+    private final int amount;
+    private final int totalLimit;
+    private final int perMemberLimit;
+
+    /**
+     * @param amount 할인 금액(정액)
+     * @param totalLimit 전체 사용 한도(1 이상)
+     * @param perMemberLimit 회원당 사용 한도. 제한이 없으면 UNLIMITED
+     */
+    public Coupon(String id, int amount, int totalLimit, int perMemberLimit) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("쿠폰 금액은 0 이상이어야 합니다: " + amount);
+        }
+        if (totalLimit < 1) {
+            throw new IllegalArgumentException("쿠폰 전체 한도는 1 이상이어야 합니다: " + totalLimit);
+        }
+        if (perMemberLimit < 0) {
+            throw new IllegalArgumentException("회원당 한도는 0(제한 없음) 이상이어야 합니다: " + perMemberLimit);
+        }
+        this.id = id;
+        this.amount = amount;
+        this.totalLimit = totalLimit;
+        this.perMemberLimit = perMemberLimit;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public int getTotalLimit() {
+        return totalLimit;
+    }
+
+    public int getPerMemberLimit() {
+        return perMemberLimit;
+    }
+
+    /**
+     * @return 할인 대상 금액: 쿠폰 금액, 단 가격을 넘지 않는다
+     */
+    public int discount(int price) {
+        return Math.max(0, Math.min(amount, price));
+    }
+
+    @Override
+    public String toString() {
+        return "Coupon{" +
+                "id='" + id + '\'' +
+                ", amount=" + amount +
+                ", totalLimit=" + totalLimit +
+                ", perMemberLimit=" + perMemberLimit +
+                '}';
+    }
+}
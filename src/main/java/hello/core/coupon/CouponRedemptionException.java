@@ -0,0 +1,18 @@
+package hello.core.coupon;
+
+/**
+ * 쿠폰을 사용하지 못했을 때(없는 쿠폰, 한도 소진, 회원 한도 초과)
+ */
+public class CouponRedemptionException extends RuntimeException {
+
+    private final CouponStore.Result result;
+
+    public CouponRedemptionException(String couponId, long memberId, CouponStore.Result result) {
+        super("쿠폰을 사용할 수 없습니다: " + couponId + ", memberId=" + memberId + ", " + result);
+        this.result = result;
+    }
+
+    public CouponStore.Result getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,191 @@
+package hello.core.coupon;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 쿠폰 사용(차감) 저장소: 동시에 몰려도 한도보다 많이 쓰이지 않는다. 전역 락이 없다
+ * <p>
+ * 전체 한도: 쿠폰마다 남은 수량을 스트라이프 여러 칸에 나눠 담는다(예: 한도 1000, 8칸이면 125씩)
+ * - 스레드마다 정해진 칸부터 CAS로 1씩 뺀다. 칸이 비면 다음 칸을 본다. 모든 칸이 0이면 소진
+ * - 칸 사이는 캐시 라인(64바이트) 간격이라, 플래시 세일처럼 쿠폰 하나에 몰려도 스레드들이 서로 다른 칸에서 CAS한다
+ * - 어떤 칸도 0 아래로 내려가지 않으므로 합계가 한도를 넘지 않는다. 소진 직전에는 남은 칸을 찾아 훑는다
+ * 회원당 한도: 쿠폰마다 회원 id → 사용 횟수(AtomicInteger). 한도 미만일 때만 CAS로 1 올린다
+ * 회원 한도를 먼저 잡고 전체 수량을 뺀다. 수량이 없으면 회원 한도를 되돌린다(되돌리기 전 잠깐은 같은 회원의 다른 요청이 거절될 수 있다)
+ * </p>
+ */
+@Component
+public class CouponStore {
+
+    public enum Result {
+        REDEEMED, UNKNOWN_COUPON, SOLD_OUT, MEMBER_LIMIT
+    }
+
+    private static final int PADDING = 16; // int 16개 = 64바이트
+
+    private final int stripes;
+    private final ConcurrentMap<String, CouponState> coupons = new ConcurrentHashMap<>();
+
+    public CouponStore() {
+        this(0);
+    }
+
+    /**
+     * @param stripes 쿠폰 하나의 수량을 나눌 칸 수. 0이면 CPU 수(2의 거듭제곱으로 올림, 최대 64)
+     */
+    @Autowired
+    public CouponStore(@Value("${hello.coupon.stripes:0}") int stripes) {
+        if (stripes < 0) {
+            throw new IllegalArgumentException("stripes는 0 이상이어야 합니다: " + stripes);
+        }
+        int cpus = Runtime.getRuntime().availableProcessors();
+        this.stripes = stripes > 0 ? stripes : Math.min(64, Integer.highestOneBit(Math.max(1, cpus * 2 - 1)));
+    }
+
+    /**
+     * @throws IllegalArgumentException 이미 등록된 쿠폰 id
+     */
+    public void register(Coupon coupon) {
+        if (coupons.putIfAbsent(coupon.getId(), new CouponState(coupon, stripes)) != null) {
+            throw new IllegalArgumentException("이미 등록된 쿠폰입니다: " + coupon.getId());
+        }
+    }
+
+    public Coupon findById(String couponId) {
+        CouponState state = coupons.get(couponId);
+        return state == null ? null : state.coupon;
+    }
+
+    /**
+     * 쿠폰 한 장을 memberId 회원이 사용한다
+     * @return REDEEMED일 때만 차감된다
+     */
+    public Result redeem(String couponId, long memberId) {
+        CouponState state = coupons.get(couponId);
+        if (state == null) {
+            return Result.UNKNOWN_COUPON;
+        }
+        AtomicInteger memberUses = null;
+        if (state.coupon.getPerMemberLimit() != Coupon.UNLIMITED) {
+            memberUses = state.memberUses.computeIfAbsent(memberId, id -> new AtomicInteger());
+            if (!tryIncrement(memberUses, state.coupon.getPerMemberLimit())) {
+                return Result.MEMBER_LIMIT;
+            }
+        }
+        if (!state.take()) {
+            if (memberUses != null) {
+                memberUses.decrementAndGet();
+            }
+            return Result.SOLD_OUT;
+        }
+        return Result.REDEEMED;
+    }
+
+    /**
+     * redeem이 REDEEMED를 돌려준 사용을 취소한다(주문 생성 실패 등)
+     */
+    public void cancel(String couponId, long memberId) {
+        CouponState state = coupons.get(couponId);
+        if (state == null) {
+            return;
+        }
+        state.giveBack();
+        if (state.coupon.getPerMemberLimit() != Coupon.UNLIMITED) {
+            AtomicInteger memberUses = state.memberUses.get(memberId);
+            if (memberUses != null) {
+                memberUses.decrementAndGet();
+            }
+        }
+    }
+
+    // 남은 수량: 동시에 사용 중이면 그 순간의 근삿값
+    public int getRemaining(String couponId) {
+        CouponState state = coupons.get(couponId);
+        return state == null ? 0 : state.remaining();
+    }
+
+    public int getRedeemedCount(String couponId) {
+        CouponState state = coupons.get(couponId);
+        return state == null ? 0 : state.coupon.getTotalLimit() - state.remaining();
+    }
+
+    public int getMemberRedeemedCount(String couponId, long memberId) {
+        CouponState state = coupons.get(couponId);
+        if (state == null) {
+            return 0;
+        }
+        AtomicInteger memberUses = state.memberUses.get(memberId);
+        return memberUses == null ? 0 : memberUses.get();
+    }
+
+    private static boolean tryIncrement(AtomicInteger counter, int limit) {
+        while (true) {
+            int used = counter.get();
+            if (used >= limit) {
+                return false;
+            }
+            if (counter.compareAndSet(used, used + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static final class CouponState {
+
+        final Coupon coupon;
+        final ConcurrentMap<Long, AtomicInteger> memberUses = new ConcurrentHashMap<>();
+        private final AtomicIntegerArray remaining; // 칸 i의 남은 수량은 i * PADDING 위치
+        private final int count;
+
+        CouponState(Coupon coupon, int stripes) {
+            this.coupon = coupon;
+            this.count = Math.min(stripes, coupon.getTotalLimit()); // 칸마다 1장 이상
+            this.remaining = new AtomicIntegerArray(count * PADDING);
+            int base = coupon.getTotalLimit() / count;
+            int extra = coupon.getTotalLimit() % count;
+            for (int i = 0; i < count; i++) {
+                remaining.set(i * PADDING, base + (i < extra ? 1 : 0));
+            }
+        }
+
+        boolean take() {
+            int start = probe();
+            for (int i = 0; i < count; i++) {
+                int index = ((start + i) % count) * PADDING;
+                while (true) {
+                    int left = remaining.get(index);
+                    if (left == 0) {
+                        break; // 다음 칸
+                    }
+                    if (remaining.compareAndSet(index, left, left - 1)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void giveBack() {
+            remaining.incrementAndGet(probe() * PADDING);
+        }
+
+        int remaining() {
+            int sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += remaining.get(i * PADDING);
+            }
+            return sum;
+        }
+
+        private int probe() {
+            long id = Thread.currentThread().getId();
+            return (int) (((id * 0x9E3779B97F4A7C15L) >>> 33) % count);
+        }
+    }
+}
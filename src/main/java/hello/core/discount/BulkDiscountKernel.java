@@ -0,0 +1,113 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+/**
+ * 가격 배열 전체의 할인 금액을 한 번에 계산한다(재가격 캠페인처럼 가격이 수백만 건일 때)
+ * <p>
+ * 결과는 DiscountTable.discount(grade, price)와 같다: 가격 * 정률 / 100 + 정액 (int 넘침, 0 방향 버림까지 같다)
+ * 루프는 C2가 자동 벡터화할 수 있는 모양으로 나눠 둔다
+ * - 등급 배열을 BLOCK개씩 보고, 블록 전체가 같은 등급이면 정률과 정액이 상수인 int 전용 루프로 계산한다(벡터화)
+ * - 이 루프의 / 100은 시프트, 곱셈, 뺄셈으로 바꾼다. C2는 상수 나눗셈을 벡터화하지 않는다
+ * - 등급이 섞인 블록은 스칼라 루프로 계산한다. byte 등급을 int로 넓히는 루프는 벡터화되지 않는다
+ * 등급별로 정렬한 배열이나 discount(prices, grade, discounts)를 쓰면 대부분 벡터화된 경로를 탄다
+ * </p>
+ * <pre>
+ * BulkDiscountKernel kernel = BulkDiscountKernel.compile(new RateDiscountPolicy());
+ * kernel.discount(prices, grades, discounts);
+ * </pre>
+ */
+public final class BulkDiscountKernel {
+
+    static final int BLOCK = 1024;
+
+    private final int[] rates;
+    private final int[] fixedAmounts;
+
+    public BulkDiscountKernel(DiscountTable discountTable) {
+        this.rates = discountTable.rates();
+        this.fixedAmounts = discountTable.fixedAmounts();
+    }
+
+    /**
+     * @throws IllegalArgumentException 등급 기반 정책(GradeBasedDiscountPolicy)이 아닌 경우
+     */
+    public static BulkDiscountKernel compile(DiscountPolicy discountPolicy) {
+        if (!(discountPolicy instanceof GradeBasedDiscountPolicy)) {
+            throw new IllegalArgumentException("등급 기반 할인 정책만 컴파일할 수 있습니다: " + discountPolicy.getClass().getName());
+        }
+        return new BulkDiscountKernel(((GradeBasedDiscountPolicy) discountPolicy).discountTable());
+    }
+
+    /**
+     * discounts[i] = prices[i] 가격, grades[i] 등급(Grade.ordinal())의 할인 금액
+     * prices와 discounts는 같은 배열이어도 된다(가격 자리에 할인 금액을 덮어쓴다)
+     * @throws IllegalArgumentException 배열 길이가 다른 경우
+     * @throws ArrayIndexOutOfBoundsException 등급 ordinal이 범위를 벗어난 경우
+     */
+    public void discount(int[] prices, byte[] grades, int[] discounts) {
+        int length = prices.length;
+        if (grades.length != length || discounts.length != length) {
+            throw new IllegalArgumentException("배열 길이가 다릅니다: prices=" + length
+                    + ", grades=" + grades.length + ", discounts=" + discounts.length);
+        }
+        for (int from = 0; from < length; from += BLOCK) {
+            int to = Math.min(length, from + BLOCK);
+            int grade = grades[from];
+            if (isUniform(grades, from, to)) {
+                discountRange(prices, discounts, from, to, rates[grade], fixedAmounts[grade]);
+            } else {
+                discountMixed(prices, grades, discounts, from, to);
+            }
+        }
+    }
+
+    /**
+     * 모든 가격이 같은 등급일 때: 배열 전체를 벡터화된 루프로 계산한다
+     * @throws IllegalArgumentException 배열 길이가 다른 경우
+     */
+    public void discount(int[] prices, Grade grade, int[] discounts) {
+        if (discounts.length != prices.length) {
+            throw new IllegalArgumentException("배열 길이가 다릅니다: prices=" + prices.length + ", discounts=" + discounts.length);
+        }
+        discountRange(prices, discounts, 0, prices.length, rates[grade.ordinal()], fixedAmounts[grade.ordinal()]);
+    }
+
+    private static boolean isUniform(byte[] grades, int from, int to) {
+        byte first = grades[from];
+        for (int i = from + 1; i < to; i++) {
+            if (grades[i] != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void discountMixed(int[] prices, byte[] grades, int[] discounts, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int grade = grades[i];
+            discounts[i] = prices[i] * rates[grade] / 100 + fixedAmounts[grade];
+        }
+    }
+
+    /**
+     * price * rate / 100 + fixedAmount를 int 연산만으로 계산한다(모든 int에서 / 100과 같은 값)
+     * - |x|의 100 나머지: 2^16 ≡ 36, 2^10 ≡ 24 (mod 100)로 상위 비트를 접어 z(2^17 미만)로 줄이고, z / 100 = (z * 5243) >>> 19
+     * - |x| - 나머지는 100의 배수이므로 4로 나눈 뒤 25의 곱셈 역원(mod 2^32)을 곱하면 몫이 된다
+     * - 부호는 s(0 또는 -1)로 떼었다 붙인다. 분기가 없어야 벡터화된다
+     */
+    private static void discountRange(int[] prices, int[] discounts, int from, int to, int rate, int fixedAmount) {
+        for (int i = from; i < to; i++) {
+            int x = prices[i] * rate;
+            int s = x >> 31;
+            int u = (x ^ s) - s; // |x|, MIN_VALUE는 부호 없는 2^31
+            int a = u >>> 16;
+            int y = a * 36 + (u - (a << 16));
+            int c = y >>> 10;
+            int z = c * 24 + (y - (c << 10));
+            int remainder = z - 100 * ((z * 5243) >>> 19);
+            int quotient = ((u - remainder) >>> 2) * 0xC28F5C29;
+            discounts[i] = ((quotient ^ s) - s) + fixedAmount;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+
+/**
+ * 등급 기반 할인 정책을 표(DiscountTable)로 컴파일한 정책
+ * <p>
+ * 등급 분기나 다른 정책 객체 호출 없이, Grade.ordinal()로 배열을 읽고 곱셈 한 번으로 할인 금액을 계산한다.
+ * 여러 정책이 빈으로 등록되어 discount 호출 지점이 여러 구현체를 오가더라도, 이 클래스 하나로 모을 수 있다.
+ * </p>
+ * <pre>
+ * DiscountPolicy discountPolicy = CompiledDiscountPolicy.compile(new RateDiscountPolicy());
+ * </pre>
+ */
+public final class CompiledDiscountPolicy implements DiscountPolicy {
+
+    private final int[] rates;
+    private final int[] fixedAmounts;
+
+    public CompiledDiscountPolicy(DiscountTable discountTable) {
+        this.rates = discountTable.rates();
+        this.fixedAmounts = discountTable.fixedAmounts();
+    }
+
+    /**
+     * @throws IllegalArgumentException 등급 기반 정책(GradeBasedDiscountPolicy)이 아닌 경우
+     */
+    public static CompiledDiscountPolicy compile(DiscountPolicy discountPolicy) {
+        if (discountPolicy instanceof CompiledDiscountPolicy) {
+            return (CompiledDiscountPolicy) discountPolicy;
+        }
+        if (!(discountPolicy instanceof GradeBasedDiscountPolicy)) {
+            throw new IllegalArgumentException("등급 기반 할인 정책만 컴파일할 수 있습니다: " + discountPolicy.getClass().getName());
+        }
+        return new CompiledDiscountPolicy(((GradeBasedDiscountPolicy) discountPolicy).discountTable());
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        int grade = member.getGrade().ordinal();
+        return price * rates[grade] / 100 + fixedAmounts[grade];
+    }
+}
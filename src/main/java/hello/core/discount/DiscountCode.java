@@ -0,0 +1,38 @@
+package hello.core.discount;
+
+/**
+ * 할인 코드 핸들: DiscountPolicyRouter가 코드 문자열을 한 번 풀어 둔 작은 정수 번호
+ * <p>
+ * 시작할 때(또는 프로모션을 등록할 때) router.resolve("코드")로 받아 두고, 주문마다 이 핸들을 넘긴다
+ * 핸들을 만든 router에서만 쓸 수 있다
+ * </p>
+ */
+public final class DiscountCode {
+
+    private final DiscountPolicyRouter router;
+    private final int index;
+    private final String code;
+
+    DiscountCode(DiscountPolicyRouter router, int index, String code) {
+        this.router = router;
+        this.index = index;
+        this.code = code;
+    }
+
+    DiscountPolicyRouter router() {
+        return router;
+    }
+
+    int index() {
+        return index;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    @Override
+    public String toString() {
+        return "DiscountCode{" + code + "#" + index + "}";
+    }
+}
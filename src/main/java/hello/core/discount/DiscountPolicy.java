@@ -9,4 +9,12 @@ public interface DiscountPolicy {
      */
     int discount(Member member, int price);
 
+    /**
+     * 상품 이름까지 보고 할인하는 정책(RuleBasedDiscountPolicy)을 위한 메서드. 기본은 상품 이름을 보지 않는다
+     * @return 할인 대상 금액
+     */
+    default int discount(Member member, String itemName, int price) {
+        return discount(member, price);
+    }
+
 }
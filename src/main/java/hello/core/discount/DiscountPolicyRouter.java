@@ -0,0 +1,105 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 할인 코드로 정책을 고르는 라우터
+ * <p>
+ * AllBeanTest의 DiscountService는 주문마다 Map&lt;String, DiscountPolicy&gt;에서 코드 문자열을 찾는다(해시 계산 + 비교)
+ * 여기서는 코드를 등록할 때 한 번만 정수 핸들(DiscountCode)로 바꿔 두고, 주문마다 배열 인덱스로 정책을 꺼낸다
+ * - 스프링 빈으로 등록된 할인 정책은 빈 이름이 곧 코드("rateDiscountPolicy", "fixDiscountPolicy")
+ * - register: 코드 하나에 정책 하나. 같은 코드로 다시 등록하면 핸들은 그대로 두고 정책만 바꾼다
+ * - registerStack: 이미 등록한 코드들을 차례로 겹친 정책(StackedDiscountPolicy)을 새 코드로 등록
+ * 정책 배열은 등록할 때마다 새로 복사해 바꿔 끼우므로, 주문 처리 중에는 락이 없다
+ * </p>
+ * <p>
+ * DiscountPolicy를 구현하지 않는다. 구현하면 타입으로 할인 정책을 찾는 곳(@MainDiscountPolicy 주입 등)에 후보로 끼어든다
+ * </p>
+ */
+@Component
+public class DiscountPolicyRouter {
+
+    private final ConcurrentMap<String, DiscountCode> codes = new ConcurrentHashMap<>();
+    private volatile DiscountPolicy[] policies = new DiscountPolicy[0];
+
+    public DiscountPolicyRouter() {
+    }
+
+    // 빈 이름 → 할인 정책 빈(AllBeanTest와 같은 Map 주입)
+    @Autowired
+    public DiscountPolicyRouter(Map<String, DiscountPolicy> discountPolicies) {
+        discountPolicies.forEach(this::register);
+    }
+
+    /**
+     * @throws IllegalArgumentException 등록하지 않은 코드
+     */
+    public DiscountCode resolve(String code) {
+        DiscountCode discountCode = codes.get(code);
+        if (discountCode == null) {
+            throw new IllegalArgumentException("등록되지 않은 할인 코드입니다: " + code);
+        }
+        return discountCode;
+    }
+
+    public synchronized DiscountCode register(String code, DiscountPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("할인 정책이 없습니다: " + code);
+        }
+        DiscountCode existing = codes.get(code);
+        if (existing != null) {
+            DiscountPolicy[] updated = policies.clone();
+            updated[existing.index()] = policy;
+            policies = updated;
+            return existing;
+        }
+        DiscountPolicy[] current = policies;
+        DiscountCode discountCode = new DiscountCode(this, current.length, code);
+        DiscountPolicy[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = policy;
+        policies = updated; // 배열을 먼저 바꾼 뒤 핸들을 공개한다
+        codes.put(code, discountCode);
+        return discountCode;
+    }
+
+    /**
+     * stageCodes 순서대로 겹친 정책을 code로 등록. 단계 정책은 등록하는 시점의 것으로 고정된다
+     * @param maxDiscount 할인 합계 상한. 상한이 없으면 StackedDiscountPolicy.NO_LIMIT
+     */
+    public synchronized DiscountCode registerStack(String code, int maxDiscount, String... stageCodes) {
+        DiscountPolicy[] stages = new DiscountPolicy[stageCodes.length];
+        for (int i = 0; i < stageCodes.length; i++) {
+            stages[i] = policy(resolve(stageCodes[i]));
+        }
+        return register(code, new StackedDiscountPolicy(maxDiscount, stages));
+    }
+
+    public DiscountPolicy policy(DiscountCode discountCode) {
+        if (discountCode.router() != this) {
+            throw new IllegalArgumentException("다른 라우터에서 만든 할인 코드입니다: " + discountCode);
+        }
+        return policies[discountCode.index()];
+    }
+
+    /**
+     * @return 할인 대상 금액
+     */
+    public int discount(DiscountCode discountCode, Member member, int price) {
+        return policy(discountCode).discount(member, price);
+    }
+
+    public int discount(DiscountCode discountCode, Member member, String itemName, int price) {
+        return policy(discountCode).discount(member, itemName, price);
+    }
+
+    public boolean contains(String code) {
+        return codes.containsKey(code);
+    }
+}
@@ -0,0 +1,213 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 할인 규칙 파일을 읽어 컴파일한 규칙 모음(불변). 형식은 RuleBasedDiscountPolicy 참고
+ * <p>
+ * 등급별로 그 등급에 해당하는 규칙만 골라 람다 체인으로 엮는다
+ * - 1단계: Grade.ordinal()로 배열에서 체인을 꺼낸다(등급 조건은 여기서 끝난다)
+ * - 2단계: 규칙마다 있는 조건만 검사하는 람다. 맞지 않으면 다음 규칙 람다를 부른다
+ * 검사할 때 파싱, 맵 조회, 할당이 없다
+ * </p>
+ */
+final class DiscountRules {
+
+    @FunctionalInterface
+    interface Evaluator {
+        int discount(String itemName, int price);
+    }
+
+    private static final Evaluator NO_DISCOUNT = (itemName, price) -> 0;
+    private static final Pattern PRICE = Pattern.compile("price(>=|<=|>|<)(-?\\d+)");
+    private static final int ALL_GRADES = (1 << Grade.values().length) - 1;
+
+    private final Evaluator[] byGrade;
+    private final int ruleCount;
+
+    private DiscountRules(Evaluator[] byGrade, int ruleCount) {
+        this.byGrade = byGrade;
+        this.ruleCount = ruleCount;
+    }
+
+    static DiscountRules empty() {
+        return compile(new ArrayList<>());
+    }
+
+    /**
+     * @param source 오류 메시지에 쓸 이름(파일 경로 등)
+     * @throws IllegalArgumentException 형식이 잘못된 줄이 있는 경우(줄 번호 포함)
+     */
+    static DiscountRules parse(String source, List<String> lines) {
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                rules.add(parseRule(line));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(source + ":" + (i + 1) + ": " + e.getMessage() + " [" + line + "]", e);
+            }
+        }
+        return compile(rules);
+    }
+
+    int discount(int gradeOrdinal, String itemName, int price) {
+        return byGrade[gradeOrdinal].discount(itemName, price);
+    }
+
+    int getRuleCount() {
+        return ruleCount;
+    }
+
+    private static DiscountRules compile(List<Rule> rules) {
+        Evaluator[] byGrade = new Evaluator[Grade.values().length];
+        for (int grade = 0; grade < byGrade.length; grade++) {
+            // 뒤에서부터 엮어야 앞 규칙이 먼저 검사된다
+            Evaluator next = NO_DISCOUNT;
+            for (int i = rules.size() - 1; i >= 0; i--) {
+                Rule rule = rules.get(i);
+                if ((rule.gradeMask >>> grade & 1) != 0) {
+                    next = rule.compile(next);
+                }
+            }
+            byGrade[grade] = next;
+        }
+        return new DiscountRules(byGrade, rules.size());
+    }
+
+    private static Rule parseRule(String line) {
+        int arrow = line.indexOf("->");
+        if (arrow < 0) {
+            throw new IllegalArgumentException("'조건 -> 할인' 형식이 아닙니다");
+        }
+        Rule rule = new Rule();
+        for (String token : line.substring(0, arrow).trim().split("\\s+")) {
+            if (token.isEmpty() || token.equals("*")) {
+                continue;
+            }
+            if (token.startsWith("grade=")) {
+                int mask = 0;
+                for (String grade : token.substring("grade=".length()).split(",")) {
+                    mask |= 1 << Grade.valueOf(grade).ordinal();
+                }
+                rule.gradeMask &= mask;
+            } else if (token.startsWith("item=")) {
+                String item = token.substring("item=".length());
+                rule.itemPrefix = item.endsWith("*");
+                rule.item = rule.itemPrefix ? item.substring(0, item.length() - 1) : item;
+            } else {
+                Matcher price = PRICE.matcher(token);
+                if (!price.matches()) {
+                    throw new IllegalArgumentException("알 수 없는 조건: " + token);
+                }
+                rule.restrictPrice(price.group(1), Integer.parseInt(price.group(2)));
+            }
+        }
+        rule.action = parseAction(line.substring(arrow + 2).trim().split("\\s+"));
+        return rule;
+    }
+
+    // rate N | fixed N, 뒤에 max N(할인 상한)을 붙일 수 있다
+    private static IntUnaryOperator parseAction(String[] tokens) {
+        if (tokens.length != 2 && !(tokens.length == 4 && tokens[2].equals("max"))) {
+            throw new IllegalArgumentException("할인은 'rate N', 'fixed N' 뒤에 'max N'을 붙일 수 있습니다");
+        }
+        int amount = Integer.parseInt(tokens[1]);
+        IntUnaryOperator action;
+        switch (tokens[0]) {
+            case "rate":
+                if (amount < 0 || amount > 100) {
+                    throw new IllegalArgumentException("할인율은 0~100 입니다: " + amount);
+                }
+                action = price -> price * amount / 100; // RateDiscountPolicy와 같은 정수 연산
+                break;
+            case "fixed":
+                if (amount < 0) {
+                    throw new IllegalArgumentException("할인 금액은 0 이상입니다: " + amount);
+                }
+                action = price -> amount;
+                break;
+            default:
+                throw new IllegalArgumentException("알 수 없는 할인: " + tokens[0]);
+        }
+        if (tokens.length == 4) {
+            int max = Integer.parseInt(tokens[3]);
+            IntUnaryOperator uncapped = action;
+            action = price -> Math.min(uncapped.applyAsInt(price), max);
+        }
+        return action;
+    }
+
+    // 파싱 중에만 쓰는 규칙 한 줄
+    private static final class Rule {
+
+        int gradeMask = ALL_GRADES;
+        int minPrice = Integer.MIN_VALUE;
+        int maxPrice = Integer.MAX_VALUE;
+        String item;
+        boolean itemPrefix;
+        IntUnaryOperator action;
+
+        void restrictPrice(String operator, int bound) {
+            switch (operator) {
+                case ">=":
+                    minPrice = Math.max(minPrice, bound);
+                    break;
+                case ">":
+                    minPrice = Math.max(minPrice, bound == Integer.MAX_VALUE ? bound : bound + 1);
+                    break;
+                case "<=":
+                    maxPrice = Math.min(maxPrice, bound);
+                    break;
+                default:
+                    maxPrice = Math.min(maxPrice, bound == Integer.MIN_VALUE ? bound : bound - 1);
+                    break;
+            }
+        }
+
+        // 있는 조건만 검사하는 람다를 고른다
+        Evaluator compile(Evaluator next) {
+            IntUnaryOperator action = this.action;
+            int min = minPrice;
+            int max = maxPrice;
+            String item = this.item;
+            boolean priceBand = min != Integer.MIN_VALUE || max != Integer.MAX_VALUE;
+
+            if (item == null) {
+                if (!priceBand) {
+                    return (itemName, price) -> action.applyAsInt(price); // 항상 맞는다: 뒤 규칙은 볼 필요가 없다
+                }
+                return (itemName, price) -> price >= min && price <= max
+                        ? action.applyAsInt(price) : next.discount(itemName, price);
+            }
+            if (itemPrefix) {
+                if (!priceBand) {
+                    return (itemName, price) -> itemName != null && itemName.startsWith(item)
+                            ? action.applyAsInt(price) : next.discount(itemName, price);
+                }
+                return (itemName, price) -> price >= min && price <= max && itemName != null && itemName.startsWith(item)
+                        ? action.applyAsInt(price) : next.discount(itemName, price);
+            }
+            if (!priceBand) {
+                return (itemName, price) -> item.equals(itemName)
+                        ? action.applyAsInt(price) : next.discount(itemName, price);
+            }
+            return (itemName, price) -> price >= min && price <= max && item.equals(itemName)
+                    ? action.applyAsInt(price) : next.discount(itemName, price);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+/**
+ * 등급별 할인 규칙을 펼쳐 둔 표
+ * <p>
+ * Grade.ordinal()을 인덱스로 정률(%)과 정액을 담는다.
+ * 할인 금액 = 가격 * 정률 / 100 + 정액 (정수 연산, 기존 정책과 같은 반올림)
+ * 값을 바꿀 때마다 새 표를 돌려주는 불변 객체
+ * </p>
+ */
+public final class DiscountTable {
+
+    private static final int GRADES = Grade.values().length;
+
+    private final int[] rates;
+    private final int[] fixedAmounts;
+
+    private DiscountTable(int[] rates, int[] fixedAmounts) {
+        this.rates = rates;
+        this.fixedAmounts = fixedAmounts;
+    }
+
+    // 할인 없음
+    public static DiscountTable empty() {
+        return new DiscountTable(new int[GRADES], new int[GRADES]);
+    }
+
+    public DiscountTable withRate(Grade grade, int rate) {
+        int[] newRates = rates.clone();
+        newRates[grade.ordinal()] = rate;
+        return new DiscountTable(newRates, fixedAmounts);
+    }
+
+    public DiscountTable withFixedAmount(Grade grade, int fixedAmount) {
+        int[] newFixedAmounts = fixedAmounts.clone();
+        newFixedAmounts[grade.ordinal()] = fixedAmount;
+        return new DiscountTable(rates, newFixedAmounts);
+    }
+
+    public int getRate(Grade grade) {
+        return rates[grade.ordinal()];
+    }
+
+    public int getFixedAmount(Grade grade) {
+        return fixedAmounts[grade.ordinal()];
+    }
+
+    /**
+     * @return 할인 대상 금액
+     */
+    public int discount(int gradeOrdinal, int price) {
+        return price * rates[gradeOrdinal] / 100 + fixedAmounts[gradeOrdinal];
+    }
+
+    // 복사본: 컴파일된 정책이 배열을 직접 들고 있도록
+    int[] rates() {
+        return rates.clone();
+    }
+
+    int[] fixedAmounts() {
+        return fixedAmounts.clone();
+    }
+}
@@ -5,9 +5,9 @@ import hello.core.member.Member;
 import org.springframework.stereotype.Component;
 
 @Component
-public class FixDiscountPolicy implements DiscountPolicy {
+public class FixDiscountPolicy implements GradeBasedDiscountPolicy {
 
-    // TODO: 쿠폰에서 할인 금액 불러오는 경우는?
+    // 등급 정액 할인. 쿠폰 할인 금액은 쿠폰(Coupon)에 있고, 한도 차감은 CouponStore가 한다(OrderService.createOrderWithCoupon)
     private int discountFixAmount = 1000; // 1000원 할인
 
     @Override
@@ -18,4 +18,9 @@ public class FixDiscountPolicy implements DiscountPolicy {
             return 0;
         }
     }
+
+    @Override
+    public DiscountTable discountTable() {
+        return DiscountTable.empty().withFixedAmount(Grade.VIP, discountFixAmount);
+    }
 }
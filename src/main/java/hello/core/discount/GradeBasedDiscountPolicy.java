@@ -0,0 +1,14 @@
+package hello.core.discount;
+
+/**
+ * 회원 등급만 보고 할인 금액을 정하는 정책
+ * <p>
+ * 규칙을 DiscountTable로 내보낼 수 있으면 CompiledDiscountPolicy로 컴파일할 수 있다.
+ * discount(member, price)는 discountTable()로 계산한 값과 항상 같아야 한다.
+ * </p>
+ */
+public interface GradeBasedDiscountPolicy extends DiscountPolicy {
+
+    DiscountTable discountTable();
+
+}
@@ -0,0 +1,36 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+/**
+ * 등급마다 다른 할인율을 적용하는 정책 (예: VIP 10%, BASIC 3%)
+ * 등록하지 않은 등급은 할인하지 않는다
+ */
+public class GradeRateDiscountPolicy implements GradeBasedDiscountPolicy {
+
+    private final DiscountTable discountTable;
+
+    private GradeRateDiscountPolicy(DiscountTable discountTable) {
+        this.discountTable = discountTable;
+    }
+
+    // 모든 등급 0%에서 시작
+    public static GradeRateDiscountPolicy none() {
+        return new GradeRateDiscountPolicy(DiscountTable.empty());
+    }
+
+    public GradeRateDiscountPolicy withRate(Grade grade, int rate) {
+        return new GradeRateDiscountPolicy(discountTable.withRate(grade, rate));
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return price * discountTable.getRate(member.getGrade()) / 100;
+    }
+
+    @Override
+    public DiscountTable discountTable() {
+        return discountTable;
+    }
+}
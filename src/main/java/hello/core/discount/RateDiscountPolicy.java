@@ -9,7 +9,7 @@ import org.springframework.stereotype.Component;
 @Component
 @Primary
 @MainDiscountPolicy // 애노테이션 기반
-public class RateDiscountPolicy implements DiscountPolicy {
+public class RateDiscountPolicy implements GradeBasedDiscountPolicy {
 
     private int discountRate = 10; // 10% 할인
 
@@ -21,4 +21,9 @@ public class RateDiscountPolicy implements DiscountPolicy {
             return 0;
         }
     }
+
+    @Override
+    public DiscountTable discountTable() {
+        return DiscountTable.empty().withRate(Grade.VIP, discountRate);
+    }
 }
@@ -0,0 +1,194 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 규칙 파일로 할인을 정하는 정책. 파일이 바뀌면 재시작 없이 다시 읽는다
+ * <p>
+ * 규칙 파일: 한 줄에 규칙 하나, '조건 -> 할인'. 위에서부터 처음 맞는 규칙 하나만 적용하고, 맞는 규칙이 없으면 할인하지 않는다
+ * <pre>
+ * # 조건: grade=VIP[,BASIC], price>=N, price&lt;N (&gt;, &lt;= 도 가능), item=이름, item=접두어*  (없으면 모두, 여러 개면 모두 만족)
+ * # 할인: rate N (정률 %), fixed N (정액), 뒤에 max N (할인 상한)
+ * grade=VIP item=itemA -> fixed 2000
+ * grade=VIP price>=100000 -> rate 15 max 20000
+ * grade=VIP -> rate 10
+ * grade=BASIC item=event* -> fixed 500
+ * </pre>
+ * 상품 이름 조건은 discount(member, itemName, price)로 부를 때만 맞을 수 있다
+ * </p>
+ * <p>
+ * 다시 읽기
+ * - 새 규칙은 호출 스레드가 아닌 곳(감시 스레드, reload 호출자)에서 파싱하고 컴파일(DiscountRules)한 뒤 AtomicReference 한 번으로 바꿔 끼운다
+ * - discount는 그 시점의 규칙 모음 하나만 보고 계산하므로, 락이 없고 반쯤 바뀐 규칙을 보지 않는다
+ * - 파일에 오류가 있으면 이전 규칙을 그대로 쓴다. 파일은 다른 이름으로 쓴 뒤 옮기는(rename) 방식으로 바꾸는 것이 안전하다
+ * - 거부된 다시 읽기는 경고 로그를 남기고, 실패 횟수와 마지막 오류를 getReloadFailureCount, getLastReloadFailure로 볼 수 있다
+ * hello.discount.rules.location이 있을 때만 등록된다. 빈 이름이 곧 할인 코드("ruleBasedDiscountPolicy", DiscountPolicyRouter 참고)
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "hello.discount.rules.location")
+public class RuleBasedDiscountPolicy implements DiscountPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleBasedDiscountPolicy.class);
+
+    private final AtomicReference<DiscountRules> rules;
+    private final Path rulesFile;
+    private final ScheduledExecutorService watcher;
+
+    private volatile int version;
+    private FileTime lastModified;
+    private long lastSize = -1;
+
+    // 거부된 다시 읽기: 횟수와 마지막 오류
+    private final AtomicLong reloadFailures = new AtomicLong();
+    private volatile Exception lastReloadFailure;
+
+    /**
+     * @param pollIntervalMillis 파일 변경 확인 간격. 0이면 감시하지 않고 reload()를 직접 부른다
+     * @throws IllegalArgumentException 규칙 파일 형식 오류(처음 읽을 때는 시작이 실패한다)
+     */
+    @Autowired
+    public RuleBasedDiscountPolicy(@Value("${hello.discount.rules.location}") String location,
+                                   @Value("${hello.discount.rules.poll-interval-ms:1000}") long pollIntervalMillis) {
+        this.rulesFile = Paths.get(location);
+        this.rules = new AtomicReference<>(DiscountRules.empty());
+        reload();
+        if (pollIntervalMillis > 0) {
+            watcher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "discount-rules-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watcher.scheduleWithFixedDelay(this::reloadIfChanged, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            watcher = null;
+        }
+    }
+
+    private RuleBasedDiscountPolicy(DiscountRules rules) {
+        this.rulesFile = null;
+        this.rules = new AtomicReference<>(rules);
+        this.watcher = null;
+        this.version = 1;
+    }
+
+    /**
+     * 파일 없이 규칙 문자열로 만든다(테스트, 벤치마크용). update로 바꿀 수 있다
+     */
+    public static RuleBasedDiscountPolicy of(String... lines) {
+        return new RuleBasedDiscountPolicy(DiscountRules.parse("rules", Arrays.asList(lines)));
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return discount(member, null, price);
+    }
+
+    @Override
+    public int discount(Member member, String itemName, int price) {
+        return rules.get().discount(member.getGrade().ordinal(), itemName, price);
+    }
+
+    /**
+     * 규칙 파일을 다시 읽어 바꿔 끼운다. 실패하면 이전 규칙을 그대로 쓴다
+     * @return 바꿔 끼운 뒤의 규칙 버전
+     * @throws IllegalArgumentException 규칙 형식 오류
+     * @throws UncheckedIOException 파일을 읽지 못한 경우
+     */
+    public synchronized int reload() {
+        if (rulesFile == null) {
+            throw new IllegalStateException("규칙 파일 없이 만든 정책입니다. update를 사용하세요");
+        }
+        try {
+            // 읽기 전에 기록: 읽는 동안 파일이 바뀌면 다음 확인 때 다시 읽는다
+            lastModified = Files.getLastModifiedTime(rulesFile);
+            lastSize = Files.size(rulesFile);
+            return swap(DiscountRules.parse(rulesFile.toString(), Files.readAllLines(rulesFile, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            rejected(e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            rejected(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 규칙 문자열로 바꿔 끼운다
+     * @return 바꿔 끼운 뒤의 규칙 버전
+     */
+    public synchronized int update(String... lines) {
+        return swap(DiscountRules.parse("rules", Arrays.asList(lines)));
+    }
+
+    // 바뀔 때마다 1씩 증가
+    public int getVersion() {
+        return version;
+    }
+
+    public int getRuleCount() {
+        return rules.get().getRuleCount();
+    }
+
+    // 파일을 읽지 못했거나 규칙 형식이 잘못되어 거부된 다시 읽기 횟수
+    public long getReloadFailureCount() {
+        return reloadFailures.get();
+    }
+
+    // 마지막으로 거부된 다시 읽기의 오류. 없으면 null
+    public Exception getLastReloadFailure() {
+        return lastReloadFailure;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    private int swap(DiscountRules compiled) {
+        rules.set(compiled);
+        return ++version;
+    }
+
+    private synchronized void reloadIfChanged() {
+        try {
+            if (!Files.getLastModifiedTime(rulesFile).equals(lastModified) || Files.size(rulesFile) != lastSize) {
+                reload();
+            }
+        } catch (IOException e) {
+            rejected(e);
+        } catch (RuntimeException e) {
+            // reload에서 기록했다. 잘못된 규칙 파일은 할인 계산에 영향을 주지 않는다
+        }
+    }
+
+    // 이전 규칙(현재 버전)을 계속 쓴다
+    private void rejected(Exception e) {
+        lastReloadFailure = e;
+        reloadFailures.incrementAndGet();
+        log.warn("할인 규칙 다시 읽기 실패, 버전 {} 규칙을 계속 사용: {}", version, rulesFile, e);
+    }
+}
@@ -0,0 +1,63 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+
+/**
+ * 여러 정책을 차례로 겹쳐 적용하는 정책 (예: 정률 10% 다음 정액 1000원, 최대 3000원)
+ * <p>
+ * 앞 단계가 할인하고 남은 금액에 다음 단계를 적용한다. 할인 합계는 최대 할인 금액과 가격을 넘지 않는다
+ * 등급 기반 단계는 CompiledDiscountPolicy로 컴파일해 두므로, 단계가 모두 등급 기반이면 계산에 가상 호출 분기가 없다
+ * </p>
+ */
+public final class StackedDiscountPolicy implements DiscountPolicy {
+
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private final DiscountPolicy[] stages;
+    private final int maxDiscount;
+
+    /**
+     * @param maxDiscount 할인 합계 상한(0 이상). 상한이 없으면 NO_LIMIT
+     */
+    public StackedDiscountPolicy(int maxDiscount, DiscountPolicy... stages) {
+        if (maxDiscount < 0) {
+            throw new IllegalArgumentException("최대 할인 금액은 0 이상이어야 합니다: " + maxDiscount);
+        }
+        if (stages.length == 0) {
+            throw new IllegalArgumentException("겹칠 정책이 없습니다");
+        }
+        this.maxDiscount = maxDiscount;
+        this.stages = new DiscountPolicy[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            this.stages[i] = stages[i] instanceof GradeBasedDiscountPolicy
+                    ? CompiledDiscountPolicy.compile(stages[i])
+                    : stages[i];
+        }
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return discount(member, null, price);
+    }
+
+    @Override
+    public int discount(Member member, String itemName, int price) {
+        int limit = Math.min(maxDiscount, Math.max(price, 0));
+        int total = 0;
+        for (DiscountPolicy stage : stages) {
+            total += stage.discount(member, itemName, price - total);
+            if (total >= limit) {
+                return limit;
+            }
+        }
+        return Math.max(total, 0);
+    }
+
+    public int getMaxDiscount() {
+        return maxDiscount;
+    }
+
+    public int getStageCount() {
+        return stages.length;
+    }
+}
@@ -0,0 +1,59 @@
+package hello.core.lifecycle;
+
+import java.util.List;
+
+/**
+ * 빈 하나의 @PostConstruct 실행 기록. 시각은 초기화 단계 시작 기준(나노초)
+ */
+public final class BeanInitTiming {
+
+    private final String beanName;
+    private final List<String> waitedFor;
+    private final String threadName;
+    private final long startNanos;
+    private final long durationNanos;
+
+    BeanInitTiming(String beanName, List<String> waitedFor, String threadName, long startNanos, long durationNanos) {
+        this.beanName = beanName;
+        this.waitedFor = waitedFor;
+        this.threadName = threadName;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    // 먼저 초기화가 끝나기를 기다린 빈
+    public List<String> getWaitedFor() {
+        return waitedFor;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getEndNanos() {
+        return startNanos + durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanInitTiming{" +
+                "beanName='" + beanName + '\'' +
+                ", waitedFor=" + waitedFor +
+                ", threadName='" + threadName + '\'' +
+                ", startNanos=" + startNanos +
+                ", durationNanos=" + durationNanos +
+                '}';
+    }
+}
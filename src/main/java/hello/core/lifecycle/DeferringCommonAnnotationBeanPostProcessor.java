@@ -0,0 +1,95 @@
+package hello.core.lifecycle;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.annotation.CommonAnnotationBeanPostProcessor;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @PostConstruct 호출을 미뤄 두는 CommonAnnotationBeanPostProcessor
+ * <p>
+ * 미루기(deferring)가 켜진 동안 만들어지는 싱글톤 빈은 @PostConstruct를 바로 부르지 않고 만든 순서대로 모아 둔다.
+ * 나중에 ParallelInitApplicationContext가 initialize로 부른다. @Resource 주입, @PreDestroy는 원래대로 처리한다
+ * 다음 빈은 미루지 않는다: @PostConstruct가 없는 빈, 싱글톤이 아닌 빈,
+ * InitializingBean이나 init-method가 있는 빈(@PostConstruct → afterPropertiesSet → init-method 순서를 지키기 위해)
+ * </p>
+ */
+class DeferringCommonAnnotationBeanPostProcessor extends CommonAnnotationBeanPostProcessor {
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final Map<Class<?>, Boolean> hasPostConstruct = new ConcurrentHashMap<>();
+    private final List<Deferred> deferred = new ArrayList<>();
+    private volatile boolean deferring;
+
+    DeferringCommonAnnotationBeanPostProcessor(ConfigurableListableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    void startDeferring() {
+        deferring = true;
+    }
+
+    /**
+     * 미루기를 끄고, 그동안 모은 빈을 만든 순서대로 돌려준다
+     */
+    synchronized List<Deferred> stopDeferring() {
+        deferring = false;
+        List<Deferred> result = new ArrayList<>(deferred);
+        deferred.clear();
+        return result;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (deferring && isDeferrable(bean, beanName)) {
+            synchronized (this) {
+                deferred.add(new Deferred(beanName, bean, deferred.size()));
+            }
+            return bean;
+        }
+        return super.postProcessBeforeInitialization(bean, beanName);
+    }
+
+    // 미뤄 둔 @PostConstruct 실행. 실패하면 BeanCreationException
+    void initialize(Deferred target) {
+        super.postProcessBeforeInitialization(target.bean, target.beanName);
+    }
+
+    private boolean isDeferrable(Object bean, String beanName) {
+        if (!beanFactory.containsBeanDefinition(beanName) || bean instanceof InitializingBean) {
+            return false;
+        }
+        BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+        if (!definition.isSingleton()
+                || (definition instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) definition).getInitMethodName() != null)) {
+            return false;
+        }
+        return hasPostConstruct.computeIfAbsent(ClassUtils.getUserClass(bean), type -> {
+            boolean[] found = {false};
+            ReflectionUtils.doWithMethods(type, method -> found[0] = true,
+                    method -> method.isAnnotationPresent(PostConstruct.class));
+            return found[0];
+        });
+    }
+
+    static final class Deferred {
+        final String beanName;
+        final Object bean;
+        final int index; // 만든 순서
+
+        Deferred(String beanName, Object bean, int index) {
+            this.beanName = beanName;
+            this.bean = bean;
+            this.index = index;
+        }
+    }
+}
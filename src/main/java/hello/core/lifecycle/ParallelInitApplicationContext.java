@@ -0,0 +1,222 @@
+package hello.core.lifecycle;
+
+import hello.core.lifecycle.DeferringCommonAnnotationBeanPostProcessor.Deferred;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 싱글톤 빈의 @PostConstruct를 정해진 크기의 스레드 풀에서 동시에 실행하는 컨텍스트
+ * <p>
+ * AnnotationConfigApplicationContext는 빈을 하나씩 만들면서 @PostConstruct도 그 자리에서 부른다.
+ * NetworkClient.init처럼 느린 I/O 초기화가 여러 개면 시작 시간은 그 합이 된다.
+ * 여기서는
+ * 1. 싱글톤을 만드는 동안 @PostConstruct를 미뤄 두고(DeferringCommonAnnotationBeanPostProcessor)
+ * 2. 모든 싱글톤을 만든 뒤, 빈 사이 의존관계(getDependenciesForBean)로 그래프를 만들어
+ * 3. 먼저 만들어진, 의존하는 빈의 초기화가 끝난 빈부터 풀에서 실행한다
+ * 그래서 시작 시간은 초기화 시간의 합이 아니라 의존관계를 따라간 가장 긴 경로(critical path)에 가까워진다
+ * </p>
+ * <p>
+ * 주의
+ * - 빈의 생성자나 주입 시점에는 주입받은 빈의 @PostConstruct가 아직 실행되지 않았다. 초기화 순서만 지킨다
+ * - 의존관계가 순환하면 먼저 만들어진 빈의 초기화가 먼저다(스프링 기본 동작과 같은 순서)
+ * - SmartInitializingSingleton 콜백은 미뤄 둔 초기화보다 먼저 실행된다
+ * - 하나라도 실패하면 그 빈에 의존하는 빈은 초기화하지 않고, refresh가 BeanCreationException으로 실패한다
+ * </p>
+ * <pre>
+ * ParallelInitApplicationContext ac = new ParallelInitApplicationContext(4, AppConfig.class);
+ * ac.getInitTimings().forEach(System.out::println);
+ * </pre>
+ */
+public class ParallelInitApplicationContext extends AnnotationConfigApplicationContext {
+
+    private final int parallelism;
+    private final DeferringCommonAnnotationBeanPostProcessor initProcessor;
+
+    private volatile List<BeanInitTiming> initTimings = Collections.emptyList();
+    private volatile long initWallNanos;
+    private volatile long initCriticalPathNanos;
+
+    /**
+     * register, refresh는 직접 호출
+     */
+    public ParallelInitApplicationContext(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism은 1 이상이어야 합니다: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.initProcessor = new DeferringCommonAnnotationBeanPostProcessor(getDefaultListableBeanFactory());
+
+        // 기본으로 등록된 @PostConstruct/@PreDestroy/@Resource 처리기를 미루는 버전으로 바꾼다
+        String name = AnnotationConfigUtils.COMMON_ANNOTATION_PROCESSOR_BEAN_NAME;
+        if (containsBeanDefinition(name)) {
+            removeBeanDefinition(name);
+        }
+        RootBeanDefinition definition = new RootBeanDefinition(DeferringCommonAnnotationBeanPostProcessor.class, () -> initProcessor);
+        definition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+        registerBeanDefinition(name, definition);
+    }
+
+    public ParallelInitApplicationContext(int parallelism, Class<?>... componentClasses) {
+        this(parallelism);
+        register(componentClasses);
+        refresh();
+    }
+
+    /**
+     * 미뤄 둔 @PostConstruct를 실행한 순서(시작 시각 순)
+     */
+    public List<BeanInitTiming> getInitTimings() {
+        return initTimings;
+    }
+
+    // 초기화 단계 전체에 걸린 시간
+    public long getInitWallNanos() {
+        return initWallNanos;
+    }
+
+    // 의존관계를 따라간 가장 긴 초기화 시간의 합: 스레드가 충분하면 initWallNanos의 하한
+    public long getInitCriticalPathNanos() {
+        return initCriticalPathNanos;
+    }
+
+    @Override
+    protected void finishBeanFactoryInitialization(ConfigurableListableBeanFactory beanFactory) {
+        initProcessor.startDeferring();
+        List<Deferred> deferred;
+        try {
+            super.finishBeanFactoryInitialization(beanFactory);
+        } finally {
+            deferred = initProcessor.stopDeferring();
+        }
+        runDeferredInits(beanFactory, deferred);
+    }
+
+    private void runDeferredInits(ConfigurableListableBeanFactory beanFactory, List<Deferred> deferred) {
+        if (deferred.isEmpty()) {
+            return;
+        }
+        Map<String, Deferred> byName = new HashMap<>();
+        for (Deferred target : deferred) {
+            byName.put(target.beanName, target);
+        }
+
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, deferred.size()), task -> {
+            Thread thread = new Thread(task, "bean-init-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long phaseStart = System.nanoTime();
+        Map<String, CompletableFuture<BeanInitTiming>> futures = new HashMap<>();
+        try {
+            // 만든 순서대로 예약한다. 기다릴 빈은 항상 먼저 만들어진 빈이라 이미 future가 있다
+            for (Deferred target : deferred) {
+                List<String> waitFor = new ArrayList<>(dependenciesOf(beanFactory, target, byName));
+                CompletableFuture<?>[] waits = waitFor.stream().map(futures::get).toArray(CompletableFuture[]::new);
+                futures.put(target.beanName, CompletableFuture.allOf(waits).thenApplyAsync(ignored -> {
+                    long start = System.nanoTime();
+                    initProcessor.initialize(target);
+                    long end = System.nanoTime();
+                    return new BeanInitTiming(target.beanName, Collections.unmodifiableList(waitFor),
+                            Thread.currentThread().getName(), start - phaseStart, end - start);
+                }, pool));
+            }
+
+            List<BeanInitTiming> timings = new ArrayList<>();
+            BeansException failure = null;
+            for (Deferred target : deferred) {
+                try {
+                    timings.add(futures.get(target.beanName).join());
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = asBeansException(target.beanName, e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+
+            timings.sort(Comparator.comparingLong(BeanInitTiming::getStartNanos));
+            initTimings = Collections.unmodifiableList(timings);
+            initWallNanos = System.nanoTime() - phaseStart;
+            initCriticalPathNanos = criticalPath(timings);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * target보다 먼저 만들어진 미룬 빈 중 target이 (미루지 않은 빈을 거쳐서라도) 의존하는 빈
+     * 미룬 빈을 만나면 그 아래는 보지 않는다. 그 빈이 자기 의존관계를 기다린다
+     */
+    private static Set<String> dependenciesOf(ConfigurableListableBeanFactory beanFactory, Deferred target,
+                                              Map<String, Deferred> byName) {
+        Set<String> result = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(target.beanName);
+        visited.add(target.beanName);
+        while (!stack.isEmpty()) {
+            for (String dependency : beanFactory.getDependenciesForBean(stack.pop())) {
+                if (!visited.add(dependency)) {
+                    continue;
+                }
+                Deferred deferred = byName.get(dependency);
+                if (deferred == null) {
+                    stack.push(dependency);
+                } else if (deferred.index < target.index) {
+                    result.add(dependency);
+                }
+            }
+        }
+        return result;
+    }
+
+    // 빈마다 끝난 시각 = 기다린 빈 중 가장 늦게 끝난 시각 + 자기 초기화 시간(기다림 없이 계산)
+    private static long criticalPath(List<BeanInitTiming> timings) {
+        Map<String, Long> finish = new HashMap<>();
+        long longest = 0;
+        List<BeanInitTiming> ordered = new ArrayList<>(timings);
+        ordered.sort(Comparator.comparingLong(BeanInitTiming::getEndNanos)); // 기다린 빈이 항상 먼저 끝났다
+        for (BeanInitTiming timing : ordered) {
+            long ready = 0;
+            for (String dependency : timing.getWaitedFor()) {
+                ready = Math.max(ready, finish.getOrDefault(dependency, 0L));
+            }
+            long end = ready + timing.getDurationNanos();
+            finish.put(timing.getBeanName(), end);
+            longest = Math.max(longest, end);
+        }
+        return longest;
+    }
+
+    private static BeansException asBeansException(String beanName, Throwable cause) {
+        if (cause instanceof BeansException) {
+            return (BeansException) cause;
+        }
+        return new BeanCreationException(beanName, "Invocation of init method failed", cause);
+    }
+}
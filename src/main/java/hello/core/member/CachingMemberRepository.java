@@ -0,0 +1,422 @@
+package hello.core.member;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 다른 MemberRepository 앞에 두는 읽기 캐시 (read-through)
+ * <p>
+ * - findById가 캐시에 없으면 원래 저장소에서 읽어 캐시에 넣는다. 없는 회원(null)은 캐시하지 않는다
+ * - save, saveAll은 원래 저장소에 쓴 뒤 캐시 값을 새 회원으로 바꾼다
+ * - findByGrade, findByNamePrefix는 캐시하지 않고 원래 저장소에 넘긴다
+ * </p>
+ * <p>
+ * 크기 제한과 교체 정책: W-TinyLFU
+ * - 새 항목은 작은 window(LRU, 전체의 1%)에 들어간다
+ * - window에서 밀려난 항목은 main(SLRU: probation 20% + protected 80%)의 probation 꼴찌와 접근 빈도를 비교해서, 더 자주 쓰인 쪽만 남는다
+ * - 접근 빈도는 count-min sketch(4비트 카운터 4개)로 어림하고, 일정 횟수마다 반으로 줄여 오래된 빈도는 잊는다
+ * - 그래서 한 번씩만 읽히는 회원이 대량으로 들어와도(전체 조회 등) 자주 주문하는 회원은 밀려나지 않는다
+ * </p>
+ * <p>
+ * 조회는 ConcurrentHashMap에서 락 없이 한다. 정책(순서, 빈도) 갱신은 락 하나로 하되, 조회 때는 tryLock으로 잡힐 때만 기록한다(경합 시 기록을 버림)
+ * ttl을 주면 저장된 지 ttl이 지난 항목은 없는 것으로 보고 다시 읽는다
+ * </p>
+ * 사용 예: AppConfig.memberRepository()에서 new CachingMemberRepository(new MemoryMemberRepository(), 10_000)
+ */
+public class CachingMemberRepository implements MemberRepository {
+
+    private static final int NONE = -1;
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final MemberRepository delegate;
+    private final ConcurrentHashMap<Long, Node> data = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final Queue window = new Queue();
+    private final Queue probation = new Queue();
+    private final Queue protectedQueue = new Queue();
+    private final FrequencySketch sketch;
+
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingMemberRepository(MemberRepository delegate, int maximumSize) {
+        this(delegate, maximumSize, Duration.ZERO, System::nanoTime);
+    }
+
+    /**
+     * @param maximumSize 캐시에 담을 최대 회원 수
+     * @param ttl 저장 후 이 시간이 지나면 만료. Duration.ZERO이면 만료 없음
+     * @param ticker 현재 시각(나노초). 테스트에서 시간을 흉내 낼 때 쓴다
+     */
+    public CachingMemberRepository(MemberRepository delegate, int maximumSize, Duration ttl, LongSupplier ticker) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize는 0보다 커야 합니다");
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        int mainMaximum = maximumSize - windowMaximum;
+        this.protectedMaximum = mainMaximum * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+    }
+
+    @Override
+    public void save(Member member) {
+        delegate.save(member);
+        put(member.getId(), member);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        Member cached = getIfPresent(memberId);
+        if (cached != null) {
+            return cached;
+        }
+        Member member = delegate.findById(memberId);
+        if (member != null) {
+            putIfAbsent(memberId, member);
+        }
+        return member;
+    }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        delegate.saveAll(members);
+        for (Member member : members) {
+            put(member.getId(), member);
+        }
+    }
+
+    // 캐시에 없는 회원만 모아 원래 저장소에 한 번에 묻는다
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        Member[] found = new Member[memberIds.size()];
+        List<Long> missingIds = new ArrayList<>();
+        List<Integer> missingAt = new ArrayList<>();
+        for (int i = 0; i < found.length; i++) {
+            Long memberId = memberIds.get(i);
+            if (memberId == null) {
+                continue;
+            }
+            found[i] = getIfPresent(memberId);
+            if (found[i] == null) {
+                missingIds.add(memberId);
+                missingAt.add(i);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            List<Member> loaded = delegate.findAllById(missingIds);
+            for (int k = 0; k < loaded.size(); k++) {
+                Member member = loaded.get(k);
+                if (member != null) {
+                    found[missingAt.get(k)] = member;
+                    putIfAbsent(missingIds.get(k), member);
+                }
+            }
+        }
+        return Arrays.asList(found);
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return delegate.findByGrade(grade);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix, int limit) {
+        return delegate.findByNamePrefix(prefix, limit);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    private Member getIfPresent(long memberId) {
+        Node node = data.get(memberId);
+        if (node == null) {
+            recordMiss(memberId);
+            return null;
+        }
+        if (ttlNanos > 0 && ticker.getAsLong() - node.writeTime >= ttlNanos) {
+            lock.lock();
+            try {
+                if (data.get(memberId) == node) {
+                    remove(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+            recordMiss(memberId);
+            return null;
+        }
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(memberId);
+                if (node.queue != NONE) {
+                    onAccess(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    private void recordMiss(long memberId) {
+        misses.increment();
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(memberId);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 저장: 값을 새 회원으로 바꾼다
+    private void put(long memberId, Member member) {
+        lock.lock();
+        try {
+            Node node = data.get(memberId);
+            if (node != null) {
+                node.value = member;
+                node.writeTime = ticker.getAsLong();
+                onAccess(node);
+                return;
+            }
+            insert(memberId, member);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 읽어 온 값: 그 사이 save가 먼저 넣은 값이 있으면 그것을 둔다
+    private void putIfAbsent(long memberId, Member member) {
+        lock.lock();
+        try {
+            if (!data.containsKey(memberId)) {
+                insert(memberId, member);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 락을 쥔 상태에서만 호출
+    private void insert(long memberId, Member member) {
+        Node node = new Node(memberId, member, ticker.getAsLong());
+        data.put(memberId, node);
+        window.addFirst(node, WINDOW);
+        if (window.size > windowMaximum) {
+            admit(window.removeLast());
+        }
+    }
+
+    // window에서 밀려난 후보를 main에 들일지 정한다
+    private void admit(Node candidate) {
+        if (probation.size + protectedQueue.size < maximumSize - windowMaximum) {
+            probation.addFirst(candidate, PROBATION);
+            return;
+        }
+        Node victim = probation.last != null ? probation.last : protectedQueue.last;
+        if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            evict(victim);
+            probation.addFirst(candidate, PROBATION);
+        } else {
+            data.remove(candidate.key, candidate);
+            evictions.increment();
+        }
+    }
+
+    private void onAccess(Node node) {
+        if (node.queue == WINDOW) {
+            window.moveToFirst(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+            protectedQueue.addFirst(node, PROTECTED);
+            if (protectedQueue.size > protectedMaximum) {
+                Node demoted = protectedQueue.removeLast();
+                probation.addFirst(demoted, PROBATION);
+            }
+        } else if (node.queue == PROTECTED) {
+            protectedQueue.moveToFirst(node);
+        }
+    }
+
+    private void evict(Node node) {
+        remove(node);
+        evictions.increment();
+    }
+
+    private void remove(Node node) {
+        data.remove(node.key, node);
+        queueOf(node).remove(node);
+    }
+
+    private Queue queueOf(Node node) {
+        if (node.queue == WINDOW) {
+            return window;
+        }
+        return node.queue == PROBATION ? probation : protectedQueue;
+    }
+
+    private static final class Node {
+        final long key;
+        volatile Member value;
+        volatile long writeTime;
+        int queue = NONE; // 락 안에서만 읽고 쓴다
+        Node prev;
+        Node next;
+
+        Node(long key, Member value, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+
+    // 이중 연결 리스트 LRU. 앞이 최근, 뒤가 오래된 것
+    private static final class Queue {
+        Node first;
+        Node last;
+        int size;
+
+        void addFirst(Node node, int queue) {
+            node.queue = queue;
+            node.prev = null;
+            node.next = first;
+            if (first != null) {
+                first.prev = node;
+            } else {
+                last = node;
+            }
+            first = node;
+            size++;
+        }
+
+        void moveToFirst(Node node) {
+            if (first == node) {
+                return;
+            }
+            int queue = node.queue;
+            remove(node);
+            addFirst(node, queue);
+        }
+
+        Node removeLast() {
+            Node node = last;
+            remove(node);
+            return node;
+        }
+
+        void remove(Node node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                first = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            } else {
+                last = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.queue = NONE;
+            size--;
+        }
+    }
+
+    /**
+     * 접근 빈도 어림값: long 하나에 4비트 카운터 16개, 키마다 서로 다른 해시로 카운터 4개를 골라 최솟값을 쓴다
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+            this.table = new long[width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(maximumSize, 16);
+        }
+
+        int frequency(long key) {
+            long hash = LongMemberMap.mix(key);
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                long h = (hash + SEEDS[i]) * SEEDS[i];
+                int index = (int) (h >>> 32) & mask;
+                int shift = (i << 4) + (((int) h & 3) << 2); // 카운터 i는 16비트 구간 i 안의 4칸 중 하나
+                frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 0xF));
+            }
+            return frequency;
+        }
+
+        void increment(long key) {
+            long hash = LongMemberMap.mix(key);
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                long h = (hash + SEEDS[i]) * SEEDS[i];
+                int index = (int) (h >>> 32) & mask;
+                int shift = (i << 4) + (((int) h & 3) << 2);
+                if (((table[index] >>> shift) & 0xF) != 0xF) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        // 모든 카운터를 반으로: 오래된 빈도는 서서히 잊는다
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package hello.core.member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 회원을 열(column) 단위 배열로 저장하는 저장소
+ * <p>
+ * 회원 하나를 Member 객체(객체 헤더, Long, String, Grade 참조)로 두지 않고 행 번호로 나눠 담는다.
+ * - ids: long[], grades: byte[](ordinal, null이면 -1), names: int[](이름 사전의 코드, null이면 -1)
+ * - 이름은 UTF-8 바이트로 사전(NameDictionary)에 한 번만 저장하고, 같은 이름은 같은 코드를 쓴다
+ * - id → 행 번호는 long 키 open addressing 테이블
+ * 회원 하나에 배열 13바이트 + id 색인 칸 + (새 이름이면) 이름 바이트 정도만 든다
+ * </p>
+ * <p>
+ * findById는 행 번호만 가진 가벼운 Member 뷰(View)를 돌려준다. 뷰의 getter는 배열에서 바로 읽고, setName, setGrade는 배열에 바로 쓴다.
+ * save는 회원 값을 배열에 복사한다. 저장한 원래 Member 객체를 나중에 고쳐도 저장소에는 반영되지 않는다
+ * findByGrade는 grades 배열을 훑고, findByNamePrefix는 사전에서 맞는 이름 코드를 먼저 고른 뒤 names 배열을 훑는다
+ * </p>
+ * <p>
+ * 읽기는 StampedLock의 낙관적 읽기로 락 없이 하고, 그 사이 쓰기가 있었으면 읽기 락을 잡고 다시 읽는다.
+ * 삭제는 없다(MemberRepository에 삭제가 없음)
+ * </p>
+ */
+public class ColumnarMemberRepository implements MemberRepository {
+
+    private static final Grade[] GRADES = Grade.values();
+    private static final int NULL = -1;
+    private static final long EMPTY = Long.MIN_VALUE; // id 색인의 빈 칸. 이 id는 zeroRow처럼 따로 둔다
+
+    private final StampedLock lock = new StampedLock();
+    private final NameDictionary dictionary = new NameDictionary();
+
+    private long[] ids;
+    private byte[] grades;
+    private int[] names;
+    private int size;
+
+    // id → 행 번호
+    private long[] slotKeys;
+    private int[] slotRows;
+    private int emptyKeyRow = NULL;
+
+    public ColumnarMemberRepository() {
+        this(1024);
+    }
+
+    public ColumnarMemberRepository(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.ids = new long[capacity];
+        this.grades = new byte[capacity];
+        this.names = new int[capacity];
+        this.slotKeys = new long[tableSizeFor(capacity * 2)];
+        this.slotRows = new int[slotKeys.length];
+        Arrays.fill(slotKeys, EMPTY);
+    }
+
+    @Override
+    public void save(Member member) {
+        long stamp = lock.writeLock();
+        try {
+            write(member);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        int row = rowOf(memberId);
+        return row == NULL ? null : new View(row);
+    }
+
+    // 쓰기 락은 한 번만 잡는다
+    @Override
+    public void saveAll(List<Member> members) {
+        long stamp = lock.writeLock();
+        try {
+            for (Member member : members) {
+                write(member);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        Member[] found = new Member[memberIds.size()];
+        for (int i = 0; i < found.length; i++) {
+            found[i] = findById(memberIds.get(i));
+        }
+        return Arrays.asList(found);
+    }
+
+    // grades 열만 훑는다. 행은 저장 순서이므로 id 순으로 정렬해서 돌려준다
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        byte ordinal = (byte) grade.ordinal();
+        long stamp = lock.readLock();
+        try {
+            List<Integer> rows = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                if (grades[row] == ordinal) {
+                    rows.add(row);
+                }
+            }
+            rows.sort(Comparator.comparingLong(row -> ids[row]));
+            return views(rows);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // 사전에서 prefix로 시작하는 이름 코드를 먼저 고르고, names 열에서 그 코드를 가진 행만 찾는다
+    @Override
+    public List<Member> findByNamePrefix(String prefix, int limit) {
+        long stamp = lock.readLock();
+        try {
+            BitSet codes = dictionary.codesStartingWith(prefix.getBytes(StandardCharsets.UTF_8));
+            if (codes.isEmpty()) {
+                return new ArrayList<>();
+            }
+            String[] decoded = new String[codes.length()];
+            List<Integer> rows = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                int code = names[row];
+                if (code != NULL && codes.get(code)) {
+                    if (decoded[code] == null) {
+                        decoded[code] = dictionary.decode(code);
+                    }
+                    rows.add(row);
+                }
+            }
+            rows.sort(Comparator.<Integer, String>comparing(row -> decoded[names[row]])
+                    .thenComparingLong(row -> ids[row]));
+            return views(rows.size() > limit ? rows.subList(0, limit) : rows);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int current = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return current;
+    }
+
+    // 쓰기 락을 쥔 상태에서만 호출
+    private void write(Member member) {
+        if (member.getId() == null) {
+            throw new IllegalArgumentException("회원 id는 null일 수 없습니다");
+        }
+        long id = member.getId();
+        byte grade = member.getGrade() == null ? NULL : (byte) member.getGrade().ordinal();
+        int name = member.getName() == null ? NULL : dictionary.encode(member.getName());
+
+        int row = findRow(id);
+        if (row == NULL) {
+            row = appendRow(id);
+        }
+        grades[row] = grade;
+        names[row] = name;
+    }
+
+    private int appendRow(long id) {
+        if (size == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            grades = Arrays.copyOf(grades, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        int row = size++;
+        ids[row] = id;
+        if (id == EMPTY) {
+            emptyKeyRow = row;
+        } else {
+            if (size * 2 > slotKeys.length) {
+                rehash(slotKeys.length * 2);
+            }
+            insertSlot(id, row);
+        }
+        return row;
+    }
+
+    // 낙관적 읽기: 쓰기와 겹쳤으면 읽기 락으로 다시
+    private int rowOf(long id) {
+        long stamp = lock.tryOptimisticRead();
+        int row = findRow(id);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                row = findRow(id);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return row;
+    }
+
+    // 낙관적 읽기 중에도 호출되므로, 배열 참조를 한 번만 읽고 탐사 횟수를 제한한다
+    private int findRow(long id) {
+        if (id == EMPTY) {
+            return emptyKeyRow;
+        }
+        long[] keys = slotKeys;
+        int[] rows = slotRows;
+        if (keys.length != rows.length) {
+            return NULL; // 늘리는 도중. validate에서 걸러진다
+        }
+        int mask = keys.length - 1;
+        int slot = (int) LongMemberMap.mix(id) & mask;
+        for (int probes = 0; probes < keys.length; probes++, slot = (slot + 1) & mask) {
+            long key = keys[slot];
+            if (key == id) {
+                return rows[slot];
+            }
+            if (key == EMPTY) {
+                return NULL;
+            }
+        }
+        return NULL;
+    }
+
+    private void insertSlot(long id, int row) {
+        int mask = slotKeys.length - 1;
+        int slot = (int) LongMemberMap.mix(id) & mask;
+        while (slotKeys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        slotKeys[slot] = id;
+        slotRows[slot] = row;
+    }
+
+    private void rehash(int capacity) {
+        long[] keys = new long[capacity];
+        int[] rows = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < slotKeys.length; i++) {
+            long key = slotKeys[i];
+            if (key == EMPTY) {
+                continue;
+            }
+            int slot = (int) LongMemberMap.mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            rows[slot] = slotRows[i];
+        }
+        slotKeys = keys;
+        slotRows = rows;
+    }
+
+    private Long idAt(int row) {
+        long stamp = lock.tryOptimisticRead();
+        long id = ids[row];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                id = ids[row];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return id;
+    }
+
+    private Grade gradeAt(int row) {
+        long stamp = lock.tryOptimisticRead();
+        byte[] column = grades;
+        byte grade = row < column.length ? column[row] : NULL;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                grade = grades[row];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return grade == NULL ? null : GRADES[grade];
+    }
+
+    private String nameAt(int row) {
+        long stamp = lock.readLock();
+        try {
+            int code = names[row];
+            return code == NULL ? null : dictionary.decode(code);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void setGradeAt(int row, Grade grade) {
+        long stamp = lock.writeLock();
+        try {
+            grades[row] = grade == null ? NULL : (byte) grade.ordinal();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void setNameAt(int row, String name) {
+        long stamp = lock.writeLock();
+        try {
+            names[row] = name == null ? NULL : dictionary.encode(name);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private List<Member> views(List<Integer> rows) {
+        List<Member> found = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            found.add(new View(row));
+        }
+        return found;
+    }
+
+    private static int tableSizeFor(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * 저장소의 한 행을 가리키는 Member. 값은 가지지 않고 읽고 쓸 때마다 저장소 배열을 본다
+     */
+    private final class View extends Member {
+
+        private final int row;
+
+        View(int row) {
+            super(null, null, null);
+            this.row = row;
+        }
+
+        @Override
+        public Long getId() {
+            return idAt(row);
+        }
+
+        @Override
+        public void setId(Long id) {
+            throw new UnsupportedOperationException("저장된 회원의 id는 바꿀 수 없습니다");
+        }
+
+        @Override
+        public String getName() {
+            return nameAt(row);
+        }
+
+        @Override
+        public void setName(String name) {
+            setNameAt(row, name);
+            notifyIndexes(); // 이 뷰를 다른 저장소에 저장했다면 그 색인도 고친다
+        }
+
+        @Override
+        public Grade getGrade() {
+            return gradeAt(row);
+        }
+
+        @Override
+        public void setGrade(Grade grade) {
+            setGradeAt(row, grade);
+            notifyIndexes();
+        }
+
+        // 같은 저장소의 같은 행이면 같은 회원
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof View)) {
+                return false;
+            }
+            View other = (View) o;
+            return row == other.row && owner() == other.owner();
+        }
+
+        @Override
+        public int hashCode() {
+            return row;
+        }
+
+        private ColumnarMemberRepository owner() {
+            return ColumnarMemberRepository.this;
+        }
+    }
+
+    /**
+     * 이름 사전: UTF-8 바이트를 한 배열에 이어 붙이고, 같은 이름은 같은 코드(등록 순번)를 준다
+     * 저장소 락 안에서만 쓴다
+     */
+    private static final class NameDictionary {
+
+        private byte[] bytes = new byte[4096];
+        private int used;
+        private int[] offsets = new int[256]; // 코드 i의 이름은 offsets[i] ~ offsets[i + 1]
+        private int count;
+        private int[] table = new int[512]; // 해시 → 코드 + 1, 0이면 빈 칸
+
+        int encode(String name) {
+            byte[] value = name.getBytes(StandardCharsets.UTF_8);
+            int hash = Arrays.hashCode(value);
+            int mask = table.length - 1;
+            for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+                int entry = table[slot];
+                if (entry == 0) {
+                    int code = add(value);
+                    table[slot] = code + 1;
+                    if (count * 2 > table.length) {
+                        rehash();
+                    }
+                    return code;
+                }
+                if (equalsAt(entry - 1, value)) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        String decode(int code) {
+            int from = offsets[code];
+            return new String(bytes, from, offsets[code + 1] - from, StandardCharsets.UTF_8);
+        }
+
+        BitSet codesStartingWith(byte[] prefix) {
+            BitSet codes = new BitSet(count);
+            for (int code = 0; code < count; code++) {
+                int from = offsets[code];
+                if (offsets[code + 1] - from < prefix.length) {
+                    continue;
+                }
+                boolean match = true;
+                for (int i = 0; i < prefix.length && match; i++) {
+                    match = bytes[from + i] == prefix[i];
+                }
+                if (match) {
+                    codes.set(code);
+                }
+            }
+            return codes;
+        }
+
+        private int add(byte[] value) {
+            if (used + value.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, used + value.length));
+            }
+            if (count + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            System.arraycopy(value, 0, bytes, used, value.length);
+            used += value.length;
+            offsets[count + 1] = used;
+            return count++;
+        }
+
+        private boolean equalsAt(int code, byte[] value) {
+            int from = offsets[code];
+            if (offsets[code + 1] - from != value.length) {
+                return false;
+            }
+            for (int i = 0; i < value.length; i++) {
+                if (bytes[from + i] != value[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rehash() {
+            int[] grown = new int[table.length * 2];
+            int mask = grown.length - 1;
+            for (int code = 0; code < count; code++) {
+                int from = offsets[code];
+                int hash = 1;
+                for (int i = from; i < offsets[code + 1]; i++) {
+                    hash = 31 * hash + bytes[i];
+                }
+                int slot = mix(hash) & mask;
+                while (grown[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                grown[slot] = code + 1;
+            }
+            table = grown;
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
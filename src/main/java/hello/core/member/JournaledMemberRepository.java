@@ -0,0 +1,621 @@
+package hello.core.member;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * 메모리 저장소 + 저널(append-only 로그)로 재시작, 장애 후에도 회원을 복구하는 저장소
+ * <p>
+ * - 조회는 MemoryMemberRepository와 같은 LongMemberMap과 보조 색인(MemberIndex)에서 바로 한다(디스크 접근 없음)
+ * - 저장된 회원을 setter로 고친 내용은 메모리와 색인에는 바로 보이지만, 다시 save 해야 저널에 남는다
+ * - save는 레코드를 저널 버퍼에 붙이고, 저널이 디스크에 기록될 때까지 기다렸다가 리턴한다
+ * - 그룹 커밋: 기록 스레드 하나가 groupCommitSize개가 모이거나 groupCommitInterval이 지나면 모인 레코드를 한 번에 쓰고 fsync 한 번으로 끝낸다
+ * - 맵과 색인에는 기록이 끝난 묶음만 기록 스레드가 저널 순서대로 반영한다. 디스크에 없는 회원은 조회되지 않고, 다시 재생하면 같은 상태가 된다
+ * - 기록이 실패하면 그 묶음은 맵에 반영하지 않고 save가 예외를 던진다. 그 뒤로는 저장을 받지 않는다(메모리가 디스크보다 앞서지 않는다)
+ * - 레코드마다 길이와 CRC32C를 붙인다. 복구할 때 마지막 세그먼트 끝의 반쯤 쓴 레코드는 잘라낸다
+ * </p>
+ * <p>
+ * 스냅샷: snapshotInterval개의 레코드가 쌓이면(또는 snapshot() 호출 시)
+ * 1. 저널을 새 세그먼트(journal-K)로 바꾸고
+ * 2. 쓰기를 막지 않고 맵을 훑어 snapshot-K를 쓴다(fuzzy). 훑는 중에 들어온 저장은 journal-K 이후에 있다
+ * 3. 다 쓰면 K보다 앞선 세그먼트와 스냅샷을 지운다
+ * 복구는 가장 최근 snapshot-K를 읽고 journal-K 이후만 재생한다. 같은 회원을 다시 덮어쓰므로 스냅샷에 이미 들어간 레코드를 재생해도 결과가 같다
+ * 백그라운드 스냅샷이 실패하면 저장은 계속된다(저널이 남아 있다). 실패는 로그로 남기고 getSnapshotFailureCount, getLastSnapshotFailure로 볼 수 있다
+ * </p>
+ * 스프링 빈으로 자동 등록하지 않는다. 쓰려면 설정에서 new JournaledMemberRepository(경로)로 등록하고 close를 destroy 메서드로 지정한다
+ */
+public class JournaledMemberRepository implements MemberRepository, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournaledMemberRepository.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x534E4150; // "SNAP"
+    private static final int RECORD_HEADER = 8; // 길이, CRC
+    private static final int END_OF_SNAPSHOT = -1;
+
+    private static final int DEFAULT_GROUP_COMMIT_SIZE = 256;
+    private static final long DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS = 2;
+    private static final long DEFAULT_SNAPSHOT_INTERVAL = 1_000_000;
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private final LongMemberMap store = new LongMemberMap();
+    private final MemberIndex index = new MemberIndex(store);
+    private final Path directory;
+    private final int groupCommitSize;
+    private final long groupCommitIntervalNanos;
+    private final boolean fsync;
+    private final long snapshotInterval;
+
+    // appendLock: 저널 버퍼, 맵 반영, 기록 완료 순번. ioLock: 세그먼트 파일 쓰기와 교체. 잡는 순서는 항상 ioLock → appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition notEmpty = appendLock.newCondition();
+    private final Condition durable = appendLock.newCondition();
+    private final ReentrantLock ioLock = new ReentrantLock();
+
+    private byte[] pending = new byte[64 * 1024];
+    private byte[] spare = new byte[64 * 1024];
+    private int pendingBytes;
+    private int pendingCount;
+    private List<Member[]> pendingMembers = new ArrayList<>(); // pending에 붙인 순서대로, 기록이 끝나면 맵에 반영할 회원
+    private List<Member[]> spareMembers = new ArrayList<>();
+    private long appendedSeq; // append 호출마다 하나씩
+    private long durableSeq; // 여기까지 기록 완료
+    private long recordsSinceSnapshot;
+    private IOException failure;
+    private volatile boolean running = true;
+
+    private FileChannel segment;
+    private long segmentNo;
+
+    private final Thread writerThread;
+    private final ExecutorService snapshotExecutor;
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final Object snapshotMonitor = new Object();
+    private final AtomicLong snapshotFailures = new AtomicLong();
+    private volatile IOException lastSnapshotFailure;
+
+    public JournaledMemberRepository(Path directory) throws IOException {
+        this(directory, DEFAULT_GROUP_COMMIT_SIZE, DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS, true, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * @param directory 저널과 스냅샷을 둘 디렉토리. 파일이 있으면 복구한 뒤 이어서 쓴다
+     * @param groupCommitSize 이만큼 모이면 기다리지 않고 바로 기록
+     * @param groupCommitIntervalMillis 첫 레코드가 들어온 뒤 최대 이만큼 모아서 기록
+     * @param fsync false이면 OS에 넘기기만 하고 fsync는 하지 않는다(프로세스 장애만 견딘다)
+     * @param snapshotInterval 이만큼 레코드가 쌓이면 스냅샷. 0 이하이면 자동 스냅샷 없음
+     */
+    public JournaledMemberRepository(Path directory, int groupCommitSize, long groupCommitIntervalMillis,
+                                     boolean fsync, long snapshotInterval) throws IOException {
+        if (groupCommitSize <= 0 || groupCommitIntervalMillis < 0) {
+            throw new IllegalArgumentException("groupCommitSize > 0, groupCommitIntervalMillis >= 0 이어야 합니다");
+        }
+        this.directory = directory;
+        this.groupCommitSize = groupCommitSize;
+        this.groupCommitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitIntervalMillis);
+        this.fsync = fsync;
+        this.snapshotInterval = snapshotInterval;
+
+        Files.createDirectories(directory);
+        long lastSegment = recover();
+        this.segmentNo = lastSegment + 1; // 재시작할 때마다 새 세그먼트에 이어 쓴다
+        this.segment = FileChannel.open(segmentPath(segmentNo), CREATE_NEW, WRITE);
+
+        this.writerThread = new Thread(this::writeLoop, "member-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "member-journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void save(Member member) {
+        append(encode(member), 1, new Member[]{member});
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        return store.get(memberId);
+    }
+
+    // 레코드를 한 번에 붙이고, 기록 완료도 한 번만 기다린다
+    @Override
+    public void saveAll(List<Member> members) {
+        Member[] values = members.toArray(new Member[0]);
+        int size = 0;
+        byte[][] records = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            records[i] = encode(values[i]);
+            size += records[i].length;
+        }
+        byte[] encoded = new byte[size];
+        int pos = 0;
+        for (byte[] record : records) {
+            System.arraycopy(record, 0, encoded, pos, record.length);
+            pos += record.length;
+        }
+        append(encoded, values.length, values);
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        Member[] found = new Member[memberIds.size()];
+        for (int i = 0; i < found.length; i++) {
+            Long memberId = memberIds.get(i);
+            found[i] = memberId == null ? null : store.get(memberId);
+        }
+        return Arrays.asList(found);
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return index.findByGrade(grade);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix, int limit) {
+        return index.findByNamePrefix(prefix, limit);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    // 백그라운드 스냅샷 실패 횟수
+    public long getSnapshotFailureCount() {
+        return snapshotFailures.get();
+    }
+
+    // 마지막 백그라운드 스냅샷 실패, 없으면 null
+    public IOException getLastSnapshotFailure() {
+        return lastSnapshotFailure;
+    }
+
+    /**
+     * 저널을 새 세그먼트로 바꾸고, 현재 맵을 스냅샷으로 쓴 뒤 지난 세그먼트를 지운다
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotMonitor) {
+            long from = rotate();
+
+            Path file = snapshotPath(from);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 64 * 1024))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                IOException[] error = new IOException[1];
+                store.forEach(member -> {
+                    if (error[0] == null) {
+                        try {
+                            out.write(encode(member));
+                        } catch (IOException e) {
+                            error[0] = e;
+                        }
+                    }
+                });
+                if (error[0] != null) {
+                    throw error[0];
+                }
+                out.writeInt(END_OF_SNAPSHOT);
+                out.flush();
+                fos.getFD().sync();
+            }
+            Files.move(tmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+
+            for (Path path : list("journal-", ".log")) {
+                if (numberOf(path) < from) {
+                    Files.deleteIfExists(path);
+                }
+            }
+            for (Path path : list("snapshot-", ".dat")) {
+                if (numberOf(path) < from) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    // 남은 레코드를 모두 기록하고 닫는다
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            writerThread.join();
+            snapshotExecutor.shutdown();
+            snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioLock.lock();
+        try {
+            segment.close();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void append(byte[] encoded, int count, Member[] members) {
+        long seq;
+        appendLock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("저장소가 닫혔습니다");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("저널 기록에 실패해서 더 저장할 수 없습니다", failure);
+            }
+            if (pending.length - pendingBytes < encoded.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingBytes + encoded.length));
+            }
+            System.arraycopy(encoded, 0, pending, pendingBytes, encoded.length);
+            pendingBytes += encoded.length;
+            pendingMembers.add(members);
+            seq = ++appendedSeq;
+            int before = pendingCount;
+            pendingCount += count;
+            if (before == 0 || pendingCount >= groupCommitSize) {
+                notEmpty.signal();
+            }
+
+            while (durableSeq < seq && failure == null) {
+                durable.awaitUninterruptibly();
+            }
+            if (durableSeq < seq) {
+                throw new UncheckedIOException("저널 기록에 실패했습니다", failure);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        while (awaitBatch()) {
+            ioLock.lock();
+            try {
+                writePending();
+            } finally {
+                ioLock.unlock();
+            }
+        }
+    }
+
+    // 레코드가 들어올 때까지, 그리고 groupCommitSize만큼 모이거나 간격이 지날 때까지 기다린다. 닫혔고 남은 게 없으면 false
+    private boolean awaitBatch() {
+        appendLock.lock();
+        try {
+            while (running && pendingCount == 0) {
+                notEmpty.awaitUninterruptibly();
+            }
+            if (pendingCount == 0) {
+                return false;
+            }
+            long left = groupCommitIntervalNanos;
+            while (running && pendingCount < groupCommitSize && left > 0) {
+                try {
+                    left = notEmpty.awaitNanos(left);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            return true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // ioLock을 쥔 상태에서만 호출. 모인 레코드를 꺼내 현재 세그먼트에 쓰고, 맵에 반영한 뒤 기다리는 스레드를 깨운다
+    private void writePending() {
+        byte[] batch;
+        List<Member[]> batchMembers;
+        int length;
+        long seq;
+        appendLock.lock();
+        try {
+            if (pendingCount == 0) {
+                return; // 그 사이 rotate가 이미 기록했다
+            }
+            batch = pending;
+            length = pendingBytes;
+            seq = appendedSeq;
+            recordsSinceSnapshot += pendingCount;
+            pending = spare;
+            spare = batch;
+            batchMembers = pendingMembers;
+            pendingMembers = spareMembers;
+            spareMembers = batchMembers;
+            pendingBytes = 0;
+            pendingCount = 0;
+        } finally {
+            appendLock.unlock();
+        }
+
+        IOException error = null;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batch, 0, length);
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            if (fsync) {
+                segment.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+
+        boolean snapshotDue;
+        appendLock.lock();
+        try {
+            if (error != null) {
+                failure = error; // 이 묶음은 맵에 반영하지 않는다
+            } else {
+                // 기록이 끝난 뒤에 저널 순서대로 반영한다. 기다리던 save는 반영된 뒤에 깨어난다
+                for (Member[] members : batchMembers) {
+                    for (Member member : members) {
+                        index.put(member.getId(), member);
+                    }
+                }
+                durableSeq = seq;
+            }
+            batchMembers.clear();
+            durable.signalAll();
+            snapshotDue = snapshotInterval > 0 && recordsSinceSnapshot >= snapshotInterval && running;
+        } finally {
+            appendLock.unlock();
+        }
+        if (snapshotDue && snapshotScheduled.compareAndSet(false, true)) {
+            snapshotExecutor.execute(() -> {
+                try {
+                    snapshot();
+                } catch (IOException e) {
+                    // 스냅샷 실패는 저장에 영향을 주지 않는다. 저널이 그대로 남아 있고, 다음 주기에 다시 시도한다
+                    lastSnapshotFailure = e;
+                    snapshotFailures.incrementAndGet();
+                    log.error("회원 저널 스냅샷 실패: " + directory, e);
+                } finally {
+                    snapshotScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    // 테스트용: 현재 세그먼트를 닫아 다음 기록이 실패하게 한다
+    void closeSegment() throws IOException {
+        ioLock.lock();
+        try {
+            segment.close();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    // 남은 레코드를 지금 세그먼트에 기록하고 새 세그먼트를 연다. 새 세그먼트 번호를 돌려준다
+    private long rotate() throws IOException {
+        ioLock.lock();
+        try {
+            writePending();
+            appendLock.lock();
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                segment.force(false);
+                segment.close();
+                segment = FileChannel.open(segmentPath(segmentNo + 1), CREATE_NEW, WRITE);
+                segmentNo++;
+                recordsSinceSnapshot = 0;
+                return segmentNo;
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    // 최근 스냅샷을 읽고 그 뒤 세그먼트를 재생한다. 마지막 세그먼트 번호를 돌려준다
+    private long recover() throws IOException {
+        long from = 0;
+        List<Path> snapshots = list("snapshot-", ".dat");
+        if (!snapshots.isEmpty()) {
+            Path latest = snapshots.get(snapshots.size() - 1);
+            loadSnapshot(latest);
+            from = numberOf(latest);
+        }
+
+        long last = from;
+        List<Path> segments = new ArrayList<>();
+        for (Path path : list("journal-", ".log")) {
+            if (numberOf(path) >= from) {
+                segments.add(path);
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Path path = segments.get(i);
+            long valid = replay(path);
+            long fileSize = Files.size(path);
+            if (valid < fileSize) {
+                if (i < segments.size() - 1) {
+                    throw new IOException("저널 중간이 손상되었습니다: " + path + " (" + valid + " 바이트 이후)");
+                }
+                try (FileChannel channel = FileChannel.open(path, WRITE)) {
+                    channel.truncate(valid); // 마지막 세그먼트 끝의 반쯤 쓴 레코드
+                }
+            }
+            last = numberOf(path);
+            if (fileSize == 0) {
+                Files.delete(path); // 기록 없이 재시작만 반복할 때 빈 세그먼트가 쌓이지 않도록
+            }
+        }
+        for (Path path : list("snapshot-", ".tmp")) {
+            Files.deleteIfExists(path); // 쓰다 만 스냅샷
+        }
+        return last;
+    }
+
+    private void loadSnapshot(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("스냅샷 형식이 아닙니다: " + file);
+            }
+            while (true) {
+                byte[] payload = readRecord(in, true);
+                if (payload == null) {
+                    return;
+                }
+                Member member = decode(payload);
+                index.put(member.getId(), member);
+            }
+        }
+    }
+
+    // 온전한 레코드를 모두 재생하고, 온전한 부분의 길이를 돌려준다
+    private long replay(Path file) throws IOException {
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    payload = readRecord(in, false);
+                } catch (EOFException e) {
+                    return valid;
+                }
+                if (payload == null) {
+                    return valid;
+                }
+                Member member = decode(payload);
+                index.put(member.getId(), member);
+                valid += RECORD_HEADER + payload.length;
+            }
+        }
+    }
+
+    // 레코드 하나. 스냅샷 끝 표시, 길이나 CRC가 맞지 않으면 null
+    private static byte[] readRecord(DataInputStream in, boolean snapshot) throws IOException {
+        int length = in.readInt();
+        if (snapshot && length == END_OF_SNAPSHOT) {
+            return null;
+        }
+        if (length < 13 || length > (1 << 20)) {
+            if (snapshot) {
+                throw new IOException("스냅샷이 손상되었습니다");
+            }
+            return null;
+        }
+        int crc = in.readInt();
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        if (crc != crcOf(payload, 0, length)) {
+            if (snapshot) {
+                throw new IOException("스냅샷이 손상되었습니다");
+            }
+            return null;
+        }
+        return payload;
+    }
+
+    // [길이][CRC32C][id(8), 등급(1, null이면 -1), 이름 길이(4, null이면 -1), 이름 UTF-8]
+    private static byte[] encode(Member member) {
+        if (member.getId() == null) {
+            throw new IllegalArgumentException("회원 id는 null일 수 없습니다");
+        }
+        byte[] name = member.getName() == null ? null : member.getName().getBytes(StandardCharsets.UTF_8);
+        int payloadLength = 8 + 1 + 4 + (name == null ? 0 : name.length);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER + payloadLength);
+        buffer.putInt(payloadLength);
+        buffer.putInt(0);
+        buffer.putLong(member.getId());
+        buffer.put(member.getGrade() == null ? -1 : (byte) member.getGrade().ordinal());
+        buffer.putInt(name == null ? -1 : name.length);
+        if (name != null) {
+            buffer.put(name);
+        }
+        byte[] record = buffer.array();
+        buffer.putInt(4, crcOf(record, RECORD_HEADER, payloadLength));
+        return record;
+    }
+
+    private static Member decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long id = buffer.getLong();
+        byte grade = buffer.get();
+        int nameLength = buffer.getInt();
+        String name = nameLength < 0 ? null : new String(payload, buffer.position(), nameLength, StandardCharsets.UTF_8);
+        return new Member(id, name, grade < 0 ? null : GRADES[grade]);
+    }
+
+    private static int crcOf(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("journal-%016d.log", number));
+    }
+
+    private Path snapshotPath(long number) {
+        return directory.resolve(String.format("snapshot-%016d.dat", number));
+    }
+
+    // 번호 순으로 정렬된 파일 목록
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).forEach(files::add);
+        }
+        files.sort((a, b) -> Long.compare(numberOf(a), numberOf(b)));
+        return files;
+    }
+
+    private static long numberOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.indexOf('.')));
+    }
+}
@@ -0,0 +1,302 @@
+package hello.core.member;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * long 회원 id를 키로 쓰는 동시성 해시 테이블
+ * <p>
+ * - 키를 Long으로 박싱하지 않도록 long[] 키 배열과 Member[] 값 배열을 나란히 두는 open addressing(선형 탐사) 방식
+ * - 해시 상위 비트로 세그먼트를 고르고, 세그먼트마다 락을 따로 둔다(lock striping). 쓰기는 같은 세그먼트끼리만 경합한다
+ * - 읽기는 락을 잡지 않는다. 쓰기는 값을 먼저 쓰고(release) 키를 나중에 써서, 키가 보이면 값도 보이도록 한다
+ * - 테이블이 차면 세그먼트 락 안에서 새 배열을 만들어 옮긴 뒤 volatile 참조를 교체한다. 읽기는 옛 테이블이든 새 테이블이든 완성된 것만 본다
+ * - 삭제는 지원하지 않는다(MemberRepository에 삭제가 없음). 덕분에 tombstone 없이 탐사가 빈 칸에서 끝난다
+ * - forEach는 락 없이 각 세그먼트의 현재 테이블을 훑는다(스냅샷 용도)
+ * </p>
+ */
+public final class LongMemberMap {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Member[].class);
+
+    // 빈 칸 표시. id가 0인 회원은 테이블 밖 zeroMember에 따로 둔다
+    private static final long EMPTY = 0L;
+
+    private static final int DEFAULT_SEGMENTS = 64;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final int segmentMask;
+
+    private volatile Member zeroMember;
+
+    public LongMemberMap() {
+        this(DEFAULT_SEGMENTS, DEFAULT_SEGMENTS * MIN_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * @param concurrencyLevel 세그먼트 수(2의 거듭제곱으로 올림). 동시에 쓰는 스레드 수 정도면 충분하다
+     * @param initialCapacity 처음에 담을 수 있는 회원 수
+     */
+    public LongMemberMap(int concurrencyLevel, int initialCapacity) {
+        if (concurrencyLevel <= 0 || initialCapacity < 0) {
+            throw new IllegalArgumentException("concurrencyLevel > 0, initialCapacity >= 0 이어야 합니다");
+        }
+        int segmentCount = tableSizeFor(concurrencyLevel);
+        this.segments = new Segment[segmentCount];
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        this.segmentMask = segmentCount - 1;
+        int perSegment = Math.max(MIN_SEGMENT_CAPACITY, tableSizeFor(initialCapacity / segmentCount * 2));
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * @return id에 해당하는 회원, 없으면 null
+     */
+    public Member get(long id) {
+        if (id == EMPTY) {
+            return zeroMember;
+        }
+        long hash = mix(id);
+        return segmentFor(hash).get(id, hash);
+    }
+
+    /**
+     * @return 같은 id로 이미 저장되어 있던 회원, 없었으면 null
+     */
+    public Member put(long id, Member member) {
+        if (member == null) {
+            throw new IllegalArgumentException("member는 null일 수 없습니다");
+        }
+        if (id == EMPTY) {
+            synchronized (this) {
+                Member previous = zeroMember;
+                zeroMember = member;
+                return previous;
+            }
+        }
+        long hash = mix(id);
+        return segmentFor(hash).put(id, hash, member);
+    }
+
+    /**
+     * 여러 회원을 한 번에 저장
+     * <p>
+     * 회원을 세그먼트별로 먼저 나눈 뒤, 세그먼트마다 락을 한 번만 잡고 필요한 크기로 한 번만 늘린 다음 모두 넣는다.
+     * ids[i]와 members[i]가 짝이며, 같은 id가 여러 번 나오면 뒤의 것이 남는다.
+     * </p>
+     */
+    public void putAll(long[] ids, Member[] members) {
+        if (ids.length != members.length) {
+            throw new IllegalArgumentException("ids와 members의 길이가 다릅니다");
+        }
+        int n = ids.length;
+        long[] hashes = new long[n];
+        int[] segmentStart = new int[segments.length + 1];
+        for (int i = 0; i < n; i++) {
+            if (members[i] == null) {
+                throw new IllegalArgumentException("member는 null일 수 없습니다");
+            }
+            if (ids[i] == EMPTY) {
+                continue;
+            }
+            hashes[i] = mix(ids[i]);
+            segmentStart[segmentIndex(hashes[i]) + 1]++;
+        }
+        for (int s = 0; s < segments.length; s++) {
+            segmentStart[s + 1] += segmentStart[s];
+        }
+
+        // 세그먼트 순서로 정렬한 인덱스(counting sort). 같은 세그먼트 안에서는 입력 순서가 유지된다
+        int[] order = new int[segmentStart[segments.length]];
+        int[] cursor = segmentStart.clone();
+        for (int i = 0; i < n; i++) {
+            if (ids[i] == EMPTY) {
+                put(EMPTY, members[i]);
+                continue;
+            }
+            order[cursor[segmentIndex(hashes[i])]++] = i;
+        }
+        for (int s = 0; s < segments.length; s++) {
+            int from = segmentStart[s];
+            int to = segmentStart[s + 1];
+            if (from < to) {
+                segments[s].putAll(ids, hashes, members, order, from, to);
+            }
+        }
+    }
+
+    /**
+     * 대략적인 저장 개수. 동시에 쓰기가 진행 중이면 정확하지 않을 수 있다
+     */
+    public int size() {
+        int size = zeroMember == null ? 0 : 1;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * 저장된 회원을 모두 방문한다. 락을 잡지 않으므로 도는 동안 저장된 회원은 보일 수도, 안 보일 수도 있다
+     */
+    public void forEach(Consumer<Member> action) {
+        Member zero = zeroMember;
+        if (zero != null) {
+            action.accept(zero);
+        }
+        for (Segment segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[segmentIndex(hash)];
+    }
+
+    private int segmentIndex(long hash) {
+        return (int) (hash >>> segmentShift) & segmentMask;
+    }
+
+    // murmur3 fmix64: 연속된 id도 고르게 퍼지도록
+    static long mix(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int tableSizeFor(int n) {
+        if (n <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final Member[] values;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Member[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Table table;
+        private volatile int size;
+
+        Segment(int capacity) {
+            this.table = new Table(capacity);
+        }
+
+        Member get(long id, long hash) {
+            Table t = table;
+            long[] keys = t.keys;
+            int mask = t.mask;
+            for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                long key = (long) KEYS.getAcquire(keys, i);
+                if (key == id) {
+                    return (Member) VALUES.getAcquire(t.values, i);
+                }
+                if (key == EMPTY) {
+                    return null;
+                }
+            }
+        }
+
+        void forEach(Consumer<Member> action) {
+            Table t = table;
+            for (int i = 0; i < t.keys.length; i++) {
+                if ((long) KEYS.getAcquire(t.keys, i) != EMPTY) {
+                    action.accept((Member) VALUES.getAcquire(t.values, i));
+                }
+            }
+        }
+
+        Member put(long id, long hash, Member member) {
+            lock.lock();
+            try {
+                Member previous = insert(table, id, hash, member);
+                if (previous == null && size * 2 > table.keys.length) {
+                    table = resize(table, table.keys.length * 2);
+                }
+                return previous;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void putAll(long[] ids, long[] hashes, Member[] members, int[] order, int from, int to) {
+            lock.lock();
+            try {
+                // 모두 새 회원이라고 가정하고 필요한 크기로 한 번만 늘린다
+                int capacity = table.keys.length;
+                while ((size + (to - from)) * 2L > capacity) {
+                    capacity *= 2;
+                }
+                if (capacity != table.keys.length) {
+                    table = resize(table, capacity);
+                }
+                Table t = table;
+                for (int k = from; k < to; k++) {
+                    int i = order[k];
+                    insert(t, ids[i], hashes[i], members[i]);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // 락을 쥔 상태에서만 호출. 빈 칸이 남아 있어야 한다
+        private Member insert(Table t, long id, long hash, Member member) {
+            int mask = t.mask;
+            for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                long key = t.keys[i];
+                if (key == id) {
+                    Member previous = t.values[i];
+                    VALUES.setRelease(t.values, i, member);
+                    return previous;
+                }
+                if (key == EMPTY) {
+                    VALUES.setRelease(t.values, i, member);
+                    KEYS.setRelease(t.keys, i, id);
+                    size = size + 1;
+                    return null;
+                }
+            }
+        }
+
+        // 락을 쥔 상태에서만 호출. 새 테이블은 다 채운 뒤에 공개한다
+        private static Table resize(Table old, int capacity) {
+            Table grown = new Table(capacity);
+            int mask = grown.mask;
+            for (int j = 0; j < old.keys.length; j++) {
+                long key = old.keys[j];
+                if (key == EMPTY) {
+                    continue;
+                }
+                int i = (int) mix(key) & mask;
+                while (grown.keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                grown.keys[i] = key;
+                grown.values[i] = old.values[j];
+            }
+            return grown;
+        }
+    }
+}
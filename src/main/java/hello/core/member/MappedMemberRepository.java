@@ -0,0 +1,431 @@
+package hello.core.member;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * 메모리 맵 파일에 회원을 저장하는 저장소
+ * <p>
+ * - members.idx: 고정 폭 레코드(id, 이름 위치, 이름 길이, 등급) 배열. 파일 자체가 id로 찾는 open addressing(선형 탐사) 해시 테이블이다
+ *   findById는 매핑된 메모리에서 탐사만 하고, save는 정해진 칸에 값을 쓴다. 회원 수가 늘어도 힙과 GC 부담은 그대로다
+ * - members.names: 이름 UTF-8 바이트를 뒤에 이어 붙이는 파일. 레코드는 이 파일 안의 위치와 길이만 가진다
+ * - 다시 시작하면 두 파일을 다시 매핑만 한다. 다시 읽어 들이는 과정이 없다
+ * </p>
+ * <p>
+ * - 레코드는 이름 → 위치 → 등급 순서로 쓰고, 등급 칸(0이면 빈 칸)을 마지막에 써서 공개한다. 중간에 죽어도 반쯤 쓴 레코드는 보이지 않는다
+ *   덮어쓸 때는 등급 칸을 먼저 WRITING(-1)으로 바꿔 내린 뒤 위치, 길이를 쓰고 등급을 다시 쓴다. 그 사이에 죽으면 그 회원은 없는 것으로 보인다(이전 값도 사라진다)
+ *   WRITING 칸도 탐사에서는 차 있는 칸이라, 같은 탐사 경로의 다른 회원은 그대로 찾는다
+ * - 테이블이 절반 넘게 차면 두 배 크기의 임시 파일에 다시 배치한 뒤 원래 파일 자리로 원자적으로 옮긴다
+ * - 매핑 하나가 2GB를 넘을 수 없고 칸 수는 2의 거듭제곱이므로 테이블은 2^26칸(24바이트 레코드), 절반까지만 채우니 회원은 약 3300만 명, 이름 파일은 2GB까지
+ * - 디스크 반영 시점은 OS에 맡긴다. 바로 반영해야 하면 flush()를 호출한다
+ * - findById는 매번 새 Member를 만든다. 돌려받은 Member를 고쳐도 저장소에는 반영되지 않으니 다시 save 해야 한다
+ * - 이름을 바꿔 다시 저장하면 이전 이름 바이트는 이름 파일에 남는다(정리하지 않음)
+ * - 등급, 이름 조회는 보조 색인 없이 테이블 전체를 훑는다. 색인을 힙에 두면 다시 시작할 때 읽어 들여야 하기 때문
+ * </p>
+ * 스프링 빈으로 자동 등록하지 않는다. 쓰려면 설정에서 new MappedMemberRepository(경로)로 등록한다
+ */
+public class MappedMemberRepository implements MemberRepository, Closeable {
+
+    private static final int MAGIC = 0x4D454D31; // "MEM1"
+
+    // members.idx 헤더: magic, capacity, size
+    private static final int HEADER_SIZE = 64;
+    private static final int CAPACITY_POS = 4;
+    private static final int SIZE_POS = 8;
+
+    // 레코드 안의 위치
+    private static final int RECORD_SIZE = 24;
+    private static final int ID = 0;
+    private static final int NAME_OFFSET = 8;
+    private static final int NAME_LENGTH = 16;
+    private static final int GRADE = 20; // 등급 ordinal + 1, 0이면 빈 칸
+    private static final int WRITING = -1; // 덮어쓰는 중(조회되지 않음)
+
+    // members.names 헤더: 다음에 이름을 쓸 위치
+    private static final int NAMES_HEADER_SIZE = 8;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+    private static final Grade[] GRADES = Grade.values();
+
+    private final Path indexFile;
+    private final Path nameFile;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+
+    private final FileChannel nameChannel;
+    private MappedByteBuffer names;
+    private long nameEnd;
+
+    public MappedMemberRepository(Path directory) throws IOException {
+        this(directory, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param directory 파일을 둘 디렉토리. 파일이 이미 있으면 그대로 이어서 쓴다
+     * @param initialCapacity 새로 만들 때 테이블 칸 수(2의 거듭제곱으로 올림)
+     */
+    public MappedMemberRepository(Path directory, int initialCapacity) throws IOException {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity는 0보다 커야 합니다");
+        }
+        Files.createDirectories(directory);
+        this.indexFile = directory.resolve("members.idx");
+        this.nameFile = directory.resolve("members.names");
+
+        if (Files.notExists(indexFile)) {
+            createIndex(indexFile, tableSizeFor(initialCapacity)).close();
+        }
+        openIndex();
+
+        this.nameChannel = FileChannel.open(nameFile, CREATE, READ, WRITE);
+        long nameFileSize = Math.max(nameChannel.size(), NAMES_HEADER_SIZE + 4096L);
+        this.names = nameChannel.map(FileChannel.MapMode.READ_WRITE, 0, nameFileSize);
+        this.nameEnd = Math.max(names.getLong(0), NAMES_HEADER_SIZE);
+    }
+
+    @Override
+    public void save(Member member) {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(1);
+            write(member);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = find(memberId);
+            return slot < 0 ? null : read(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 쓰기 락은 한 번만 잡고, 테이블도 필요한 크기로 한 번만 늘린다
+    @Override
+    public void saveAll(List<Member> members) {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(members.size());
+            for (Member member : members) {
+                write(member);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        Member[] found = new Member[memberIds.size()];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < found.length; i++) {
+                Long memberId = memberIds.get(i);
+                if (memberId != null) {
+                    int slot = find(memberId);
+                    found[i] = slot < 0 ? null : read(slot);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.asList(found);
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        List<Member> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < capacity; slot++) {
+                if (index.getInt(HEADER_SIZE + slot * RECORD_SIZE + GRADE) == grade.ordinal() + 1) {
+                    found.add(read(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        found.sort(Comparator.comparing(Member::getId));
+        return found;
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix, int limit) {
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        List<Member> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < capacity; slot++) {
+                int base = HEADER_SIZE + slot * RECORD_SIZE;
+                if (index.getInt(base + GRADE) > 0 && startsWith(base, bytes)) {
+                    found.add(read(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        found.sort(Comparator.comparing(Member::getName).thenComparing(Member::getId));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 지금까지 쓴 내용을 디스크에 반영
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            names.force();
+            index.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            names.force();
+            index.force();
+            nameChannel.close();
+            indexChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 쓰기 락을 쥔 상태에서만 호출. 이름 → 위치 → 등급 순서로 쓴다(덮어쓸 때는 등급을 먼저 내린다)
+    private void write(Member member) {
+        if (member.getId() == null) {
+            throw new IllegalArgumentException("회원 id는 null일 수 없습니다");
+        }
+        if (member.getGrade() == null) {
+            throw new IllegalArgumentException("회원 등급은 null일 수 없습니다");
+        }
+        long id = member.getId();
+        int slot = probe(index, capacity, id);
+        int base = HEADER_SIZE + slot * RECORD_SIZE;
+        boolean isNew = index.getInt(base + GRADE) == 0;
+
+        byte[] name = member.getName() == null ? null : member.getName().getBytes(StandardCharsets.UTF_8);
+        long nameOffset = -1;
+        int nameLength = -1; // null 이름
+        if (name != null) {
+            if (!isNew && sameName(base, name)) {
+                nameOffset = index.getLong(base + NAME_OFFSET);
+            } else {
+                nameOffset = appendName(name);
+            }
+            nameLength = name.length;
+        }
+
+        if (!isNew) {
+            index.putInt(base + GRADE, WRITING);
+        }
+        index.putLong(base + ID, id);
+        index.putLong(base + NAME_OFFSET, nameOffset);
+        index.putInt(base + NAME_LENGTH, nameLength);
+        index.putInt(base + GRADE, member.getGrade().ordinal() + 1);
+        if (isNew) {
+            index.putInt(SIZE_POS, ++size);
+        }
+    }
+
+    private boolean sameName(int base, byte[] name) {
+        if (index.getInt(base + NAME_LENGTH) != name.length) {
+            return false;
+        }
+        long offset = index.getLong(base + NAME_OFFSET);
+        for (int i = 0; i < name.length; i++) {
+            if (names.get((int) offset + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 이름 바이트가 prefix 바이트로 시작하는지. UTF-8은 글자 경계가 바이트 비교와 일치한다
+    private boolean startsWith(int base, byte[] prefix) {
+        if (index.getInt(base + NAME_LENGTH) < prefix.length) {
+            return false;
+        }
+        int offset = (int) index.getLong(base + NAME_OFFSET);
+        for (int i = 0; i < prefix.length; i++) {
+            if (names.get(offset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long appendName(byte[] name) {
+        long offset = nameEnd;
+        long end = offset + name.length;
+        if (end > names.capacity()) {
+            growNames(end);
+        }
+        for (int i = 0; i < name.length; i++) {
+            names.put((int) offset + i, name[i]);
+        }
+        nameEnd = end;
+        names.putLong(0, nameEnd);
+        return offset;
+    }
+
+    private void growNames(long required) {
+        if (required > MAX_MAPPING) {
+            throw new IllegalStateException("이름 파일이 2GB를 넘을 수 없습니다");
+        }
+        long grown = Math.min(Math.max((long) names.capacity() * 2, required), MAX_MAPPING);
+        try {
+            names = nameChannel.map(FileChannel.MapMode.READ_WRITE, 0, grown);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Member read(int slot) {
+        int base = HEADER_SIZE + slot * RECORD_SIZE;
+        int nameLength = index.getInt(base + NAME_LENGTH);
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            int offset = (int) index.getLong(base + NAME_OFFSET);
+            for (int i = 0; i < nameLength; i++) {
+                bytes[i] = names.get(offset + i);
+            }
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        Grade grade = GRADES[index.getInt(base + GRADE) - 1];
+        return new Member(index.getLong(base + ID), name, grade);
+    }
+
+    // 회원이 있는 칸, 없으면(덮어쓰다 멈춘 칸 포함) -1
+    private int find(long id) {
+        int slot = probe(index, capacity, id);
+        return index.getInt(HEADER_SIZE + slot * RECORD_SIZE + GRADE) <= 0 ? -1 : slot;
+    }
+
+    // id가 있는 칸, 없으면 id가 들어갈 빈 칸
+    private static int probe(MappedByteBuffer table, int capacity, long id) {
+        int mask = capacity - 1;
+        for (int slot = (int) LongMemberMap.mix(id) & mask; ; slot = (slot + 1) & mask) {
+            int base = HEADER_SIZE + slot * RECORD_SIZE;
+            if (table.getInt(base + GRADE) == 0 || table.getLong(base + ID) == id) {
+                return slot;
+            }
+        }
+    }
+
+    // 쓰기 락을 쥔 상태에서만 호출. 모두 새 회원이라고 가정하고 필요한 크기로 한 번만 늘린다
+    private void ensureCapacity(int additional) throws IOException {
+        long required = (long) size + additional;
+        int grown = capacity;
+        while (required * 2 > grown) {
+            grown *= 2;
+        }
+        if (grown != capacity) {
+            rehash(grown);
+        }
+    }
+
+    // 새 크기의 임시 파일에 레코드를 다시 배치하고, 다 쓴 뒤에 원래 파일 자리로 옮긴다
+    private void rehash(int newCapacity) throws IOException {
+        if (HEADER_SIZE + (long) newCapacity * RECORD_SIZE > MAX_MAPPING) {
+            throw new IllegalStateException("회원 테이블이 최대 크기를 넘었습니다");
+        }
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel channel = createIndex(tmp, newCapacity)) {
+            MappedByteBuffer grown = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+            for (int slot = 0; slot < capacity; slot++) {
+                int from = HEADER_SIZE + slot * RECORD_SIZE;
+                if (index.getInt(from + GRADE) == 0) {
+                    continue;
+                }
+                int to = HEADER_SIZE + probe(grown, newCapacity, index.getLong(from + ID)) * RECORD_SIZE;
+                grown.putLong(to + ID, index.getLong(from + ID));
+                grown.putLong(to + NAME_OFFSET, index.getLong(from + NAME_OFFSET));
+                grown.putInt(to + NAME_LENGTH, index.getInt(from + NAME_LENGTH));
+                grown.putInt(to + GRADE, index.getInt(from + GRADE));
+            }
+            grown.putInt(SIZE_POS, size);
+            grown.force();
+        }
+        index.force();
+        indexChannel.close();
+        Files.move(tmp, indexFile, ATOMIC_MOVE, REPLACE_EXISTING);
+        openIndex();
+    }
+
+    private void openIndex() throws IOException {
+        indexChannel = FileChannel.open(indexFile, READ, WRITE);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size());
+        if (index.capacity() < HEADER_SIZE || index.getInt(0) != MAGIC) {
+            indexChannel.close();
+            throw new IOException("회원 파일 형식이 아닙니다: " + indexFile);
+        }
+        capacity = index.getInt(CAPACITY_POS);
+        size = index.getInt(SIZE_POS);
+    }
+
+    private static FileChannel createIndex(Path file, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        header.putInt(0, MAGIC);
+        header.putInt(CAPACITY_POS, capacity);
+        header.putInt(SIZE_POS, 0);
+        return channel;
+    }
+
+    private static int tableSizeFor(int n) {
+        if (n <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+}
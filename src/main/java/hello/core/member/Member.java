@@ -7,6 +7,9 @@ public class Member {
     private String name;
     private Grade grade;
 
+    // 이 회원을 저장한 색인들(MemberIndex가 관리). 등급, 이름을 바꾸면 그 색인들에 알린다
+    volatile MemberIndex.Link indexes;
+
     // 생성자
     public Member(Long id, String name, Grade grade) {
         this.id = id;
@@ -29,6 +32,7 @@ public class Member {
 
     public void setName(String name) {
         this.name = name;
+        notifyIndexes();
     }
 
     public Grade getGrade() {
@@ -37,5 +41,13 @@ public class Member {
 
     public void setGrade(Grade grade) {
         this.grade = grade;
+        notifyIndexes();
+    }
+
+    // setter를 재정의한 하위 클래스도 값을 바꾼 뒤 부른다
+    void notifyIndexes() {
+        for (MemberIndex.Link link = indexes; link != null; link = link.next) {
+            link.index.changed(this);
+        }
     }
 }
@@ -0,0 +1,420 @@
+package hello.core.member;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LongMemberMap에 저장된 회원의 보조 색인: id별 등급, 이름 표와 (이름, id) 정렬 집합
+ * <p>
+ * - 저장은 이 색인을 거쳐서 한다. id마다 색인에 넣은 등급(ordinal)과 이름을 id 표에 따로 둔다(Member 복사본이나 Long 박싱 없이)
+ *   id 표는 LongMemberMap처럼 long[] 키, byte[] 등급, String[] 이름을 나란히 둔 open addressing 배열이고, 스트라이프마다 하나씩 있다
+ * - 저장된 Member의 setGrade, setName은 그 회원을 저장한 색인에 알린다(Member.indexes). 색인은 바로 고쳐지므로 다시 save 하지 않아도 된다
+ *   같은 회원을 여러 저장소에 저장해도 저장소마다 따로 고쳐진다. 같은 id로 다른 회원을 저장하면 이전 회원은 그 색인에서 빠진다
+ * - 색인 변경은 id별 락(lock striping) 안에서 한다. id 표도 그 스트라이프 락 안에서만 쓴다
+ * - 등급 조회는 락 없이 id 표의 등급 열을 훑어 id를 모으고 정렬한다
+ * - 이름 조회는 락 없이 (이름, id) 집합을 훑고, 찾은 항목이 id 표의 이름과 같은지 확인한다. 변경 중에 잠깐 남은 옛 항목은 걸러진다
+ * </p>
+ */
+final class MemberIndex {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle GRADES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final VarHandle NAMES = MethodHandles.arrayElementVarHandle(String[].class);
+    private static final AtomicReferenceFieldUpdater<Member, Link> MEMBER_INDEXES =
+            AtomicReferenceFieldUpdater.newUpdater(Member.class, Link.class, "indexes");
+
+    private static final int STRIPES = 64;
+    private static final int STRIPE_BITS = 6;
+    private static final int MIN_CAPACITY = 16;
+    private static final long EMPTY = 0L; // 빈 칸. id가 0인 회원은 zero* 필드에 따로 둔다
+    private static final byte NO_GRADE = -1;
+
+    private final LongMemberMap store;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ConcurrentSkipListSet<NameKey> byName = new ConcurrentSkipListSet<>();
+
+    // id가 0인 회원의 색인 값. stripeOf(0)의 락 안에서만 쓴다
+    private volatile boolean zeroIndexed;
+    private volatile byte zeroGrade = NO_GRADE;
+    private volatile String zeroName;
+
+    MemberIndex(LongMemberMap store) {
+        this.store = store;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return 같은 id로 이미 저장되어 있던 회원, 없었으면 null
+     */
+    Member put(long id, Member member) {
+        ReentrantLock lock = stripes[stripeOf(id)].lock;
+        lock.lock();
+        try {
+            attach(member); // 색인보다 먼저: 이후의 setter는 락을 기다렸다가 다시 색인한다
+            Member previous = store.put(id, member);
+            if (previous != null && previous != member) {
+                detach(previous);
+            }
+            reindex(id, member);
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 락 스트라이프별로 나눠(counting sort) 스트라이프마다 그 락만 잡고 저장한다. 같은 id가 여러 번 나오면 뒤의 것이 남는다
+     * 같은 id는 같은 스트라이프에 입력 순서대로 모이므로 중복을 따로 찾지 않는다
+     */
+    void putAll(long[] ids, Member[] members) {
+        if (ids.length != members.length) {
+            throw new IllegalArgumentException("ids와 members의 길이가 다릅니다");
+        }
+        int n = ids.length;
+        int[] stripeOf = new int[n];
+        int[] stripeStart = new int[STRIPES + 1];
+        for (int i = 0; i < n; i++) {
+            stripeOf[i] = stripeOf(ids[i]);
+            stripeStart[stripeOf[i] + 1]++;
+        }
+        for (int s = 0; s < STRIPES; s++) {
+            stripeStart[s + 1] += stripeStart[s];
+        }
+        int[] order = new int[n];
+        int[] cursor = stripeStart.clone();
+        for (int i = 0; i < n; i++) {
+            order[cursor[stripeOf[i]]++] = i;
+        }
+
+        for (int s = 0; s < STRIPES; s++) {
+            int from = stripeStart[s];
+            int to = stripeStart[s + 1];
+            if (from == to) {
+                continue;
+            }
+            long[] stripeIds = new long[to - from];
+            Member[] stripeMembers = new Member[to - from];
+            for (int k = from; k < to; k++) {
+                stripeIds[k - from] = ids[order[k]];
+                stripeMembers[k - from] = members[order[k]];
+            }
+            ReentrantLock lock = stripes[s].lock;
+            lock.lock();
+            try {
+                for (int k = 0; k < stripeIds.length; k++) {
+                    attach(stripeMembers[k]);
+                    Member previous = store.get(stripeIds[k]);
+                    if (previous != null && previous != stripeMembers[k]) {
+                        detach(previous);
+                    }
+                }
+                store.putAll(stripeIds, stripeMembers);
+                for (int k = 0; k < stripeIds.length; k++) {
+                    reindex(stripeIds[k], stripeMembers[k]);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Member.setGrade, setName에서 호출. 그 회원이 회원 id로 아직 저장되어 있을 때만 다시 색인한다
+    void changed(Member member) {
+        Long memberId = member.getId();
+        if (memberId == null) {
+            return;
+        }
+        long id = memberId;
+        ReentrantLock lock = stripes[stripeOf(id)].lock;
+        lock.lock();
+        try {
+            if (store.get(id) == member) {
+                reindex(id, member);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // id 순
+    List<Member> findByGrade(Grade grade) {
+        byte ordinal = (byte) grade.ordinal();
+        long[] ids = new long[16];
+        int count = 0;
+        if (zeroIndexed && zeroGrade == ordinal) {
+            ids[count++] = 0L;
+        }
+        for (Stripe stripe : stripes) {
+            Table t = stripe.table;
+            for (int i = 0; i < t.keys.length; i++) {
+                long key = (long) KEYS.getAcquire(t.keys, i);
+                if (key != EMPTY && (byte) GRADES.getAcquire(t.grades, i) == ordinal) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = key;
+                }
+            }
+        }
+        Arrays.sort(ids, 0, count);
+
+        List<Member> found = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Member member = store.get(ids[i]);
+            if (member != null) {
+                found.add(member);
+            }
+        }
+        return found;
+    }
+
+    // 이름 순, 같은 이름은 id 순
+    List<Member> findByNamePrefix(String prefix, int limit) {
+        List<Member> found = new ArrayList<>();
+        for (NameKey key : byName.tailSet(new NameKey(prefix, Long.MIN_VALUE))) {
+            if (found.size() >= limit || !key.name.startsWith(prefix)) {
+                break;
+            }
+            Member member = store.get(key.id);
+            if (member != null && key.name.equals(indexedName(key.id))) {
+                found.add(member);
+            }
+        }
+        return found;
+    }
+
+    // id 락을 쥔 상태에서만 호출. 색인에 들어 있던 값과 같으면 건드리지 않는다
+    private void reindex(long id, Member member) {
+        byte grade = member.getGrade() == null ? NO_GRADE : (byte) member.getGrade().ordinal();
+        String name = member.getName();
+        boolean indexed;
+        String previousName;
+        if (id == EMPTY) {
+            indexed = zeroIndexed;
+            previousName = zeroName;
+            if (indexed && zeroGrade == grade && Objects.equals(previousName, name)) {
+                return;
+            }
+            zeroGrade = grade;
+            zeroName = name;
+            zeroIndexed = true;
+        } else {
+            long hash = LongMemberMap.mix(id);
+            Stripe stripe = stripes[(int) hash & (STRIPES - 1)];
+            Table t = stripe.table;
+            int slot = t.find(id, hash);
+            indexed = slot >= 0;
+            previousName = indexed ? t.names[slot] : null;
+            if (indexed && t.grades[slot] == grade && Objects.equals(previousName, name)) {
+                return;
+            }
+            stripe.set(id, hash, grade, name);
+        }
+
+        // id 표를 먼저 바꿔 둔다: 조회는 id 표의 이름으로 옛 항목을 거른다
+        if (Objects.equals(previousName, name)) {
+            return;
+        }
+        if (previousName != null) {
+            byName.remove(new NameKey(previousName, id));
+        }
+        if (name != null) {
+            byName.add(new NameKey(name, id));
+        }
+    }
+
+    private String indexedName(long id) {
+        if (id == EMPTY) {
+            return zeroIndexed ? zeroName : null;
+        }
+        long hash = LongMemberMap.mix(id);
+        Table t = stripes[(int) hash & (STRIPES - 1)].table;
+        int slot = t.find(id, hash);
+        return slot < 0 ? null : (String) NAMES.getAcquire(t.names, slot);
+    }
+
+    // 회원이 이 색인을 알도록 연결한다. 이미 연결되어 있으면 그대로
+    private void attach(Member member) {
+        while (true) {
+            Link head = member.indexes;
+            if (Link.contains(head, this)) {
+                return;
+            }
+            if (MEMBER_INDEXES.compareAndSet(member, head, new Link(this, head))) {
+                return;
+            }
+        }
+    }
+
+    // 같은 id로 다른 회원이 저장되었다: 이전 회원을 고쳐도 이 색인은 바뀌지 않는다
+    private void detach(Member member) {
+        while (true) {
+            Link head = member.indexes;
+            if (!Link.contains(head, this)) {
+                return;
+            }
+            if (MEMBER_INDEXES.compareAndSet(member, head, Link.without(head, this))) {
+                return;
+            }
+        }
+    }
+
+    private static int stripeOf(long id) {
+        return (int) LongMemberMap.mix(id) & (STRIPES - 1);
+    }
+
+    /**
+     * 회원 하나가 저장된 색인들(불변 연결 리스트). 대개 하나다
+     */
+    static final class Link {
+        final MemberIndex index;
+        final Link next;
+
+        Link(MemberIndex index, Link next) {
+            this.index = index;
+            this.next = next;
+        }
+
+        static boolean contains(Link head, MemberIndex index) {
+            for (Link link = head; link != null; link = link.next) {
+                if (link.index == index) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static Link without(Link head, MemberIndex index) {
+            if (head == null) {
+                return null;
+            }
+            if (head.index == index) {
+                return head.next;
+            }
+            return new Link(head.index, without(head.next, index));
+        }
+    }
+
+    /**
+     * 스트라이프 하나의 id 표. 쓰기는 lock 안에서만, 읽기는 락 없이 지금 table을 본다
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile Table table = new Table(MIN_CAPACITY);
+        int size;
+
+        // lock을 쥔 상태에서만 호출
+        void set(long id, long hash, byte grade, String name) {
+            Table t = table;
+            int mask = t.mask;
+            for (int i = t.start(hash); ; i = (i + 1) & mask) {
+                long key = t.keys[i];
+                if (key == id) {
+                    GRADES.setRelease(t.grades, i, grade);
+                    NAMES.setRelease(t.names, i, name);
+                    return;
+                }
+                if (key == EMPTY) {
+                    // 값을 먼저 쓰고 키를 나중에 써서, 키가 보이면 값도 보이도록 한다
+                    GRADES.setRelease(t.grades, i, grade);
+                    NAMES.setRelease(t.names, i, name);
+                    KEYS.setRelease(t.keys, i, id);
+                    if (++size * 2 > t.keys.length) {
+                        table = t.resize();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final byte[] grades;
+        final String[] names;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.grades = new byte[capacity];
+            this.names = new String[capacity];
+            this.mask = capacity - 1;
+        }
+
+        // 스트라이프를 고른 하위 비트는 빼고 나머지 비트로 시작 칸을 고른다
+        int start(long hash) {
+            return (int) (hash >>> STRIPE_BITS) & mask;
+        }
+
+        // 칸 번호, 없으면 -1
+        int find(long id, long hash) {
+            for (int i = start(hash); ; i = (i + 1) & mask) {
+                long key = (long) KEYS.getAcquire(keys, i);
+                if (key == id) {
+                    return i;
+                }
+                if (key == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        // 새 표는 다 채운 뒤에 공개한다
+        Table resize() {
+            Table grown = new Table(keys.length * 2);
+            for (int j = 0; j < keys.length; j++) {
+                long key = keys[j];
+                if (key == EMPTY) {
+                    continue;
+                }
+                int i = grown.start(LongMemberMap.mix(key));
+                while (grown.keys[i] != EMPTY) {
+                    i = (i + 1) & grown.mask;
+                }
+                grown.keys[i] = key;
+                grown.grades[i] = grades[j];
+                grown.names[i] = names[j];
+            }
+            return grown;
+        }
+    }
+
+    private static final class NameKey implements Comparable<NameKey> {
+        final String name;
+        final long id;
+
+        NameKey(String name, long id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(NameKey other) {
+            int c = name.compareTo(other.name);
+            return c != 0 ? c : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof NameKey)) {
+                return false;
+            }
+            NameKey other = (NameKey) o;
+            return id == other.id && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + Long.hashCode(id);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package hello.core.member;
 
+import java.util.List;
+
 public interface MemberRepository {
 
     // 회원 저장
@@ -8,4 +10,16 @@ public interface MemberRepository {
     // id로 회원 조회
     Member findById(Long memberId);
 
+    // 회원 일괄 저장
+    void saveAll(List<Member> members);
+
+    // id 목록으로 회원 일괄 조회: 결과는 memberIds와 같은 순서, 없는 회원은 null
+    List<Member> findAllById(List<Long> memberIds);
+
+    // 등급으로 회원 조회: id 순
+    List<Member> findByGrade(Grade grade);
+
+    // 이름이 prefix로 시작하는 회원 조회(자동 완성): 이름 순으로 최대 limit명
+    List<Member> findByNamePrefix(String prefix, int limit);
+
 }
@@ -1,5 +1,7 @@
 package hello.core.member;
 
+import java.util.List;
+
 public interface MemberService {
 
     // 회원 가입
@@ -7,4 +9,16 @@ public interface MemberService {
 
     // 조회
     Member findMember(Long memberId);
+
+    // 일괄 회원 가입
+    void joinAll(List<Member> members);
+
+    // 일괄 조회: 결과는 memberIds와 같은 순서, 없는 회원은 null
+    List<Member> findMembers(List<Long> memberIds);
+
+    // 등급별 회원 조회: id 순
+    List<Member> findMembersByGrade(Grade grade);
+
+    // 이름 자동 완성: 이름이 prefix로 시작하는 회원, 이름 순으로 최대 limit명
+    List<Member> findMembersByNamePrefix(String prefix, int limit);
 }
@@ -3,6 +3,8 @@ package hello.core.member;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class MemberServiceImpl implements MemberService {
 
@@ -32,6 +34,26 @@ public class MemberServiceImpl implements MemberService {
         return memberRepository.findById(memberId);
     }
 
+    @Override
+    public void joinAll(List<Member> members) {
+        memberRepository.saveAll(members);
+    }
+
+    @Override
+    public List<Member> findMembers(List<Long> memberIds) {
+        return memberRepository.findAllById(memberIds);
+    }
+
+    @Override
+    public List<Member> findMembersByGrade(Grade grade) {
+        return memberRepository.findByGrade(grade);
+    }
+
+    @Override
+    public List<Member> findMembersByNamePrefix(String prefix, int limit) {
+        return memberRepository.findByNamePrefix(prefix, limit);
+    }
+
     // 테스트 용도
     public MemberRepository getMemberRepository() {
         return memberRepository;
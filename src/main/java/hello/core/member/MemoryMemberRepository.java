@@ -2,23 +2,72 @@ package hello.core.member;
 
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
 
 @Component
 public class MemoryMemberRepository implements MemberRepository {
 
     // 메모리 상에서 회원 저장할 자료구조
-    private static Map<Long, Member> store = new HashMap<>();
+    // HashMap은 여러 요청 스레드가 동시에 join/findMember를 호출하면 깨질 수 있어 동시성 테이블로 교체
+    // - 읽기는 락 없이, 쓰기는 세그먼트 단위 락으로 처리하고, id를 Long으로 박싱하지 않는다
+//    private static Map<Long, Member> store = new HashMap<>();
+    private static final LongMemberMap store = new LongMemberMap();
+    // 등급, 이름 보조 색인. 저장은 색인을 거쳐 store에 들어간다
+    private static final MemberIndex index = new MemberIndex(store);
 
     @Override
     public void save(Member member) {
-        store.put(member.getId(), member);
+        index.put(idOf(member.getId()), member);
     }
 
     @Override
     public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
         return store.get(memberId);
     }
 
+    // 저장소 크기는 세그먼트마다 한 번만 늘린다
+    @Override
+    public void saveAll(List<Member> members) {
+        int n = members.size();
+        long[] ids = new long[n];
+        Member[] values = new Member[n];
+        for (int i = 0; i < n; i++) {
+            Member member = members.get(i);
+            ids[i] = idOf(member.getId());
+            values[i] = member;
+        }
+        index.putAll(ids, values);
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        Member[] found = new Member[memberIds.size()];
+        for (int i = 0; i < found.length; i++) {
+            Long memberId = memberIds.get(i);
+            found[i] = memberId == null ? null : store.get(memberId);
+        }
+        return Arrays.asList(found);
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return index.findByGrade(grade);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix, int limit) {
+        return index.findByNamePrefix(prefix, limit);
+    }
+
+    private static long idOf(Long memberId) {
+        if (memberId == null) {
+            throw new IllegalArgumentException("회원 id는 null일 수 없습니다");
+        }
+        return memberId;
+    }
+
 }
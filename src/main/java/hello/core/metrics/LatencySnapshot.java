@@ -0,0 +1,82 @@
+package hello.core.metrics;
+
+/**
+ * MethodTimer 한 번 읽은 결과. 시간 단위는 나노초, 백분위 값은 히스토그램 칸의 최댓값(약 3% 이내)
+ * 호출 수는 타이머 생성 이후 누적값이고, timestampMillis는 읽은 시각(epoch 밀리초)
+ * 호출률이 필요하면 이전에 읽은 결과와 비교한다: {@link #ratePerSecondSince(LatencySnapshot)}
+ */
+public final class LatencySnapshot {
+
+    private final String name;
+    private final long count;
+    private final long timestampMillis;
+    private final double meanNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+
+    LatencySnapshot(String name, long count, long timestampMillis, double meanNanos, long maxNanos,
+                    long p50Nanos, long p99Nanos, long p999Nanos) {
+        this.name = name;
+        this.count = count;
+        this.timestampMillis = timestampMillis;
+        this.meanNanos = meanNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    // previous 이후 초당 호출 수. 같은 타이머를 앞서 읽은 결과여야 한다
+    public double ratePerSecondSince(LatencySnapshot previous) {
+        long elapsedMillis = timestampMillis - previous.timestampMillis;
+        return elapsedMillis > 0 ? (count - previous.count) * 1000.0 / elapsedMillis : 0;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{" +
+                "name='" + name + '\'' +
+                ", count=" + count +
+                ", timestampMillis=" + timestampMillis +
+                ", meanNanos=" + meanNanos +
+                ", maxNanos=" + maxNanos +
+                ", p50Nanos=" + p50Nanos +
+                ", p99Nanos=" + p99Nanos +
+                ", p999Nanos=" + p999Nanos +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package hello.core.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 메서드 이름("빈이름.메서드") → MethodTimer 모음
+ * <p>
+ * 타이머는 데코레이터를 만들 때 한 번 찾아 두고, 호출할 때는 이 맵을 보지 않는다
+ * hello.metrics.enabled=true 일 때만 등록된다(TimedBeanPostProcessor, MetricsController와 같은 조건)
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "hello.metrics.enabled", havingValue = "true")
+public class MethodMetrics {
+
+    private final ConcurrentMap<String, MethodTimer> timers = new ConcurrentHashMap<>();
+
+    public MethodTimer timer(String name) {
+        return timers.computeIfAbsent(name, MethodTimer::new);
+    }
+
+    // 이름 순
+    public List<LatencySnapshot> snapshots() {
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        for (MethodTimer timer : timers.values()) {
+            snapshots.add(timer.snapshot());
+        }
+        snapshots.sort(Comparator.comparing(LatencySnapshot::getName));
+        return snapshots;
+    }
+}
@@ -0,0 +1,147 @@
+package hello.core.metrics;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 메서드 하나의 호출 시간 분포(HdrHistogram 방식의 로그-선형 히스토그램)
+ * <p>
+ * 구간(bucket): 2의 거듭제곱 구간 [2^k, 2^(k+1))마다 32칸으로 나눈다. 상대 오차는 1/32(약 3%) 이하
+ * 나노초 단위로 2^36ns(약 68초)까지 나누고, 그보다 긴 호출은 마지막 칸에 넣는다(최댓값은 따로 정확히 기록)
+ * </p>
+ * <p>
+ * 기록은 스레드마다 따로 가진 Recorder에 한다. 쓰는 스레드가 하나뿐이라 CAS 없이 읽고 더한 값을 lazySet으로 쓴다
+ * 호출마다 객체를 만들지 않는다(스레드별 Recorder는 처음 한 번만 만든다). 읽을 때 모든 Recorder를 합친다
+ * </p>
+ * <pre>
+ * long start = timer.start();
+ * try { ... } finally { timer.stop(start); }
+ * </pre>
+ */
+public final class MethodTimer {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MAX_MSB = 35;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_MSB - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    // Recorder 배열 뒤쪽 칸: 호출 수, 시간 합, 최댓값
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+
+    private final String name;
+    private final Queue<AtomicLongArray> recorders = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<AtomicLongArray> recorder = ThreadLocal.withInitial(this::newRecorder);
+
+    public MethodTimer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        AtomicLongArray counts = recorder.get();
+        int bucket = bucketOf(value);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        counts.lazySet(COUNT, counts.get(COUNT) + 1);
+        counts.lazySet(SUM, counts.get(SUM) + value);
+        if (value > counts.get(MAX)) {
+            counts.lazySet(MAX, value);
+        }
+    }
+
+    /**
+     * 모든 스레드의 기록을 합친 분포. 읽기만 하고 상태를 바꾸지 않으므로 여러 곳에서 동시에 읽어도 된다
+     * 호출 수는 누적값이고 읽은 시각이 함께 담긴다. 호출률은 읽는 쪽이 이전 결과와의 차이로 계산한다
+     */
+    public LatencySnapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (AtomicLongArray counts : recorders) {
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += counts.get(i);
+            }
+            count += counts.get(COUNT);
+            sum += counts.get(SUM);
+            max = Math.max(max, counts.get(MAX));
+        }
+        // 칸별 합과 호출 수는 기록 중에 따로 읽혔을 수 있으므로 백분위는 칸별 합으로 계산한다
+        long bucketTotal = 0;
+        for (long c : merged) {
+            bucketTotal += c;
+        }
+
+        return new LatencySnapshot(name, count, System.currentTimeMillis(),
+                count == 0 ? 0 : (double) sum / count, max,
+                Math.min(max, valueAtPercentile(merged, bucketTotal, 50.0)),
+                Math.min(max, valueAtPercentile(merged, bucketTotal, 99.0)),
+                Math.min(max, valueAtPercentile(merged, bucketTotal, 99.9)));
+    }
+
+    private AtomicLongArray newRecorder() {
+        AtomicLongArray counts = new AtomicLongArray(BUCKETS + 3);
+        recorders.add(counts);
+        return counts;
+    }
+
+    // 값이 percentile% 이하인 호출이 들어 있는 가장 낮은 칸의 최댓값
+    static long valueAtPercentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(counts.length - 1);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        if (msb > MAX_MSB) {
+            return BUCKETS - 1;
+        }
+        int shift = msb - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    static long lowestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << shift;
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        return lowestValueOf(bucket) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,47 @@
+package hello.core.metrics;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.member.MemberService;
+import hello.core.order.OrderService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * MemberService, OrderService, DiscountPolicy 빈을 시간 재는 데코레이터로 바꿔 등록한다
+ * <p>
+ * 초기화가 끝난 빈을 감싸므로 이 빈을 주입받는 쪽(OrderServiceImpl의 DiscountPolicy 등)도 데코레이터를 받는다.
+ * AOP 프록시 대신 인터페이스를 직접 구현한 클래스라 호출마다 리플렉션이나 MethodInvocation 객체가 없다.
+ * 빈 타입이 구현 클래스가 아니라 인터페이스(데코레이터)가 되므로, 구현 클래스로 빈을 찾는 코드는 getTarget()으로 꺼내야 한다
+ * </p>
+ * <p>
+ * hello.metrics.enabled=true 일 때만 등록된다. application.properties에서 켜 두었고, 테스트용 컨텍스트(AutoAppConfig 등)에서는 꺼져 있다
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "hello.metrics.enabled", havingValue = "true")
+public class TimedBeanPostProcessor implements BeanPostProcessor {
+
+    private final MethodMetrics metrics;
+
+    public TimedBeanPostProcessor(MethodMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof TimedMemberService || bean instanceof TimedOrderService || bean instanceof TimedDiscountPolicy) {
+            return bean;
+        }
+        if (bean instanceof MemberService) {
+            return new TimedMemberService(beanName, (MemberService) bean, metrics);
+        }
+        if (bean instanceof OrderService) {
+            return new TimedOrderService(beanName, (OrderService) bean, metrics);
+        }
+        if (bean instanceof DiscountPolicy) {
+            return TimedDiscountPolicy.of(beanName, (DiscountPolicy) bean, metrics);
+        }
+        return bean;
+    }
+}
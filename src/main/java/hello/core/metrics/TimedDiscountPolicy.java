@@ -0,0 +1,51 @@
+package hello.core.metrics;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.GradeBasedDiscountPolicy;
+import hello.core.member.Member;
+
+/**
+ * DiscountPolicy 호출 시간을 재는 데코레이터
+ * 등급 기반 정책은 TimedGradeBasedDiscountPolicy로 감싸서 CompiledDiscountPolicy.compile이 그대로 동작하게 한다(of 참고)
+ */
+public class TimedDiscountPolicy implements DiscountPolicy {
+
+    private final DiscountPolicy target;
+    private final MethodTimer discount;
+
+    TimedDiscountPolicy(String beanName, DiscountPolicy target, MethodMetrics metrics) {
+        this.target = target;
+        this.discount = metrics.timer(beanName + ".discount");
+    }
+
+    public static TimedDiscountPolicy of(String beanName, DiscountPolicy target, MethodMetrics metrics) {
+        if (target instanceof GradeBasedDiscountPolicy) {
+            return new TimedGradeBasedDiscountPolicy(beanName, (GradeBasedDiscountPolicy) target, metrics);
+        }
+        return new TimedDiscountPolicy(beanName, target, metrics);
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        long start = discount.start();
+        try {
+            return target.discount(member, price);
+        } finally {
+            discount.stop(start);
+        }
+    }
+
+    @Override
+    public int discount(Member member, String itemName, int price) {
+        long start = discount.start();
+        try {
+            return target.discount(member, itemName, price);
+        } finally {
+            discount.stop(start);
+        }
+    }
+
+    public DiscountPolicy getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,22 @@
+package hello.core.metrics;
+
+import hello.core.discount.DiscountTable;
+import hello.core.discount.GradeBasedDiscountPolicy;
+
+/**
+ * 등급 기반 정책용 TimedDiscountPolicy: discountTable()은 감싼 정책의 것을 그대로 내보낸다
+ */
+public class TimedGradeBasedDiscountPolicy extends TimedDiscountPolicy implements GradeBasedDiscountPolicy {
+
+    private final GradeBasedDiscountPolicy target;
+
+    TimedGradeBasedDiscountPolicy(String beanName, GradeBasedDiscountPolicy target, MethodMetrics metrics) {
+        super(beanName, target, metrics);
+        this.target = target;
+    }
+
+    @Override
+    public DiscountTable discountTable() {
+        return target.discountTable();
+    }
+}
@@ -0,0 +1,95 @@
+package hello.core.metrics;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+
+import java.util.List;
+
+/**
+ * MemberService 호출 시간을 재는 데코레이터. 메서드마다 타이머 하나("빈이름.메서드")
+ */
+public class TimedMemberService implements MemberService {
+
+    private final MemberService target;
+    private final MethodTimer join;
+    private final MethodTimer findMember;
+    private final MethodTimer joinAll;
+    private final MethodTimer findMembers;
+    private final MethodTimer findMembersByGrade;
+    private final MethodTimer findMembersByNamePrefix;
+
+    public TimedMemberService(String beanName, MemberService target, MethodMetrics metrics) {
+        this.target = target;
+        this.join = metrics.timer(beanName + ".join");
+        this.findMember = metrics.timer(beanName + ".findMember");
+        this.joinAll = metrics.timer(beanName + ".joinAll");
+        this.findMembers = metrics.timer(beanName + ".findMembers");
+        this.findMembersByGrade = metrics.timer(beanName + ".findMembersByGrade");
+        this.findMembersByNamePrefix = metrics.timer(beanName + ".findMembersByNamePrefix");
+    }
+
+    @Override
+    public void join(Member member) {
+        long start = join.start();
+        try {
+            target.join(member);
+        } finally {
+            join.stop(start);
+        }
+    }
+
+    @Override
+    public Member findMember(Long memberId) {
+        long start = findMember.start();
+        try {
+            return target.findMember(memberId);
+        } finally {
+            findMember.stop(start);
+        }
+    }
+
+    @Override
+    public void joinAll(List<Member> members) {
+        long start = joinAll.start();
+        try {
+            target.joinAll(members);
+        } finally {
+            joinAll.stop(start);
+        }
+    }
+
+    @Override
+    public List<Member> findMembers(List<Long> memberIds) {
+        long start = findMembers.start();
+        try {
+            return target.findMembers(memberIds);
+        } finally {
+            findMembers.stop(start);
+        }
+    }
+
+    @Override
+    public List<Member> findMembersByGrade(Grade grade) {
+        long start = findMembersByGrade.start();
+        try {
+            return target.findMembersByGrade(grade);
+        } finally {
+            findMembersByGrade.stop(start);
+        }
+    }
+
+    @Override
+    public List<Member> findMembersByNamePrefix(String prefix, int limit) {
+        long start = findMembersByNamePrefix.start();
+        try {
+            return target.findMembersByNamePrefix(prefix, limit);
+        } finally {
+            findMembersByNamePrefix.stop(start);
+        }
+    }
+
+    public MemberService getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,72 @@
+package hello.core.metrics;
+
+import hello.core.discount.DiscountCode;
+import hello.core.order.Order;
+import hello.core.order.OrderBatch;
+import hello.core.order.OrderRequest;
+import hello.core.order.OrderService;
+
+import java.util.List;
+
+/**
+ * OrderService 호출 시간을 재는 데코레이터. 메서드마다 타이머 하나("빈이름.메서드")
+ */
+public class TimedOrderService implements OrderService {
+
+    private final OrderService target;
+    private final MethodTimer createOrder;
+    private final MethodTimer createOrders;
+    private final MethodTimer createOrderWithCoupon;
+
+    public TimedOrderService(String beanName, OrderService target, MethodMetrics metrics) {
+        this.target = target;
+        this.createOrder = metrics.timer(beanName + ".createOrder");
+        this.createOrders = metrics.timer(beanName + ".createOrders");
+        this.createOrderWithCoupon = metrics.timer(beanName + ".createOrderWithCoupon");
+    }
+
+    @Override
+    public Order createOrder(Long memberId, String itemName, int itemPrice) {
+        long start = createOrder.start();
+        try {
+            return target.createOrder(memberId, itemName, itemPrice);
+        } finally {
+            createOrder.stop(start);
+        }
+    }
+
+    // 오버로드는 같은 메서드 이름이므로 같은 타이머에 기록한다
+    @Override
+    public Order createOrder(Long memberId, String itemName, int itemPrice, DiscountCode discountCode) {
+        long start = createOrder.start();
+        try {
+            return target.createOrder(memberId, itemName, itemPrice, discountCode);
+        } finally {
+            createOrder.stop(start);
+        }
+    }
+
+    @Override
+    public OrderBatch createOrders(List<OrderRequest> requests) {
+        long start = createOrders.start();
+        try {
+            return target.createOrders(requests);
+        } finally {
+            createOrders.stop(start);
+        }
+    }
+
+    @Override
+    public Order createOrderWithCoupon(Long memberId, String itemName, int itemPrice, String couponId) {
+        long start = createOrderWithCoupon.start();
+        try {
+            return target.createOrderWithCoupon(memberId, itemName, itemPrice, couponId);
+        } finally {
+            createOrderWithCoupon.stop(start);
+        }
+    }
+
+    public OrderService getTarget() {
+        return target;
+    }
+}
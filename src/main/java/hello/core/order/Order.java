@@ -7,13 +7,19 @@ public class Order {
     private String itemName;
     private int itemPrice;
     private int discountPrice;
+    private long orderedAt; // 주문 시각(epoch millis)
 
-    // 생성자
+    // 생성자: 주문 시각은 지금
     public Order(Long memberId, String itemName, int itemPrice, int discountPrice) {
+        this(memberId, itemName, itemPrice, discountPrice, System.currentTimeMillis());
+    }
+
+    public Order(Long memberId, String itemName, int itemPrice, int discountPrice, long orderedAt) {
         this.memberId = memberId;
         this.itemName = itemName;
         this.itemPrice = itemPrice;
         this.discountPrice = discountPrice;
+        this.orderedAt = orderedAt;
     }
 
     // getter, setter
@@ -49,6 +55,14 @@ public class Order {
         this.discountPrice = discountPrice;
     }
 
+    public long getOrderedAt() {
+        return orderedAt;
+    }
+
+    public void setOrderedAt(long orderedAt) {
+        this.orderedAt = orderedAt;
+    }
+
     // 할인 후 총액 계산
     public int calculatePrice() {
         return itemPrice - discountPrice;
@@ -60,6 +74,7 @@ public class Order {
                 ", itemName='" + itemName + '\'' +
                 ", itemPrice=" + itemPrice +
                 ", discountPrice=" + discountPrice +
+                ", orderedAt=" + orderedAt +
                 '}';
     }
 
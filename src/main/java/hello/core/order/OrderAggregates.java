@@ -0,0 +1,203 @@
+package hello.core.order;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 주문 집계: 회원별, 전체 주문 수 / 결제 금액(할인 후) / 할인 금액
+ * <p>
+ * OrderServiceImpl이 주문을 만들 때마다 record를 부른다. 주문 경로에 있으므로 가볍게 만든다
+ * - 회원별 집계는 회원 id로 나눈 스트라이프(stripe)마다 락 하나와 open addressing 테이블 하나. 서로 다른 스트라이프의 회원은 동시에 갱신된다
+ *   테이블 한 칸은 long 4개 [id, 주문 수, 결제 금액, 할인 금액]를 이어 붙여 둔다. 회원마다 객체나 박싱된 Long을 만들지 않는다
+ * - 전체 집계는 LongAdder 세 개. 스레드마다 다른 셀에 더하므로 경합이 없다
+ * 조회는 회원별이 스트라이프 하나의 테이블 탐색, 전체가 LongAdder 합(셀 수는 CPU 수 이하)이라 회원 수와 무관하다
+ * </p>
+ * <p>
+ * 회원 한 명의 세 값은 같은 락 안에서 바뀌므로 함께 맞다. 전체 집계의 세 값은 동시에 갱신 중이면 서로 조금 어긋날 수 있다
+ * </p>
+ */
+@Component
+public class OrderAggregates {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder orderCount = new LongAdder();
+    private final LongAdder totalSpend = new LongAdder();
+    private final LongAdder totalDiscount = new LongAdder();
+
+    public OrderAggregates() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public void record(Order order) {
+        if (order.getMemberId() != null) {
+            record(order.getMemberId(), order.getItemPrice(), order.getDiscountPrice());
+        }
+    }
+
+    // 일괄 주문: 스트라이프별로 묶지 않고 주문마다 기록한다(스트라이프 락은 대부분 경합이 없다)
+    public void record(OrderBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            record(batch.getMemberId(i), batch.getItemPrice(i), batch.getDiscountPrice(i));
+        }
+    }
+
+    public void record(long memberId, int itemPrice, int discountPrice) {
+        long spend = itemPrice - discountPrice;
+        stripeOf(memberId).add(memberId, spend, discountPrice);
+        orderCount.increment();
+        totalSpend.add(spend);
+        totalDiscount.add(discountPrice);
+    }
+
+    /**
+     * @return 회원의 집계. 주문이 없으면 모두 0
+     */
+    public Totals getMemberTotals(long memberId) {
+        return stripeOf(memberId).get(memberId);
+    }
+
+    public Totals getGlobalTotals() {
+        return new Totals(orderCount.sum(), totalSpend.sum(), totalDiscount.sum());
+    }
+
+    // 주문한 적 있는 회원 수
+    public int getMemberCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    private Stripe stripeOf(long memberId) {
+        return stripes[(int) (mix(memberId) >>> 58)]; // 상위 6비트: 테이블 안의 칸은 하위 비트로 고른다
+    }
+
+    // LongMemberMap.mix와 같은 섞기(MurmurHash3 fmix64)
+    private static long mix(long id) {
+        long h = id;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * 주문 수, 결제 금액(할인 후 합계), 할인 금액
+     */
+    public static final class Totals {
+
+        private final long orderCount;
+        private final long totalSpend;
+        private final long totalDiscount;
+
+        Totals(long orderCount, long totalSpend, long totalDiscount) {
+            this.orderCount = orderCount;
+            this.totalSpend = totalSpend;
+            this.totalDiscount = totalDiscount;
+        }
+
+        public long getOrderCount() {
+            return orderCount;
+        }
+
+        public long getTotalSpend() {
+            return totalSpend;
+        }
+
+        public long getTotalDiscount() {
+            return totalDiscount;
+        }
+
+        @Override
+        public String toString() {
+            return "Totals{" +
+                    "orderCount=" + orderCount +
+                    ", totalSpend=" + totalSpend +
+                    ", totalDiscount=" + totalDiscount +
+                    '}';
+        }
+    }
+
+    /**
+     * 회원 id → [id, 주문 수, 결제 금액, 할인 금액]. 주문 수가 0인 칸은 빈 칸
+     */
+    private static final class Stripe {
+
+        private static final int WIDTH = 4;
+        private static final int COUNT = 1;
+        private static final int SPEND = 2;
+        private static final int DISCOUNT = 3;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] table = new long[16 * WIDTH];
+        private int size;
+
+        void add(long memberId, long spend, long discount) {
+            lock.lock();
+            try {
+                int slot = find(table, memberId);
+                if (table[slot + COUNT] == 0) {
+                    if ((size + 1) * 2 > table.length / WIDTH) {
+                        resize();
+                        slot = find(table, memberId);
+                    }
+                    table[slot] = memberId;
+                    size++;
+                }
+                table[slot + COUNT]++;
+                table[slot + SPEND] += spend;
+                table[slot + DISCOUNT] += discount;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Totals get(long memberId) {
+            lock.lock();
+            try {
+                int slot = find(table, memberId);
+                return new Totals(table[slot + COUNT], table[slot + SPEND], table[slot + DISCOUNT]);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // memberId가 있는 칸, 없으면 들어갈 빈 칸의 시작 위치
+        private static int find(long[] table, long memberId) {
+            int mask = table.length / WIDTH - 1;
+            int index = (int) mix(memberId) & mask;
+            while (true) {
+                int slot = index * WIDTH;
+                if (table[slot + COUNT] == 0 || table[slot] == memberId) {
+                    return slot;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private void resize() {
+            long[] grown = new long[table.length * 2];
+            for (int slot = 0; slot < table.length; slot += WIDTH) {
+                if (table[slot + COUNT] != 0) {
+                    System.arraycopy(table, slot, grown, find(grown, table[slot]), WIDTH);
+                }
+            }
+            table = grown;
+        }
+    }
+}
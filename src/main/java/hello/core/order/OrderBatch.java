@@ -0,0 +1,55 @@
+package hello.core.order;
+
+/**
+ * 일괄 주문 생성 결과
+ * <p>
+ * 주문마다 Order 객체를 만들지 않고, 요청 순서대로 같은 인덱스에 값을 담은 병렬 배열(컬럼) 형태로 돌려준다.
+ * i번째 요청의 결과는 getMemberId(i), getItemPrice(i), getDiscountPrice(i)로 읽는다.
+ * </p>
+ */
+public class OrderBatch {
+
+    private final long[] memberIds;
+    private final int[] itemPrices;
+    private final int[] discountPrices;
+
+    OrderBatch(long[] memberIds, int[] itemPrices, int[] discountPrices) {
+        this.memberIds = memberIds;
+        this.itemPrices = itemPrices;
+        this.discountPrices = discountPrices;
+    }
+
+    public int size() {
+        return memberIds.length;
+    }
+
+    public long getMemberId(int index) {
+        return memberIds[index];
+    }
+
+    public int getItemPrice(int index) {
+        return itemPrices[index];
+    }
+
+    public int getDiscountPrice(int index) {
+        return discountPrices[index];
+    }
+
+    // 할인 후 총액 계산
+    public int calculatePrice(int index) {
+        return itemPrices[index] - discountPrices[index];
+    }
+
+    // 컬럼 배열 직접 접근: 복사하지 않으므로 읽기 전용으로만 사용
+    public long[] memberIds() {
+        return memberIds;
+    }
+
+    public int[] itemPrices() {
+        return itemPrices;
+    }
+
+    public int[] discountPrices() {
+        return discountPrices;
+    }
+}
@@ -0,0 +1,360 @@
+package hello.core.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주문 이벤트 스트림: OrderServiceImpl.createOrder가 만든 Order를 구독자에게 비동기로 넘긴다
+ * <p>
+ * java.util.concurrent.Flow(Reactive Streams와 같은 규약)의 Publisher라서 구독자가 request(n)으로 받을 양을 정한다.
+ * - 구독자마다 크기가 정해진 lock-free 링 버퍼를 둔다. publish는 CAS 한 번으로 넣고 바로 돌아온다
+ * - 전달은 실행기 스레드가 한 번에 maxBatch개씩 묶어서 한다(배치마다 실행기 작업 하나). 한 구독자의 onNext는 항상 순서대로, 한 번에 하나씩 호출된다
+ * - 버퍼가 차면 OverflowPolicy대로 처리한다. 느린 구독자 때문에 주문 생성이 멈추는 일은 없다
+ * - Order 객체를 그대로 넘긴다. 구독자마다 복사하거나 직렬화하지 않으므로 구독자는 받은 Order를 고치면 안 된다
+ * </p>
+ */
+@Component
+public class OrderEventStream implements Flow.Publisher<Order> {
+
+    /**
+     * 구독자 버퍼가 찼을 때 처리 방식
+     */
+    public enum OverflowPolicy {
+        /** 새 주문을 버린다 */
+        DROP,
+        /** 버퍼가 반 넘게 차면 sampleRate개 중 하나만 (무작위로) 넣고, 꽉 차면 버린다 */
+        SAMPLE,
+        /** 넘친 주문을 크기 제한 없는 lock-free 큐로 넘긴다. spillLimit개를 넘으면 버린다 */
+        SPILL
+    }
+
+    private final CopyOnWriteArrayList<OrderSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ForkJoinPool executor;
+    private final LongAdder dropped = new LongAdder();
+
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int spillLimit;
+    private final int maxBatch;
+    private volatile boolean closed;
+
+    public OrderEventStream(@Value("${hello.order-events.buffer-size:1024}") int bufferSize,
+                            @Value("${hello.order-events.overflow:DROP}") OverflowPolicy overflowPolicy,
+                            @Value("${hello.order-events.sample-rate:10}") int sampleRate,
+                            @Value("${hello.order-events.spill-limit:65536}") int spillLimit,
+                            @Value("${hello.order-events.max-batch:64}") int maxBatch,
+                            @Value("${hello.order-events.threads:2}") int threads) {
+        if (bufferSize < 1 || sampleRate < 1 || spillLimit < 0 || maxBatch < 1 || threads < 1) {
+            throw new IllegalArgumentException("잘못된 주문 이벤트 스트림 설정");
+        }
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+        this.spillLimit = spillLimit;
+        this.maxBatch = maxBatch;
+        // asyncMode(FIFO) ForkJoinPool: 외부에서 작업을 넣을 때 큐 락을 잡지 않는다
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("order-events-" + sequence.incrementAndGet());
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * 설정된 버퍼 크기와 넘침 정책으로 구독
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Order> subscriber) {
+        subscribe(subscriber, overflowPolicy, bufferSize);
+    }
+
+    /**
+     * 구독자별 넘침 정책과 버퍼 크기(2의 거듭제곱으로 올림)로 구독
+     */
+    public void subscribe(Flow.Subscriber<? super Order> subscriber, OverflowPolicy policy, int bufferSize) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        Objects.requireNonNull(policy, "policy");
+        OrderSubscription subscription = new OrderSubscription(subscriber, policy, bufferSize);
+        // onSubscribe가 끝나기 전에는 전달하지 않는다(wip가 1로 시작). 끝난 뒤 밀린 신호를 한 번에 처리한다
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscriber.onComplete();
+            return;
+        }
+        subscriptions.add(subscription);
+        subscription.schedule();
+    }
+
+    /**
+     * 모든 구독자 버퍼에 주문을 넣는다. 막히지 않는다
+     */
+    public void publish(Order order) {
+        if (closed) {
+            return;
+        }
+        for (OrderSubscription subscription : subscriptions) {
+            subscription.offer(order);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * 넘침 정책으로 버려진 주문 수(구독자별로 센다)
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 새 주문은 더 받지 않고, 구독자에게 남은 주문을 전달한 뒤 onComplete를 보낸다(최대 1초 대기)
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closed = true;
+        for (OrderSubscription subscription : subscriptions) {
+            subscription.done = true;
+            subscription.signal();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private final class OrderSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super Order> subscriber;
+        private final OverflowPolicy policy;
+        private final Ring ring;
+        private final ConcurrentLinkedQueue<Order> spill = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger spilled = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger(1);
+
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Throwable error;
+        private boolean terminated; // 전달 스레드에서만 읽고 쓴다
+
+        OrderSubscription(Flow.Subscriber<? super Order> subscriber, OverflowPolicy policy, int bufferSize) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.ring = new Ring(bufferSize);
+        }
+
+        void offer(Order order) {
+            if (cancelled) {
+                return;
+            }
+            boolean accepted;
+            switch (policy) {
+                case SAMPLE:
+                    accepted = (ring.size() < ring.capacity() / 2 || ThreadLocalRandom.current().nextInt(sampleRate) == 0)
+                            && ring.offer(order);
+                    break;
+                case SPILL:
+                    // 넘친 주문이 남아 있으면 뒤의 주문도 넘긴다. 같은 생산자 스레드의 순서를 지키기 위해
+                    accepted = (spilled.get() == 0 && ring.offer(order)) || spillOver(order);
+                    break;
+                default:
+                    accepted = ring.offer(order);
+            }
+            if (!accepted) {
+                dropped.increment();
+                return;
+            }
+            signal();
+        }
+
+        private boolean spillOver(Order order) {
+            if (spilled.incrementAndGet() > spillLimit) {
+                spilled.decrementAndGet();
+                return false;
+            }
+            spill.offer(order);
+            return true;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("request는 양수여야 합니다: " + n);
+                signal();
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!requested.compareAndSet(current, next));
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            signal();
+        }
+
+        // 전달 작업은 한 번에 하나만 돈다. 도는 중에 온 신호는 wip에 쌓였다가 그 작업이 이어서 처리한다
+        void signal() {
+            if (wip.getAndIncrement() == 0) {
+                schedule();
+            }
+        }
+
+        void schedule() {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 종료된 뒤의 신호: 더 전달하지 않는다
+                wip.set(0);
+            }
+        }
+
+        private void drain() {
+            int missed = wip.get();
+            while (true) {
+                if (terminated) {
+                    return;
+                }
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                if (error != null) {
+                    terminate();
+                    subscriber.onError(error);
+                    return;
+                }
+
+                long demand = requested.get();
+                int emitted = 0;
+                Order order = null;
+                while (emitted < demand && emitted < maxBatch && !cancelled && (order = poll()) != null) {
+                    try {
+                        subscriber.onNext(order);
+                    } catch (Throwable e) {
+                        // 규약상 onNext는 던지면 안 된다. 던진 구독자는 구독 취소로 본다
+                        cancel();
+                    }
+                    emitted++;
+                }
+                if (emitted > 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                if (done && ring.size() == 0 && spill.isEmpty()) {
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                }
+                if (emitted == maxBatch && order != null) {
+                    // 한 배치를 다 보냈다: 다른 구독자에게도 실행기를 양보하고 이어서 보낸다
+                    schedule();
+                    return;
+                }
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        // 링 버퍼의 주문이 먼저, 넘친 주문이 나중이다. 링에 자리만 잡히고 아직 쓰이지 않은 칸이 있으면 기다린다(쓴 생산자가 다시 신호한다)
+        private Order poll() {
+            Order order = ring.poll();
+            if (order == null && ring.size() == 0) {
+                order = spill.poll();
+                if (order != null) {
+                    spilled.decrementAndGet();
+                }
+            }
+            return order;
+        }
+
+        private void terminate() {
+            terminated = true;
+            cancelled = true;
+            subscriptions.remove(this);
+            clear();
+        }
+
+        private void clear() {
+            while (poll() != null) {
+                // 버린다
+            }
+        }
+    }
+
+    /**
+     * 여러 생산자, 소비자 하나인 크기 고정 링 버퍼
+     * 생산자는 tail을 CAS로 한 칸 잡고 값을 쓴다. 잡았지만 아직 쓰지 않은 칸을 만나면 소비자는 다음 신호 때 다시 읽는다
+     */
+    private static final class Ring {
+
+        private final AtomicReferenceArray<Order> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head; // 소비자만 쓴다
+
+        Ring(int bufferSize) {
+            int capacity = bufferSize <= 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        boolean offer(Order order) {
+            while (true) {
+                long t = tail.get();
+                if (t - head >= slots.length()) {
+                    return false;
+                }
+                if (tail.compareAndSet(t, t + 1)) {
+                    slots.lazySet((int) t & mask, order);
+                    return true;
+                }
+            }
+        }
+
+        Order poll() {
+            long h = head;
+            int index = (int) h & mask;
+            Order order = slots.get(index);
+            if (order == null) {
+                return null;
+            }
+            slots.lazySet(index, null);
+            head = h + 1;
+            return order;
+        }
+
+        int size() {
+            return (int) (tail.get() - head);
+        }
+
+        int capacity() {
+            return slots.length();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package hello.core.order;
+
+import java.util.List;
+
+public interface OrderRepository {
+
+    // 주문 저장
+    void save(Order order);
+
+    // 주문 일괄 저장
+    void saveAll(List<Order> orders);
+
+    // 회원의 주문 중 주문 시각이 fromMillis 이상, toMillis 미만인 주문: 주문 시각 순
+    List<Order> findByMemberId(Long memberId, long fromMillis, long toMillis);
+
+}
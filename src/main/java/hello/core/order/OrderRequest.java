@@ -0,0 +1,29 @@
+package hello.core.order;
+
+/**
+ * 일괄 주문 생성(OrderService.createOrders) 입력 한 건
+ */
+public class OrderRequest {
+
+    private final Long memberId;
+    private final String itemName;
+    private final int itemPrice;
+
+    public OrderRequest(Long memberId, String itemName, int itemPrice) {
+        this.memberId = memberId;
+        this.itemName = itemName;
+        this.itemPrice = itemPrice;
+    }
+
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public int getItemPrice() {
+        return itemPrice;
+    }
+}
@@ -1,5 +1,9 @@
 package hello.core.order;
 
+import hello.core.discount.DiscountCode;
+
+import java.util.List;
+
 public interface OrderService {
 
     /**
@@ -7,4 +11,23 @@ public interface OrderService {
      */
     Order createOrder(Long memberId, String itemName, int itemPrice);
 
+    /**
+     * 할인 코드로 정책을 골라 주문 생성. 코드는 DiscountPolicyRouter.resolve로 미리 풀어 둔다
+     * @return 주문 결과
+     */
+    Order createOrder(Long memberId, String itemName, int itemPrice, DiscountCode discountCode);
+
+    /**
+     * 쿠폰을 사용해 주문 생성: 할인 정책으로 할인한 뒤 남은 금액에서 쿠폰 금액을 더 뺀다
+     * @return 주문 결과
+     * @throws hello.core.coupon.CouponRedemptionException 쿠폰을 사용할 수 없는 경우(이때 쿠폰은 차감되지 않는다)
+     */
+    Order createOrderWithCoupon(Long memberId, String itemName, int itemPrice, String couponId);
+
+    /**
+     * 일괄 주문 생성: 같은 회원은 한 번만 조회한다
+     * @return 요청 순서대로 담긴 주문 결과(컬럼 형태)
+     */
+    OrderBatch createOrders(List<OrderRequest> requests);
+
 }
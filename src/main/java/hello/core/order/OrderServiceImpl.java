@@ -1,7 +1,12 @@
 package hello.core.order;
 
 import hello.core.annotation.MainDiscountPolicy;
+import hello.core.coupon.Coupon;
+import hello.core.coupon.CouponRedemptionException;
+import hello.core.coupon.CouponStore;
+import hello.core.discount.DiscountCode;
 import hello.core.discount.DiscountPolicy;
+import hello.core.discount.DiscountPolicyRouter;
 import hello.core.discount.FixDiscountPolicy;
 import hello.core.discount.RateDiscountPolicy;
 import hello.core.member.Member;
@@ -12,6 +17,10 @@ import org.springframework.stereotype.Component;
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 @Component
 //@RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
@@ -60,12 +69,154 @@ public class OrderServiceImpl implements OrderService {
 //    private DiscountPolicy discountPolicy; // 인터페이스에만 의존
 
 
+    // 주문 이벤트 스트림: 없어도 주문은 동작하므로 선택적 수정자 주입 (생성자는 그대로 둔다)
+    private OrderEventStream orderEventStream;
+
+    @Autowired(required = false)
+    public void setOrderEventStream(OrderEventStream orderEventStream) {
+        this.orderEventStream = orderEventStream;
+    }
+
+    // 주문 집계: 이벤트 스트림과 같이 선택적 수정자 주입
+    private OrderAggregates orderAggregates;
+
+    @Autowired(required = false)
+    public void setOrderAggregates(OrderAggregates orderAggregates) {
+        this.orderAggregates = orderAggregates;
+    }
+
+    // 할인 코드 라우터: 코드를 받는 createOrder에서만 쓴다. 없으면 그 메서드만 실패한다
+    private DiscountPolicyRouter discountPolicyRouter;
+
+    @Autowired(required = false)
+    public void setDiscountPolicyRouter(DiscountPolicyRouter discountPolicyRouter) {
+        this.discountPolicyRouter = discountPolicyRouter;
+    }
+
+    // 쿠폰 저장소: 쿠폰을 받는 createOrderWithCoupon에서만 쓴다
+    private CouponStore couponStore;
+
+    @Autowired(required = false)
+    public void setCouponStore(CouponStore couponStore) {
+        this.couponStore = couponStore;
+    }
+
+    // 주문 저장소: 있으면 만든 주문을 모두 저장한다(주문 이력)
+    private OrderRepository orderRepository;
+
+    @Autowired(required = false)
+    public void setOrderRepository(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+
     @Override
     public Order createOrder(Long memberId, String itemName, int itemPrice) {
         Member member = memberRepository.findById(memberId);
-        int discountPrice = discountPolicy.discount(member, itemPrice);
+        int discountPrice = discountPolicy.discount(member, itemName, itemPrice);
+
+        return complete(new Order(memberId, itemName, itemPrice, discountPrice));
+    }
+
+    @Override
+    public Order createOrder(Long memberId, String itemName, int itemPrice, DiscountCode discountCode) {
+        if (discountPolicyRouter == null) {
+            throw new IllegalStateException("할인 코드 라우터(DiscountPolicyRouter)가 등록되지 않았습니다");
+        }
+        Member member = memberRepository.findById(memberId);
+        int discountPrice = discountPolicyRouter.discount(discountCode, member, itemName, itemPrice); // 배열 인덱스로 정책 선택
+
+        return complete(new Order(memberId, itemName, itemPrice, discountPrice));
+    }
+
+    @Override
+    public Order createOrderWithCoupon(Long memberId, String itemName, int itemPrice, String couponId) {
+        if (couponStore == null) {
+            throw new IllegalStateException("쿠폰 저장소(CouponStore)가 등록되지 않았습니다");
+        }
+        Coupon coupon = couponStore.findById(couponId);
+        if (coupon == null) {
+            throw new CouponRedemptionException(couponId, memberId, CouponStore.Result.UNKNOWN_COUPON);
+        }
+        Member member = memberRepository.findById(memberId);
+        int discountPrice = discountPolicy.discount(member, itemName, itemPrice);
+        discountPrice += coupon.discount(itemPrice - discountPrice); // 할인하고 남은 금액까지만
+
+        // 할인 계산이 끝난 뒤 차감: 계산 중 실패하면 쿠폰이 쓰이지 않는다
+        CouponStore.Result result = couponStore.redeem(couponId, memberId);
+        if (result != CouponStore.Result.REDEEMED) {
+            throw new CouponRedemptionException(couponId, memberId, result);
+        }
+        try {
+            return complete(new Order(memberId, itemName, itemPrice, discountPrice));
+        } catch (RuntimeException e) {
+            couponStore.cancel(couponId, memberId);
+            throw e;
+        }
+    }
+
+    // 주문 하나가 만들어진 뒤 공통 처리: 저장, 집계, 이벤트 발행
+    private Order complete(Order order) {
+        if (orderRepository != null) {
+            orderRepository.save(order);
+        }
+        if (orderAggregates != null) {
+            orderAggregates.record(order);
+        }
+        if (orderEventStream != null) {
+            orderEventStream.publish(order); // 구독자 버퍼에 넣기만 하고 바로 돌아온다
+        }
+        return order;
+    }
+
+    @Override
+    public OrderBatch createOrders(List<OrderRequest> requests) {
+        int n = requests.size();
+        long[] memberIds = new long[n];
+        int[] itemPrices = new int[n];
+        int[] discountPrices = new int[n];
+        for (int i = 0; i < n; i++) {
+            OrderRequest request = requests.get(i);
+            memberIds[i] = request.getMemberId();
+            itemPrices[i] = request.getItemPrice();
+        }
+
+        // 회원별로 묶기: 중복을 뺀 회원 id를 정렬해 두고, 저장소에는 한 번만 일괄 조회
+        long[] distinctIds = Arrays.stream(memberIds).sorted().distinct().toArray();
+        List<Long> ids = new ArrayList<>(distinctIds.length);
+        for (long id : distinctIds) {
+            ids.add(id);
+        }
+        Member[] members = memberRepository.findAllById(ids).toArray(new Member[0]);
+
+        // 할인 계산: 요청마다 회원은 이미 조회한 배열에서 찾는다
+        for (int i = 0; i < n; i++) {
+            Member member = members[Arrays.binarySearch(distinctIds, memberIds[i])];
+            discountPrices[i] = discountPolicy.discount(member, requests.get(i).getItemName(), itemPrices[i]);
+        }
+        OrderBatch batch = new OrderBatch(memberIds, itemPrices, discountPrices);
 
-        return new Order(memberId, itemName, itemPrice, discountPrice);
+        // complete()와 같은 순서로 저장, 집계, 이벤트 발행. Order 객체는 저장소나 이벤트 스트림이 있을 때만 만든다
+        List<Order> orders = null;
+        if (orderRepository != null || orderEventStream != null) {
+            long orderedAt = System.currentTimeMillis();
+            orders = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                orders.add(new Order(memberIds[i], requests.get(i).getItemName(), itemPrices[i], discountPrices[i], orderedAt));
+            }
+        }
+        if (orderRepository != null) {
+            orderRepository.saveAll(orders); // 저장소에는 Order 단위로
+        }
+        if (orderAggregates != null) {
+            orderAggregates.record(batch);
+        }
+        if (orderEventStream != null) {
+            for (Order order : orders) {
+                orderEventStream.publish(order);
+            }
+        }
+        return batch;
     }
 
     // 테스트 용도
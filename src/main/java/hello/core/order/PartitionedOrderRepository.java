@@ -0,0 +1,378 @@
+package hello.core.order;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 주문을 시간 구간(partition)별로 덧붙이기만 하는 저장소
+ * <p>
+ * 주문 시각(orderedAt)을 partitionMillis(기본 1시간) 단위로 잘라 구간마다 따로 담는다. 구간은 시작 시각 순 ConcurrentSkipListMap
+ * - 저장: 구간의 다음 자리 번호를 CAS로 하나 잡고, 그 자리에 주문을 쓴다. 락이 없어 여러 스레드가 같은 구간에 동시에 저장한다
+ *   자리는 청크(1024, 2048, 4096, ... 크기의 배열)에 나눠 담는다. 청크는 처음 쓰일 때 CAS로 만들고, 기존 청크를 옮기지 않는다
+ * - 회원별 색인: 구간마다 회원 id → 자리 번호 연결 리스트. 저장할 때 리스트 머리에 CAS로 붙인다
+ * - 조회: 기간에 걸친 구간만 골라 각 구간의 회원 색인을 따라간다. 다른 회원의 주문은 보지 않는다
+ * </p>
+ * <p>
+ * 봉인(sealBefore): 끝난 구간을 읽기 전용 압축 형태로 바꾼다
+ * - 회원 id, 주문 시각 순으로 정렬한 열(column) 배열. 상품 이름은 구간 안에서 같은 String 하나를 쓴다
+ * - 회원은 id 배열에서 이진 탐색, 기간은 그 회원 행 안에서 주문 시각으로 이진 탐색한다
+ * 봉인된 구간에는 더 저장할 수 없다(IllegalStateException). 늦게 들어올 주문이 없는 구간만 봉인한다
+ * 자리만 잡고 아직 쓰지 않은 저장은 잠깐만 기다린다. 그래도 비어 있으면 그 자리를 버린 자리로 막고,
+ * 늦게 도착한 저장은 자리에 쓰지 못했으므로 봉인된 구간에 저장한 것과 같이 실패한다(주문이 조용히 사라지지 않는다)
+ * </p>
+ * <p>
+ * 봉인 전 구간은 저장한 Order 객체를 그대로 돌려주고, 봉인된 구간은 열에서 새 Order를 만들어 돌려준다.
+ * 저장한 뒤 주문 시각을 바꾸면 안 된다(구간과 정렬이 어긋난다). 삭제는 없다
+ * </p>
+ * <p>
+ * 주문을 모두 메모리에 들고 있으므로 hello.order-repository.enabled=true 일 때만 등록된다(없으면 주문을 저장하지 않는다)
+ * 봉인 시점(sealBefore)은 저장소를 쓰는 쪽이 정한다
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "hello.order-repository.enabled", havingValue = "true")
+public class PartitionedOrderRepository implements OrderRepository {
+
+    public static final long DEFAULT_PARTITION_MILLIS = 60 * 60 * 1000L; // 1시간
+
+    private final long partitionMillis;
+    private final ConcurrentSkipListMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+
+    public PartitionedOrderRepository() {
+        this(DEFAULT_PARTITION_MILLIS);
+    }
+
+    /**
+     * @param partitionMillis 구간 하나의 길이(밀리초)
+     */
+    @Autowired
+    public PartitionedOrderRepository(@Value("${hello.order-repository.partition-millis:3600000}") long partitionMillis) {
+        if (partitionMillis < 1) {
+            throw new IllegalArgumentException("구간 길이는 1 이상이어야 합니다: " + partitionMillis);
+        }
+        this.partitionMillis = partitionMillis;
+    }
+
+    /**
+     * @throws IllegalArgumentException 회원 id가 null인 경우
+     * @throws IllegalStateException 주문 시각의 구간이 이미 봉인된 경우
+     */
+    @Override
+    public void save(Order order) {
+        if (order.getMemberId() == null) {
+            throw new IllegalArgumentException("주문의 회원 id는 null일 수 없습니다");
+        }
+        long start = partitionStart(order.getOrderedAt());
+        Partition partition = partitions.get(start);
+        if (partition == null) {
+            Partition created = new ActivePartition();
+            partition = partitions.putIfAbsent(start, created);
+            if (partition == null) {
+                partition = created;
+            }
+        }
+        if (!partition.append(order)) {
+            throw new IllegalStateException("봉인된 구간에는 저장할 수 없습니다: orderedAt=" + order.getOrderedAt());
+        }
+    }
+
+    @Override
+    public void saveAll(List<Order> orders) {
+        for (Order order : orders) {
+            save(order);
+        }
+    }
+
+    // 기간에 걸친 구간만 시작 시각 순으로 본다. 구간끼리 시간이 겹치지 않으므로 이어 붙이면 주문 시각 순이다
+    @Override
+    public List<Order> findByMemberId(Long memberId, long fromMillis, long toMillis) {
+        List<Order> found = new ArrayList<>();
+        if (memberId == null || fromMillis >= toMillis) {
+            return found;
+        }
+        for (Partition partition : partitions.subMap(partitionStart(fromMillis), true, toMillis, false).values()) {
+            partition.collect(memberId, fromMillis, toMillis, found);
+        }
+        return found;
+    }
+
+    /**
+     * 끝 시각이 timeMillis 이하인 구간을 모두 봉인한다. 봉인하는 동안에도 다른 구간의 저장, 조회는 막지 않는다
+     * @return 새로 봉인한 구간 수
+     */
+    public synchronized int sealBefore(long timeMillis) {
+        int sealed = 0;
+        for (Map.Entry<Long, Partition> entry : partitions.headMap(timeMillis - partitionMillis, true).entrySet()) {
+            if (entry.getValue() instanceof ActivePartition) {
+                ActivePartition active = (ActivePartition) entry.getValue();
+                partitions.replace(entry.getKey(), active, active.seal());
+                sealed++;
+            }
+        }
+        return sealed;
+    }
+
+    // 저장된 주문 수: 동시에 저장 중이면 그 순간의 근삿값
+    public long size() {
+        long size = 0;
+        for (Partition partition : partitions.values()) {
+            size += partition.size();
+        }
+        return size;
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    private long partitionStart(long timeMillis) {
+        return Math.floorDiv(timeMillis, partitionMillis) * partitionMillis;
+    }
+
+    private abstract static class Partition {
+
+        // 봉인된 구간이면 false
+        abstract boolean append(Order order);
+
+        // memberId 회원의 기간 안 주문을 주문 시각 순으로 out에 붙인다
+        abstract void collect(long memberId, long fromMillis, long toMillis, List<Order> out);
+
+        abstract int size();
+    }
+
+    private static final class ActivePartition extends Partition {
+
+        private static final int FIRST_CHUNK_BITS = 10;
+        private static final int FIRST_CHUNK = 1 << FIRST_CHUNK_BITS;
+        private static final int CHUNKS = 31 - FIRST_CHUNK_BITS; // 청크 k의 크기는 FIRST_CHUNK << k
+        private static final int MAX_SLOTS = Integer.MAX_VALUE - FIRST_CHUNK + 1;
+        private static final int SEALED = -1;
+        private static final int SEAL_SPINS = 1 << 12; // 봉인할 때 비어 있는 자리 하나를 기다리는 최대 횟수
+        private static final Order ABANDONED = new Order(0L, null, 0, 0, 0); // 봉인할 때 버린 자리
+
+        private final AtomicInteger next = new AtomicInteger(); // 다음 자리 번호. 봉인되면 SEALED
+        private final AtomicReferenceArray<AtomicReferenceArray<Order>> chunks = new AtomicReferenceArray<>(CHUNKS);
+        private final ConcurrentMap<Long, AtomicReference<IndexNode>> memberIndex = new ConcurrentHashMap<>();
+
+        @Override
+        boolean append(Order order) {
+            int slot = reserve();
+            if (slot == SEALED) {
+                return false;
+            }
+            if (!chunk(slot, true).compareAndSet(offset(slot), null, order)) {
+                return false; // 자리를 잡은 뒤 쓰기 전에 봉인되어 버린 자리가 되었다
+            }
+
+            // 자리에 쓴 뒤에 색인에 붙인다: 색인으로 찾은 자리는 항상 채워져 있다
+            AtomicReference<IndexNode> head = memberIndex.computeIfAbsent(order.getMemberId(), id -> new AtomicReference<>());
+            while (true) {
+                IndexNode current = head.get();
+                if (head.compareAndSet(current, new IndexNode(slot, current))) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        void collect(long memberId, long fromMillis, long toMillis, List<Order> out) {
+            AtomicReference<IndexNode> head = memberIndex.get(memberId);
+            if (head == null) {
+                return;
+            }
+            int count = 0;
+            int[] slots = new int[8];
+            for (IndexNode node = head.get(); node != null; node = node.next) {
+                if (count == slots.length) {
+                    slots = Arrays.copyOf(slots, count * 2);
+                }
+                slots[count++] = node.slot;
+            }
+            Arrays.sort(slots, 0, count); // 저장 순
+
+            List<Order> matched = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Order order = orderAt(slots[i]);
+                if (order.getOrderedAt() >= fromMillis && order.getOrderedAt() < toMillis) {
+                    matched.add(order);
+                }
+            }
+            matched.sort(Comparator.comparingLong(Order::getOrderedAt)); // 같은 시각은 저장 순 유지
+            out.addAll(matched);
+        }
+
+        // 자리를 잡았지만 아직 쓰지 않은 저장도 센다
+        @Override
+        int size() {
+            int size = next.get();
+            return size == SEALED ? 0 : size;
+        }
+
+        /**
+         * 더 저장하지 못하게 막고, 이미 자리를 잡은 저장을 잠깐 기다려 압축한다. sealBefore에서 한 번만 부른다
+         * SEAL_SPINS 안에 쓰이지 않은 자리는 ABANDONED로 막는다. 그 저장은 자리에 쓰지 못하고 실패한다
+         */
+        SealedPartition seal() {
+            int size = next.getAndSet(SEALED);
+            Order[] orders = new Order[size];
+            int count = 0;
+            for (int slot = 0; slot < size; slot++) {
+                Order order = orderAt(slot);
+                for (int spin = 0; order == null && spin < SEAL_SPINS; spin++) {
+                    Thread.onSpinWait(); // 자리만 잡고 아직 쓰지 않은 저장
+                    order = orderAt(slot);
+                }
+                if (order == null) {
+                    AtomicReferenceArray<Order> chunk = chunk(slot, true);
+                    order = chunk.compareAndSet(offset(slot), null, ABANDONED) ? ABANDONED : chunk.get(offset(slot));
+                }
+                if (order != ABANDONED) {
+                    orders[count++] = order;
+                }
+            }
+            return new SealedPartition(count == size ? orders : Arrays.copyOf(orders, count));
+        }
+
+        private int reserve() {
+            while (true) {
+                int slot = next.get();
+                if (slot == SEALED) {
+                    return SEALED;
+                }
+                if (slot == MAX_SLOTS) {
+                    throw new IllegalStateException("구간 하나에 저장할 수 있는 주문 수를 넘었습니다: " + MAX_SLOTS);
+                }
+                if (next.compareAndSet(slot, slot + 1)) {
+                    return slot;
+                }
+            }
+        }
+
+        private Order orderAt(int slot) {
+            AtomicReferenceArray<Order> chunk = chunk(slot, false);
+            return chunk == null ? null : chunk.get(offset(slot));
+        }
+
+        // 자리 번호 + FIRST_CHUNK의 최상위 비트가 청크 번호를 정한다
+        private AtomicReferenceArray<Order> chunk(int slot, boolean create) {
+            int index = 31 - Integer.numberOfLeadingZeros(slot + FIRST_CHUNK) - FIRST_CHUNK_BITS;
+            AtomicReferenceArray<Order> chunk = chunks.get(index);
+            if (chunk == null && create) {
+                AtomicReferenceArray<Order> created = new AtomicReferenceArray<>(FIRST_CHUNK << index);
+                chunk = chunks.compareAndSet(index, null, created) ? created : chunks.get(index);
+            }
+            return chunk;
+        }
+
+        private static int offset(int slot) {
+            int position = slot + FIRST_CHUNK;
+            return position - Integer.highestOneBit(position);
+        }
+    }
+
+    private static final class IndexNode {
+
+        final int slot;
+        final IndexNode next;
+
+        IndexNode(int slot, IndexNode next) {
+            this.slot = slot;
+            this.next = next;
+        }
+    }
+
+    /**
+     * 봉인된 구간(불변): 회원 id, 주문 시각 순으로 정렬한 열 배열
+     */
+    private static final class SealedPartition extends Partition {
+
+        private final long[] memberIds; // 중복 없이 오름차순
+        private final int[] memberStarts; // memberIds[i] 회원의 행은 memberStarts[i] 이상 memberStarts[i + 1] 미만
+        private final long[] orderedAts;
+        private final int[] itemPrices;
+        private final int[] discountPrices;
+        private final String[] itemNames;
+
+        SealedPartition(Order[] orders) {
+            Arrays.sort(orders, Comparator.comparingLong(Order::getMemberId)
+                    .thenComparingLong(Order::getOrderedAt)); // 안정 정렬: 같은 시각은 저장 순
+            int rows = orders.length;
+            long[] members = new long[rows];
+            int[] starts = new int[rows + 1];
+            int memberCount = 0;
+            this.orderedAts = new long[rows];
+            this.itemPrices = new int[rows];
+            this.discountPrices = new int[rows];
+            this.itemNames = new String[rows];
+            Map<String, String> names = new HashMap<>();
+            for (int row = 0; row < rows; row++) {
+                Order order = orders[row];
+                long memberId = order.getMemberId();
+                if (memberCount == 0 || members[memberCount - 1] != memberId) {
+                    members[memberCount] = memberId;
+                    starts[memberCount++] = row;
+                }
+                orderedAts[row] = order.getOrderedAt();
+                itemPrices[row] = order.getItemPrice();
+                discountPrices[row] = order.getDiscountPrice();
+                String name = order.getItemName();
+                itemNames[row] = name == null ? null : names.computeIfAbsent(name, n -> n);
+            }
+            starts[memberCount] = rows;
+            this.memberIds = Arrays.copyOf(members, memberCount);
+            this.memberStarts = Arrays.copyOf(starts, memberCount + 1);
+        }
+
+        @Override
+        boolean append(Order order) {
+            return false;
+        }
+
+        @Override
+        void collect(long memberId, long fromMillis, long toMillis, List<Order> out) {
+            int member = Arrays.binarySearch(memberIds, memberId);
+            if (member < 0) {
+                return;
+            }
+            int end = memberStarts[member + 1];
+            for (int row = lowerBound(memberStarts[member], end, fromMillis); row < end && orderedAts[row] < toMillis; row++) {
+                out.add(new Order(memberId, itemNames[row], itemPrices[row], discountPrices[row], orderedAts[row]));
+            }
+        }
+
+        @Override
+        int size() {
+            return orderedAts.length;
+        }
+
+        // [from, to) 행 중 주문 시각이 timeMillis 이상인 첫 행
+        private int lowerBound(int from, int to, long timeMillis) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (orderedAts[mid] < timeMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package hello.core.scope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 빈 이름 하나에 대한 쉬고 있는 인스턴스 모음(크기 제한, 락 없음)
+ * <p>
+ * 슬롯 배열을 스레드마다 다른 위치부터 훑으면서 CAS로 꺼내고 넣는다
+ * 같은 스레드가 빌리고 돌려주면 대개 같은 슬롯을 쓰므로, 스레드끼리 같은 슬롯을 두고 경합하는 일이 드물다
+ * </p>
+ */
+final class BeanPool {
+
+    private final AtomicReferenceArray<Object> slots;
+    private final int capacity;
+
+    final LongAdder created = new LongAdder();
+    final LongAdder reused = new LongAdder();
+    final LongAdder discarded = new LongAdder();
+
+    BeanPool(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.capacity = capacity;
+    }
+
+    Object poll() {
+        int index = probe();
+        for (int i = 0; i < capacity; i++, index = index + 1 == capacity ? 0 : index + 1) {
+            Object bean = slots.get(index);
+            if (bean != null && slots.compareAndSet(index, bean, null)) {
+                reused.increment();
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    // 빈 슬롯이 없으면 false: 호출한 쪽이 인스턴스를 소멸시킨다
+    boolean offer(Object bean) {
+        int index = probe();
+        for (int i = 0; i < capacity; i++, index = index + 1 == capacity ? 0 : index + 1) {
+            if (slots.get(index) == null && slots.compareAndSet(index, null, bean)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int idleCount() {
+        int count = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 쉬고 있는 인스턴스를 모두 꺼낸다(소멸용)
+    List<Object> drain() {
+        List<Object> beans = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            Object bean = slots.getAndSet(i, null);
+            if (bean != null) {
+                beans.add(bean);
+            }
+        }
+        return beans;
+    }
+
+    private int probe() {
+        long id = Thread.currentThread().getId();
+        return (int) (((id * 0x9E3779B97F4A7C15L) >>> 33) % capacity);
+    }
+}
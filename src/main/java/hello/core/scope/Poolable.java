@@ -0,0 +1,14 @@
+package hello.core.scope;
+
+/**
+ * pooled 스코프 빈이 풀로 돌아갈 때 호출되는 초기화 훅
+ * <p>
+ * 다음에 빌려 가는 쪽이 새로 만든 빈과 같은 상태를 보도록, 빌려 간 동안 바뀐 상태를 되돌린다
+ * @PostConstruct는 빈을 처음 만들 때 한 번만 실행되므로, 매번 필요한 준비는 여기서 한다
+ * 예외를 던지면 그 인스턴스는 풀에 넣지 않고 소멸시킨다
+ * </p>
+ */
+public interface Poolable {
+
+    void reset();
+}
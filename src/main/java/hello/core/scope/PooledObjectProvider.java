@@ -0,0 +1,89 @@
+package hello.core.scope;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * pooled 스코프 빈 하나를 빌리고 돌려주는 ObjectProvider
+ * <p>
+ * - borrow(): 풀에서 빌린 인스턴스를 Lease에 담아 준다. 돌려주는 길은 Lease.close() 하나뿐이다
+ *   인스턴스를 직접 돌려받지 않으므로, 같은 인스턴스를 두 번 돌려줘서 두 곳에 빌려주는 일이 없다
+ * - getObject(): 풀에서 꺼내 주지만 돌려줄 수 없다. 프로토타입처럼 쓰고 버린다
+ * 돌려주지 않은 인스턴스는 프로토타입처럼 GC가 가져간다. 풀은 다시 채워질 때까지 새로 만든다
+ * </p>
+ */
+public final class PooledObjectProvider<T> implements ObjectProvider<T> {
+
+    private final PooledScope scope;
+    private final BeanFactory beanFactory;
+    private final String beanName;
+    private final Class<T> type;
+
+    PooledObjectProvider(PooledScope scope, BeanFactory beanFactory, String beanName, Class<T> type) {
+        this.scope = scope;
+        this.beanFactory = beanFactory;
+        this.beanName = beanName;
+        this.type = type;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    @Override
+    public T getObject() throws BeansException {
+        return beanFactory.getBean(beanName, type);
+    }
+
+    // 풀에서 꺼낸 인스턴스에는 args가 반영되지 않는다: 새로 만들 때만 쓰인다
+    @Override
+    public T getObject(Object... args) throws BeansException {
+        return type.cast(beanFactory.getBean(beanName, args));
+    }
+
+    @Override
+    public T getIfAvailable() throws BeansException {
+        return getObject();
+    }
+
+    @Override
+    public T getIfUnique() throws BeansException {
+        return getObject();
+    }
+
+    public Lease<T> borrow() {
+        return new Lease<>(this, getObject());
+    }
+
+    /**
+     * 빌린 인스턴스 하나. close()하면 풀로 돌아간다(여러 번 불러도 한 번만 돌려준다)
+     * 빌린 스레드 하나가 쓰고 닫는다. 닫은 뒤 get()은 예외
+     */
+    public static final class Lease<T> implements AutoCloseable {
+
+        private final PooledObjectProvider<T> provider;
+        private T bean;
+
+        private Lease(PooledObjectProvider<T> provider, T bean) {
+            this.provider = provider;
+            this.bean = bean;
+        }
+
+        public T get() {
+            if (bean == null) {
+                throw new IllegalStateException("이미 돌려준 빈입니다: " + provider.beanName);
+            }
+            return bean;
+        }
+
+        @Override
+        public void close() {
+            T released = bean;
+            if (released != null) {
+                bean = null;
+                provider.scope.release(provider.beanName, released);
+            }
+        }
+    }
+}
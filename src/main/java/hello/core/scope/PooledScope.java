@@ -0,0 +1,213 @@
+package hello.core.scope;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.Scope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * "pooled" 스코프: 프로토타입처럼 요청마다 인스턴스를 주지만, 다 쓴 인스턴스를 돌려받아 다시 준다
+ * <p>
+ * 프로토타입 빈은 getObject()마다 새로 만들고 의존관계 주입, @PostConstruct까지 다시 실행한 뒤 버려진다
+ * pooled 스코프 빈은
+ * - 빌릴 때: 빈 이름별 풀에 쉬고 있는 인스턴스가 있으면 그대로 주고, 없으면 새로 만든다(주입, @PostConstruct 포함)
+ * - 돌려줄 때: Poolable.reset()으로 상태를 되돌린 뒤 풀에 넣는다. 풀이 가득 차면 소멸시킨다(@PreDestroy 실행)
+ * - 컨테이너 종료 시: 풀에 쉬고 있는 인스턴스를 소멸시킨다. 빌려 간 뒤 돌려주지 않은 인스턴스는 프로토타입처럼 관리하지 않는다
+ * </p>
+ * <p>
+ * 돌려주는 시점은 컨테이너가 알 수 없으므로, 빌리고 돌려주는 것은 PooledObjectProvider.borrow()의 Lease로 한다
+ * ObjectProvider&lt;T&gt;를 그대로 주입받아 getObject()만 부르면, 풀이 비어 있으므로 프로토타입과 같게 동작한다
+ * </p>
+ * <pre>
+ * &#64;Bean
+ * public static PooledScope pooledScope() { // BeanFactoryPostProcessor라 static
+ *     return new PooledScope(64);
+ * }
+ *
+ * &#64;Scope(PooledScope.SCOPE_NAME)
+ * static class PrototypeBean implements Poolable { ... }
+ *
+ * PooledObjectProvider&lt;PrototypeBean&gt; provider = pooledScope.getProvider(PrototypeBean.class);
+ * try (PooledObjectProvider.Lease&lt;PrototypeBean&gt; lease = provider.borrow()) {
+ *     lease.get().addCount();
+ * }
+ * </pre>
+ */
+public class PooledScope implements Scope, BeanFactoryPostProcessor, DisposableBean {
+
+    public static final String SCOPE_NAME = "pooled";
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final ConcurrentMap<String, BeanPool> pools = new ConcurrentHashMap<>();
+    private volatile ConfigurableListableBeanFactory beanFactory;
+
+    public PooledScope() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 빈 이름마다 쉬고 있을 수 있는 인스턴스 수
+     */
+    public PooledScope(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity는 1 이상이어야 합니다: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+        beanFactory.registerScope(SCOPE_NAME, this);
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        BeanPool pool = pool(name);
+        Object bean = pool.poll();
+        if (bean != null) {
+            return bean;
+        }
+        pool.created.increment();
+        return objectFactory.getObject();
+    }
+
+    /**
+     * 빌려 간 인스턴스를 돌려준다. 돌려준 뒤에는 그 인스턴스를 쓰면 안 된다
+     * 빌린 인스턴스마다 한 번만 불려야 하므로 PooledObjectProvider.Lease만 부른다
+     */
+    void release(String name, Object bean) {
+        BeanPool pool = pools.get(name);
+        if (pool == null) { // remove로 풀이 없어졌다
+            destroyBean(name, bean);
+            return;
+        }
+        if (bean instanceof Poolable) {
+            try {
+                ((Poolable) bean).reset();
+            } catch (RuntimeException e) {
+                pool.discarded.increment();
+                destroyBean(name, bean);
+                throw e;
+            }
+        }
+        if (!pool.offer(bean)) {
+            pool.discarded.increment();
+            destroyBean(name, bean);
+        }
+    }
+
+    /**
+     * type 빈을 빌리고 돌려주는 provider. type의 pooled 스코프 빈이 하나여야 한다
+     */
+    public <T> PooledObjectProvider<T> getProvider(Class<T> type) {
+        List<String> candidates = new ArrayList<>();
+        for (String name : beanFactory().getBeanNamesForType(type)) {
+            if (SCOPE_NAME.equals(beanFactory().getMergedBeanDefinition(name).getScope())) {
+                candidates.add(name);
+            }
+        }
+        if (candidates.isEmpty()) {
+            throw new NoSuchBeanDefinitionException(type, "no '" + SCOPE_NAME + "' scoped bean");
+        }
+        if (candidates.size() > 1) {
+            throw new NoUniqueBeanDefinitionException(type, candidates);
+        }
+        return new PooledObjectProvider<>(this, beanFactory(), candidates.get(0), type);
+    }
+
+    public <T> PooledObjectProvider<T> getProvider(String name, Class<T> type) {
+        if (!SCOPE_NAME.equals(beanFactory().getMergedBeanDefinition(name).getScope())) {
+            throw new IllegalArgumentException("'" + SCOPE_NAME + "' 스코프 빈이 아닙니다: " + name);
+        }
+        return new PooledObjectProvider<>(this, beanFactory(), name, type);
+    }
+
+    // 새로 만든 인스턴스 수
+    public long getCreatedCount(String name) {
+        BeanPool pool = pools.get(name);
+        return pool == null ? 0 : pool.created.sum();
+    }
+
+    // 풀에서 꺼내 다시 준 횟수
+    public long getReusedCount(String name) {
+        BeanPool pool = pools.get(name);
+        return pool == null ? 0 : pool.reused.sum();
+    }
+
+    // 풀이 가득 찼거나 reset이 실패해서 소멸시킨 인스턴스 수
+    public long getDiscardedCount(String name) {
+        BeanPool pool = pools.get(name);
+        return pool == null ? 0 : pool.discarded.sum();
+    }
+
+    public int getIdleCount(String name) {
+        BeanPool pool = pools.get(name);
+        return pool == null ? 0 : pool.idleCount();
+    }
+
+    @Override
+    public Object remove(String name) {
+        BeanPool pool = pools.remove(name);
+        if (pool != null) {
+            for (Object bean : pool.drain()) {
+                destroyBean(name, bean);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 인스턴스마다 콜백을 들고 있지 않는다. 풀에서 내보낼 때 빈 정의를 보고 직접 소멸시킨다(destroyBean)
+     */
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return null;
+    }
+
+    @Override
+    public void destroy() {
+        for (String name : pools.keySet().toArray(new String[0])) {
+            remove(name);
+        }
+    }
+
+    private BeanPool pool(String name) {
+        BeanPool pool = pools.get(name);
+        return pool != null ? pool : pools.computeIfAbsent(name, key -> new BeanPool(capacity));
+    }
+
+    private void destroyBean(String name, Object bean) {
+        ConfigurableListableBeanFactory factory = beanFactory;
+        if (factory != null && factory.containsBeanDefinition(name)) {
+            factory.destroyBean(name, bean);
+        }
+    }
+
+    private ConfigurableListableBeanFactory beanFactory() {
+        ConfigurableListableBeanFactory factory = beanFactory;
+        if (factory == null) {
+            throw new IllegalStateException("PooledScope가 아직 빈 팩토리에 등록되지 않았습니다");
+        }
+        return factory;
+    }
+}
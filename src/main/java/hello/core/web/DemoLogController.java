@@ -1,5 +1,7 @@
 package hello.core.web;
 
+import hello.core.common.ContextRequestLogger;
+import hello.core.common.RequestContextScheduler;
 import hello.core.common.RequestLogger;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.Request;
@@ -9,6 +11,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Controller
 @RequiredArgsConstructor
@@ -16,7 +20,9 @@ public class DemoLogController {
 
 //    private final ObjectProvider<RequestLogger> requestLoggerProvider;
     private final RequestLogger requestLogger;
+    private final ContextRequestLogger contextRequestLogger;
     private final DemoLogService demoLogService;
+    private final RequestContextScheduler requestContextScheduler;
 
     @RequestMapping("log-demo")
     @ResponseBody
@@ -34,4 +40,34 @@ public class DemoLogController {
 
         return requestURL + "OK";
     }
+
+    // request 스코프 프록시 대신 요청 문맥(RequestLogContext)을 쓰는 버전: uuid, URL은 필터가 묶어 둔다
+    @RequestMapping("log-demo-context")
+    @ResponseBody
+    public String logDemoContext(HttpServletRequest request) throws InterruptedException {
+
+        String requestURL = request.getRequestURL().toString();
+
+        contextRequestLogger.log("controller log");
+        Thread.sleep(2000);
+        demoLogService.contextLogic("sirzzang");
+
+        return requestURL + "OK";
+    }
+
+    // 비동기 버전: 2초 대기 동안 서블릿 스레드를 붙잡지 않는다. 서비스 로직은 같은 요청 문맥(uuid)으로 실행된다
+    @RequestMapping("log-demo-async")
+    @ResponseBody
+    public CompletableFuture<String> logDemoAsync(HttpServletRequest request) {
+
+        String requestURL = request.getRequestURL().toString();
+
+        requestLogger.setRequestURL(requestURL);
+        requestLogger.log("controller log");
+
+        return requestContextScheduler.schedule(() -> {
+            demoLogService.logic("sirzzang");
+            return requestURL + "OK";
+        }, 2, TimeUnit.SECONDS);
+    }
 }
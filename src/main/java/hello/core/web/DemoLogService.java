@@ -1,5 +1,6 @@
 package hello.core.web;
 
+import hello.core.common.ContextRequestLogger;
 import hello.core.common.RequestLogger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.ObjectProvider;
@@ -11,10 +12,15 @@ public class DemoLogService {
 
 //    private final ObjectProvider<RequestLogger> requestLoggerProvider;
     private final RequestLogger requestLogger;
+    private final ContextRequestLogger contextRequestLogger;
 
     public void logic(String id) {
 
 //        RequestLogger requestLogger = requestLoggerProvider.getObject();
         requestLogger.log(id + " service log");
     }
+
+    public void contextLogic(String id) {
+        contextRequestLogger.log(id + " service log");
+    }
 }
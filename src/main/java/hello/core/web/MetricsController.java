@@ -0,0 +1,29 @@
+package hello.core.web;
+
+import hello.core.metrics.LatencySnapshot;
+import hello.core.metrics.MethodMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * 메서드별 누적 호출 수와 읽은 시각, 평균/최대, p50/p99/p999 (나노초)
+ * 조회해도 상태가 바뀌지 않는다. 호출률은 조회하는 쪽이 이전 결과와의 차이로 계산한다
+ */
+@Controller
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "hello.metrics.enabled", havingValue = "true")
+public class MetricsController {
+
+    private final MethodMetrics methodMetrics;
+
+    @RequestMapping("metrics")
+    @ResponseBody
+    public List<LatencySnapshot> metrics() {
+        return methodMetrics.snapshots();
+    }
+}
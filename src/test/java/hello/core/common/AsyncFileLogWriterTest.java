@@ -0,0 +1,76 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncFileLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("여러 스레드가 남긴 로그가 한 줄씩 온전하게 파일에 기록된다")
+    void concurrentWrite() throws Exception {
+        // given
+        Path file = tempDir.resolve("request.log");
+        AsyncFileLogWriter logWriter = new AsyncFileLogWriter(file, 1 << 16);
+        int threads = 4;
+        int perThread = 5_000;
+
+        // when
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String uuid = "uuid-" + t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logWriter.write(uuid, "http://localhost:8080/log-demo", "로그 " + i);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        logWriter.close();
+
+        // then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(logWriter.getDroppedCount()).isZero();
+        assertThat(lines).hasSize(threads * perThread);
+        assertThat(lines).contains("[uuid-0][http://localhost:8080/log-demo] 로그 0");
+        assertThat(lines).contains("[uuid-3][http://localhost:8080/log-demo] 로그 4999");
+    }
+
+    @Test
+    @DisplayName("요청 URL이 없으면 [uuid] message 형식이고, 너무 긴 줄은 잘린다")
+    void formatAndTruncate() throws Exception {
+        // given
+        Path file = tempDir.resolve("request.log");
+        AsyncFileLogWriter logWriter = new AsyncFileLogWriter(file, 16);
+        StringBuilder longMessage = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longMessage.append('가');
+        }
+
+        // when
+        logWriter.write("uuid", null, "request scope bean created");
+        logWriter.write("uuid", null, longMessage.toString());
+        logWriter.close();
+
+        // then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines.get(0)).isEqualTo("[uuid] request scope bean created");
+        assertThat(lines.get(1)).startsWith("[uuid] 가가가");
+        assertThat(lines.get(1).getBytes(StandardCharsets.UTF_8).length).isLessThan(512);
+    }
+}
@@ -0,0 +1,94 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestContextSchedulerTest {
+
+    RequestContextScheduler scheduler = new RequestContextScheduler(1);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+        RequestContextHolder.resetRequestAttributes();
+        RequestLogContext.clear();
+    }
+
+    @Test
+    @DisplayName("요청 스레드가 먼저 끝나도 예약된 작업은 같은 request 스코프 빈과 요청 문맥으로 실행된다")
+    void propagateRequestContext() throws Exception {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext();
+        ac.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+        ac.register(CollectingLogWriter.class, RequestLogger.class);
+        ac.refresh();
+        RequestLogger requestLogger = ac.getBean("requestLogger", RequestLogger.class);
+        CollectingLogWriter logWriter = ac.getBean(CollectingLogWriter.class);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/log-demo-async");
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+        RequestContextHolder.setRequestAttributes(attributes);
+        RequestLogContext.bind(new RequestLogContext("context-uuid", "http://localhost/log-demo-async"));
+        requestLogger.setRequestURL("http://localhost/log-demo-async");
+        requestLogger.log("controller log");
+
+        // when
+        CompletableFuture<String> future = scheduler.schedule(() -> {
+            requestLogger.log("sirzzang service log");
+            return RequestLogContext.current().getUuid();
+        }, 10, TimeUnit.MILLISECONDS);
+
+        // 서블릿 스레드의 첫 디스패치가 끝난 상황
+        attributes.requestCompleted();
+        RequestContextHolder.resetRequestAttributes();
+        RequestLogContext.clear();
+
+        // then
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("context-uuid");
+        List<String> lines = logWriter.lines;
+        String controllerLine = lines.get(1);
+        String serviceLine = lines.get(lines.size() - 1);
+        String uuid = controllerLine.substring(0, controllerLine.indexOf(']') + 1);
+        assertThat(controllerLine).endsWith("controller log");
+        assertThat(serviceLine).isEqualTo(uuid + "[http://localhost/log-demo-async] sirzzang service log");
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("작업에서 던진 예외는 future로 전달된다")
+    void exceptionally() {
+        CompletableFuture<String> future = scheduler.schedule(() -> {
+            throw new IllegalStateException("fail");
+        }, 0, TimeUnit.MILLISECONDS);
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    static class CollectingLogWriter implements LogWriter {
+
+        final List<String> lines = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void write(String uuid, String requestURL, String message) {
+            lines.add(requestURL == null ? "[" + uuid + "] " + message : "[" + uuid + "][" + requestURL + "] " + message);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestLogContextFilterTest {
+
+    RequestLogContextFilter filter = new RequestLogContextFilter();
+    List<String> lines = new ArrayList<>();
+    ContextRequestLogger contextRequestLogger = new ContextRequestLogger(
+            (uuid, requestURL, message) -> lines.add("[" + uuid + "][" + requestURL + "] " + message));
+
+    @Test
+    @DisplayName("요청 처리 중에는 같은 uuid와 요청 URL로 로그가 남고, 끝나면 문맥이 풀린다")
+    void bindPerRequest() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/log-demo-context");
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                contextRequestLogger.log("controller log");
+                contextRequestLogger.log("sirzzang service log");
+            }
+        }));
+
+        // then
+        RequestLogContext context = (RequestLogContext) request.getAttribute(RequestLogContextFilter.ATTRIBUTE_NAME);
+        assertThat(lines).containsExactly(
+                "[" + context.getUuid() + "][http://localhost/log-demo-context] controller log",
+                "[" + context.getUuid() + "][http://localhost/log-demo-context] sirzzang service log");
+        assertThat(RequestLogContext.current()).isNull();
+        assertThatThrownBy(() -> contextRequestLogger.log("no request"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("요청 id는 요청마다 다른 버전 4 UUID 형식이다")
+    void requestIds() {
+        String id1 = RequestIds.next();
+        String id2 = RequestIds.next();
+
+        assertThat(id1).isNotEqualTo(id2);
+        assertThat(UUID.fromString(id1).version()).isEqualTo(4);
+        assertThat(UUID.fromString(id1).variant()).isEqualTo(2);
+        assertThat(UUID.fromString(id1).toString()).isEqualTo(id1);
+    }
+}
@@ -0,0 +1,101 @@
+package hello.core.coupon;
+
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.order.Order;
+import hello.core.order.OrderServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CouponStoreTest {
+
+    @Test
+    @DisplayName("전체 한도와 회원당 한도를 넘으면 사용할 수 없고, 취소하면 다시 사용할 수 있다")
+    void limits() {
+        // given
+        CouponStore couponStore = new CouponStore(4);
+        couponStore.register(new Coupon("welcome", 500, 3, 1));
+
+        // when, then
+        assertThat(couponStore.redeem("welcome", 1L)).isEqualTo(CouponStore.Result.REDEEMED);
+        assertThat(couponStore.redeem("welcome", 1L)).isEqualTo(CouponStore.Result.MEMBER_LIMIT);
+        assertThat(couponStore.redeem("welcome", 2L)).isEqualTo(CouponStore.Result.REDEEMED);
+        assertThat(couponStore.redeem("welcome", 3L)).isEqualTo(CouponStore.Result.REDEEMED);
+        assertThat(couponStore.redeem("welcome", 4L)).isEqualTo(CouponStore.Result.SOLD_OUT);
+        assertThat(couponStore.redeem("unknown", 1L)).isEqualTo(CouponStore.Result.UNKNOWN_COUPON);
+        assertThat(couponStore.getMemberRedeemedCount("welcome", 4L)).isZero(); // 소진이면 회원 한도도 되돌린다
+
+        couponStore.cancel("welcome", 1L);
+        assertThat(couponStore.redeem("welcome", 1L)).isEqualTo(CouponStore.Result.REDEEMED);
+        assertThat(couponStore.getRedeemedCount("welcome")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("쿠폰 하나에 여러 스레드가 몰려도 한도만큼만 사용된다")
+    void hotCoupon() throws Exception {
+        // given
+        CouponStore couponStore = new CouponStore();
+        couponStore.register(new Coupon("flash", 1000, 1000, Coupon.UNLIMITED));
+        couponStore.register(new Coupon("oncePerMember", 1000, 100_000, 1));
+        AtomicInteger redeemed = new AtomicInteger();
+        AtomicInteger redeemedOnce = new AtomicInteger();
+
+        // when: 스레드 8개가 각각 1000번, 회원 10명이 같은 쿠폰을 번갈아 사용
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (couponStore.redeem("flash", i) == CouponStore.Result.REDEEMED) {
+                        redeemed.incrementAndGet();
+                    }
+                    if (couponStore.redeem("oncePerMember", i % 10) == CouponStore.Result.REDEEMED) {
+                        redeemedOnce.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(redeemed.get()).isEqualTo(1000);
+        assertThat(couponStore.getRemaining("flash")).isZero();
+        assertThat(redeemedOnce.get()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("쿠폰 주문은 할인 정책으로 할인하고 남은 금액에서 쿠폰 금액을 더 뺀다")
+    void createOrderWithCoupon() {
+        // given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(1L, "memberVIP", Grade.VIP));
+        CouponStore couponStore = new CouponStore();
+        couponStore.register(new Coupon("welcome", 3000, 1, 1));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+        orderService.setCouponStore(couponStore);
+
+        // when
+        Order order = orderService.createOrderWithCoupon(1L, "itemA", 10000, "welcome");
+
+        // then
+        assertThat(order.getDiscountPrice()).isEqualTo(1000 + 3000);
+        assertThatThrownBy(() -> orderService.createOrderWithCoupon(1L, "itemA", 10000, "welcome"))
+                .isInstanceOf(CouponRedemptionException.class)
+                .extracting("result").isEqualTo(CouponStore.Result.MEMBER_LIMIT);
+    }
+}
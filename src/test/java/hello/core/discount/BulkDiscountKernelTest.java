@@ -0,0 +1,87 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkDiscountKernelTest {
+
+    int[] edgePrices = {0, 1, 99, 100, 999, 10000, 12345, Integer.MAX_VALUE, Integer.MIN_VALUE, -150, -1};
+
+    @Test
+    @DisplayName("대량 계산은 원래 정책과 모든 등급, 가격에서 같은 할인 금액을 낸다")
+    void sameAsOriginal() {
+        assertSameDiscount(new RateDiscountPolicy());
+        assertSameDiscount(new FixDiscountPolicy());
+        assertSameDiscount(GradeRateDiscountPolicy.none()
+                .withRate(Grade.VIP, 10)
+                .withRate(Grade.BASIC, 3));
+
+        DiscountTable discountTable = DiscountTable.empty()
+                .withRate(Grade.VIP, 37)
+                .withFixedAmount(Grade.VIP, 500)
+                .withRate(Grade.BASIC, 99);
+        assertSameDiscount(new BulkDiscountKernel(discountTable), new CompiledDiscountPolicy(discountTable));
+    }
+
+    @Test
+    @DisplayName("등급이 하나면 배열 전체를 한 번에 계산하고, 가격 배열에 덮어쓸 수도 있다")
+    void singleGradeInPlace() {
+        // given
+        BulkDiscountKernel kernel = BulkDiscountKernel.compile(new RateDiscountPolicy());
+        int[] prices = {10000, 12345, -150};
+
+        // when
+        kernel.discount(prices, Grade.VIP, prices);
+
+        // then
+        assertThat(prices).containsExactly(1000, 1234, -15);
+    }
+
+    @Test
+    @DisplayName("배열 길이가 다르거나 등급 기반 정책이 아니면 예외가 발생한다")
+    void invalid() {
+        BulkDiscountKernel kernel = BulkDiscountKernel.compile(new RateDiscountPolicy());
+        DiscountPolicy custom = (member, price) -> price / 2;
+
+        assertThatThrownBy(() -> kernel.discount(new int[2], new byte[1], new int[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BulkDiscountKernel.compile(custom))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertSameDiscount(DiscountPolicy original) {
+        assertSameDiscount(BulkDiscountKernel.compile(original), original);
+    }
+
+    // 등급이 섞인 블록과 한 등급만 있는 블록이 모두 나오도록: 앞쪽은 무작위 등급, 뒤쪽은 VIP만
+    private void assertSameDiscount(BulkDiscountKernel kernel, DiscountPolicy original) {
+        Random random = new Random(1);
+        int length = BulkDiscountKernel.BLOCK * 3 + 17;
+        int[] prices = new int[length];
+        byte[] grades = new byte[length];
+        for (int i = 0; i < length; i++) {
+            prices[i] = i < edgePrices.length ? edgePrices[i] : random.nextInt();
+            grades[i] = (byte) (i < length / 2 ? random.nextInt(Grade.values().length) : Grade.VIP.ordinal());
+        }
+        for (int i = 0; i < edgePrices.length; i++) {
+            prices[length - 1 - i] = edgePrices[i];
+        }
+        int[] discounts = new int[length];
+
+        kernel.discount(prices, grades, discounts);
+
+        for (int i = 0; i < length; i++) {
+            Member member = new Member(1L, "member", Grade.values()[grades[i]]);
+            assertThat(discounts[i])
+                    .as("%s, %s, %d", original.getClass().getSimpleName(), member.getGrade(), prices[i])
+                    .isEqualTo(original.discount(member, prices[i]));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledDiscountPolicyTest {
+
+    int[] prices = {0, 1, 99, 100, 999, 10000, 12345, Integer.MAX_VALUE, -150};
+
+    @Test
+    @DisplayName("컴파일한 정책은 원래 정책과 모든 등급, 가격에서 같은 할인 금액을 낸다")
+    void sameAsOriginal() {
+        assertSameDiscount(new RateDiscountPolicy());
+        assertSameDiscount(new FixDiscountPolicy());
+        assertSameDiscount(GradeRateDiscountPolicy.none()
+                .withRate(Grade.VIP, 10)
+                .withRate(Grade.BASIC, 3));
+    }
+
+    @Test
+    @DisplayName("등급 기반 정책이 아니면 컴파일할 수 없다")
+    void notGradeBased() {
+        DiscountPolicy custom = (member, price) -> price / 2;
+
+        assertThatThrownBy(() -> CompiledDiscountPolicy.compile(custom))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertSameDiscount(DiscountPolicy original) {
+        CompiledDiscountPolicy compiled = CompiledDiscountPolicy.compile(original);
+        for (Grade grade : Grade.values()) {
+            Member member = new Member(1L, "member", grade);
+            for (int price : prices) {
+                assertThat(compiled.discount(member, price))
+                        .as("%s, %s, %d", original.getClass().getSimpleName(), grade, price)
+                        .isEqualTo(original.discount(member, price));
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.order.Order;
+import hello.core.order.OrderServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiscountPolicyRouterTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+
+    @Test
+    @DisplayName("빈 이름으로 등록된 정책을 코드 핸들로 고른다")
+    void dispatchByHandle() {
+        // given
+        DiscountPolicyRouter router = new DiscountPolicyRouter(policies());
+
+        // when
+        DiscountCode fix = router.resolve("fixDiscountPolicy");
+        DiscountCode rate = router.resolve("rateDiscountPolicy");
+
+        // then
+        assertThat(router.discount(fix, vip, 10000)).isEqualTo(1000);
+        assertThat(router.discount(rate, vip, 20000)).isEqualTo(2000);
+        assertThat(router.discount(rate, basic, 20000)).isEqualTo(0);
+        assertThatThrownBy(() -> router.resolve("unknown"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("겹친 정책은 앞 단계가 할인하고 남은 금액에 다음 단계를 적용하고, 최대 할인 금액을 넘지 않는다")
+    void stacked() {
+        // given
+        DiscountPolicyRouter router = new DiscountPolicyRouter(policies());
+
+        // when: 정률 10% 다음 정액 1000원
+        DiscountCode unlimited = router.registerStack("rateThenFix", StackedDiscountPolicy.NO_LIMIT,
+                "rateDiscountPolicy", "fixDiscountPolicy");
+        DiscountCode capped = router.registerStack("rateThenFixMax2500", 2500,
+                "rateDiscountPolicy", "fixDiscountPolicy");
+
+        // then
+        assertThat(router.discount(unlimited, vip, 20000)).isEqualTo(2000 + 1000);
+        assertThat(router.discount(capped, vip, 20000)).isEqualTo(2500);
+        assertThat(router.discount(capped, vip, 500)).isEqualTo(500); // 가격보다 많이 할인하지 않는다
+        assertThat(router.discount(capped, basic, 20000)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("같은 코드로 다시 등록하면 핸들은 그대로이고 정책만 바뀐다")
+    void reRegister() {
+        // given
+        DiscountPolicyRouter router = new DiscountPolicyRouter(policies());
+        DiscountCode promotion = router.register("promotion", new FixDiscountPolicy());
+
+        // when
+        DiscountCode replaced = router.register("promotion", GradeRateDiscountPolicy.none().withRate(Grade.BASIC, 5));
+
+        // then
+        assertThat(replaced).isSameAs(promotion);
+        assertThat(router.discount(promotion, basic, 10000)).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("다른 라우터의 핸들은 쓸 수 없다")
+    void foreignHandle() {
+        DiscountCode foreign = new DiscountPolicyRouter(policies()).resolve("fixDiscountPolicy");
+        DiscountPolicyRouter router = new DiscountPolicyRouter(policies());
+
+        assertThatThrownBy(() -> router.discount(foreign, vip, 10000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("주문 서비스는 할인 코드로 받은 정책으로 할인한다")
+    void createOrderWithCode() {
+        // given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(vip);
+        DiscountPolicyRouter router = new DiscountPolicyRouter(policies());
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        orderService.setDiscountPolicyRouter(router);
+
+        // when
+        Order order = orderService.createOrder(vip.getId(), "itemA", 20000, router.resolve("fixDiscountPolicy"));
+
+        // then
+        assertThat(order.getDiscountPrice()).isEqualTo(1000);
+    }
+
+    private static Map<String, DiscountPolicy> policies() {
+        Map<String, DiscountPolicy> policies = new LinkedHashMap<>();
+        policies.put("fixDiscountPolicy", new FixDiscountPolicy());
+        policies.put("rateDiscountPolicy", new RateDiscountPolicy());
+        return policies;
+    }
+}
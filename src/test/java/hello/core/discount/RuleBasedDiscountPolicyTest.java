@@ -0,0 +1,116 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleBasedDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+    int[] prices = {0, 1, 99, 100, 999, 10000, 12345, Integer.MAX_VALUE, -150};
+
+    @Test
+    @DisplayName("위에서부터 처음 맞는 규칙 하나만 적용한다")
+    void firstMatchWins() {
+        // given
+        RuleBasedDiscountPolicy policy = RuleBasedDiscountPolicy.of(
+                "grade=VIP item=itemA -> fixed 2000",
+                "grade=VIP price>=100000 -> rate 15 max 20000",
+                "grade=VIP -> rate 10  # 나머지 VIP",
+                "grade=BASIC item=event* -> fixed 500");
+
+        // then
+        assertThat(policy.discount(vip, "itemA", 10000)).isEqualTo(2000);
+        assertThat(policy.discount(vip, "itemB", 100000)).isEqualTo(15000);
+        assertThat(policy.discount(vip, "itemB", 200000)).isEqualTo(20000);
+        assertThat(policy.discount(vip, "itemB", 10000)).isEqualTo(1000);
+        assertThat(policy.discount(basic, "eventSale", 10000)).isEqualTo(500);
+        assertThat(policy.discount(basic, "itemB", 10000)).isEqualTo(0);
+        assertThat(policy.discount(vip, 10000)).isEqualTo(1000); // 상품 이름을 모르면 상품 조건은 맞지 않는다
+    }
+
+    @Test
+    @DisplayName("손으로 짠 정책과 같은 규칙은 모든 등급, 가격에서 같은 할인 금액을 낸다")
+    void sameAsHandWritten() {
+        assertSameDiscount(new RateDiscountPolicy(), RuleBasedDiscountPolicy.of("grade=VIP -> rate 10"));
+        assertSameDiscount(new FixDiscountPolicy(), RuleBasedDiscountPolicy.of("grade=VIP -> fixed 1000"));
+    }
+
+    @Test
+    @DisplayName("잘못된 규칙은 줄 번호와 함께 거부하고, 이전 규칙을 그대로 쓴다")
+    void invalidRules() {
+        // given
+        RuleBasedDiscountPolicy policy = RuleBasedDiscountPolicy.of("grade=VIP -> rate 10");
+
+        // when, then
+        assertThatThrownBy(() -> policy.update("grade=VIP -> rate 10", "grade=GOLD -> rate 5"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("rules:2:");
+        assertThatThrownBy(() -> policy.update("grade=VIP -> rate 150"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(policy.getVersion()).isEqualTo(1);
+        assertThat(policy.discount(vip, 10000)).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("규칙 파일을 다시 읽으면 새 규칙을 한 번에 바꿔 끼운다")
+    void reload(@TempDir Path dir) throws Exception {
+        // given
+        Path file = dir.resolve("discount-rules.txt");
+        Files.write(file, Arrays.asList("grade=VIP -> rate 10"));
+        RuleBasedDiscountPolicy policy = new RuleBasedDiscountPolicy(file.toString(), 0);
+        assertThat(policy.discount(vip, 20000)).isEqualTo(2000);
+
+        // when
+        Files.write(file, Arrays.asList("grade=VIP -> rate 20", "grade=BASIC -> fixed 100"));
+        int version = policy.reload();
+
+        // then
+        assertThat(version).isEqualTo(2);
+        assertThat(policy.getRuleCount()).isEqualTo(2);
+        assertThat(policy.discount(vip, 20000)).isEqualTo(4000);
+        assertThat(policy.discount(basic, 20000)).isEqualTo(100);
+        policy.close();
+    }
+
+    @Test
+    @DisplayName("거부된 다시 읽기는 실패 횟수와 마지막 오류로 남고, 이전 규칙을 그대로 쓴다")
+    void rejectedReload(@TempDir Path dir) throws Exception {
+        // given
+        Path file = dir.resolve("discount-rules.txt");
+        Files.write(file, Arrays.asList("grade=VIP -> rate 10"));
+        RuleBasedDiscountPolicy policy = new RuleBasedDiscountPolicy(file.toString(), 0);
+
+        // when
+        Files.write(file, Arrays.asList("grade=VIP -> rate"));
+
+        // then
+        assertThatThrownBy(policy::reload).isInstanceOf(IllegalArgumentException.class);
+        assertThat(policy.getReloadFailureCount()).isEqualTo(1);
+        assertThat(policy.getLastReloadFailure()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(policy.getVersion()).isEqualTo(1);
+        assertThat(policy.discount(vip, 20000)).isEqualTo(2000);
+        policy.close();
+    }
+
+    private void assertSameDiscount(DiscountPolicy handWritten, DiscountPolicy rules) {
+        for (Grade grade : Grade.values()) {
+            Member member = new Member(1L, "member", grade);
+            for (int price : prices) {
+                assertThat(rules.discount(member, "itemA", price))
+                        .as("%s, %s, %d", handWritten.getClass().getSimpleName(), grade, price)
+                        .isEqualTo(handWritten.discount(member, price));
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package hello.core.lifecycle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelInitApplicationContextTest {
+
+    @Test
+    @DisplayName("서로 의존하지 않는 빈의 @PostConstruct는 동시에, 의존하는 빈은 그 뒤에 실행된다")
+    void parallelInitInDependencyOrder() {
+        // given, when
+        ParallelInitApplicationContext ac = new ParallelInitApplicationContext(4, ParallelConfig.class);
+
+        // then
+        SlowInit a = ac.getBean("a", SlowInit.class);
+        SlowInit b = ac.getBean("b", SlowInit.class);
+        Dependent c = ac.getBean(Dependent.class);
+        assertThat(a.sawOtherStarted).isTrue();
+        assertThat(b.sawOtherStarted).isTrue();
+        assertThat(c.sawDependenciesInitialized).isTrue();
+
+        Map<String, BeanInitTiming> timings = ac.getInitTimings().stream()
+                .collect(Collectors.toMap(BeanInitTiming::getBeanName, Function.identity()));
+        assertThat(timings).containsKeys("a", "b", "c", "networkClient");
+        assertThat(timings.get("c").getWaitedFor()).containsExactlyInAnyOrder("a", "b");
+        assertThat(timings.get("c").getStartNanos()).isGreaterThanOrEqualTo(timings.get("a").getEndNanos());
+        assertThat(ac.getInitCriticalPathNanos()).isLessThanOrEqualTo(ac.getInitWallNanos());
+
+        // @PreDestroy는 그대로 처리된다
+        ac.close();
+        assertThat(a.closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("@PostConstruct가 실패하면 refresh가 실패하고, 그 빈에 의존하는 빈은 초기화하지 않는다")
+    void failedInit() {
+        assertThatThrownBy(() -> new ParallelInitApplicationContext(2, FailingConfig.class))
+                .isInstanceOf(BeanCreationException.class)
+                .hasMessageContaining("failing");
+        assertThat(FailingConfig.dependent.initialized).isFalse();
+    }
+
+    @Configuration
+    static class ParallelConfig {
+
+        final CountDownLatch aStarted = new CountDownLatch(1);
+        final CountDownLatch bStarted = new CountDownLatch(1);
+
+        @Bean
+        public SlowInit a() {
+            return new SlowInit(aStarted, bStarted);
+        }
+
+        @Bean
+        public SlowInit b() {
+            return new SlowInit(bStarted, aStarted);
+        }
+
+        @Bean
+        public Dependent c(SlowInit a, SlowInit b) {
+            return new Dependent(a, b);
+        }
+
+        @Bean
+        public NetworkClient networkClient() {
+            NetworkClient networkClient = new NetworkClient();
+            networkClient.setUrl("http://sirzzang.github.io");
+            return networkClient;
+        }
+    }
+
+    @Configuration
+    static class FailingConfig {
+
+        static Dependent dependent;
+
+        @Bean
+        public SlowInit failing() {
+            return new SlowInit(new CountDownLatch(1), new CountDownLatch(0)) {
+                @Override
+                public void init() throws InterruptedException {
+                    throw new IllegalStateException("연결 실패");
+                }
+            };
+        }
+
+        @Bean
+        public Dependent dependent(SlowInit failing) {
+            dependent = new Dependent(failing, failing);
+            return dependent;
+        }
+    }
+
+    // 자기 초기화를 시작했다고 알리고, 상대 빈의 초기화가 시작되기를 기다린다: 동시에 실행될 때만 기다림이 끝난다
+    static class SlowInit {
+
+        private final CountDownLatch started;
+        private final CountDownLatch otherStarted;
+        volatile boolean sawOtherStarted;
+        volatile boolean initialized;
+        volatile boolean closed;
+
+        SlowInit(CountDownLatch started, CountDownLatch otherStarted) {
+            this.started = started;
+            this.otherStarted = otherStarted;
+        }
+
+        @PostConstruct
+        public void init() throws InterruptedException {
+            started.countDown();
+            sawOtherStarted = otherStarted.await(5, TimeUnit.SECONDS);
+            initialized = true;
+        }
+
+        @PreDestroy
+        public void close() {
+            closed = true;
+        }
+    }
+
+    static class Dependent {
+
+        private final SlowInit first;
+        private final SlowInit second;
+        volatile boolean sawDependenciesInitialized;
+        volatile boolean initialized;
+
+        Dependent(SlowInit first, SlowInit second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @PostConstruct
+        public void init() {
+            sawDependenciesInitialized = first.initialized && second.initialized;
+            initialized = true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingMemberRepositoryTest {
+
+    MemoryMemberRepository delegate = new MemoryMemberRepository();
+
+    @Test
+    @DisplayName("처음 조회는 원래 저장소에서 읽고, 다음부터는 캐시에서 읽는다")
+    void readThrough() {
+        // given
+        delegate.save(new Member(7001L, "memberA", Grade.VIP));
+        CachingMemberRepository repository = new CachingMemberRepository(delegate, 100);
+
+        // when
+        Member first = repository.findById(7001L);
+        Member second = repository.findById(7001L);
+        Member missing = repository.findById(-7001L);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(missing).isNull();
+        assertThat(repository.getHitCount()).isEqualTo(1);
+        assertThat(repository.getMissCount()).isEqualTo(2);
+        assertThat(repository.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("save는 원래 저장소에 쓰고 캐시 값도 바꾼다")
+    void saveUpdatesCache() {
+        // given
+        CachingMemberRepository repository = new CachingMemberRepository(delegate, 100);
+        repository.save(new Member(7002L, "before", Grade.BASIC));
+        repository.findById(7002L);
+
+        // when
+        repository.saveAll(Arrays.asList(new Member(7002L, "after", Grade.VIP)));
+
+        // then
+        assertThat(repository.findById(7002L).getName()).isEqualTo("after");
+        assertThat(delegate.findById(7002L).getName()).isEqualTo("after");
+        assertThat(repository.findAllById(Arrays.asList(7002L, null, -1L)))
+                .extracting(member -> member == null ? null : member.getName())
+                .containsExactly("after", null, null);
+    }
+
+    @Test
+    @DisplayName("크기를 넘으면 내보내고, 자주 읽힌 회원은 한 번씩 읽힌 회원들에 밀려나지 않는다")
+    void frequencyAwareEviction() {
+        // given
+        for (long id = 8000; id < 10_000; id++) {
+            delegate.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        CachingMemberRepository repository = new CachingMemberRepository(delegate, 100);
+        for (int round = 0; round < 30; round++) {
+            for (long id = 8000; id < 8010; id++) {
+                repository.findById(id); // 자주 주문하는 회원
+            }
+        }
+
+        // when
+        for (long id = 8100; id < 10_000; id++) {
+            repository.findById(id); // 한 번씩만 읽히는 회원
+        }
+
+        // then
+        assertThat(repository.size()).isLessThanOrEqualTo(100);
+        assertThat(repository.getEvictionCount()).isGreaterThan(0);
+        long hitsBefore = repository.getHitCount();
+        for (long id = 8000; id < 8010; id++) {
+            repository.findById(id);
+        }
+        assertThat(repository.getHitCount() - hitsBefore).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("ttl이 지난 항목은 원래 저장소에서 다시 읽는다")
+    void expireAfterWrite() {
+        // given
+        AtomicLong now = new AtomicLong();
+        CachingMemberRepository repository =
+                new CachingMemberRepository(delegate, 100, Duration.ofSeconds(10), now::get);
+        repository.save(new Member(7003L, "memberA", Grade.VIP));
+
+        // when
+        repository.findById(7003L);
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        repository.findById(7003L);
+
+        // then
+        assertThat(repository.getHitCount()).isEqualTo(1);
+        assertThat(repository.getMissCount()).isEqualTo(1);
+        assertThat(repository.size()).isEqualTo(1);
+    }
+}
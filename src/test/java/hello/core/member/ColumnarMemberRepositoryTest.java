@@ -0,0 +1,107 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarMemberRepositoryTest {
+
+    @Test
+    @DisplayName("저장한 회원을 조회하고, 같은 id로 다시 저장하면 덮어쓴다")
+    void saveAndFind() {
+        // given
+        ColumnarMemberRepository repository = new ColumnarMemberRepository();
+        repository.save(new Member(1L, "memberA", Grade.VIP));
+        repository.save(new Member(Long.MIN_VALUE, "회원", null));
+        repository.save(new Member(2L, null, Grade.BASIC));
+
+        // when
+        repository.save(new Member(1L, "memberB", Grade.BASIC));
+
+        // then
+        Member found = repository.findById(1L);
+        assertThat(found.getId()).isEqualTo(1L);
+        assertThat(found.getName()).isEqualTo("memberB");
+        assertThat(found.getGrade()).isEqualTo(Grade.BASIC);
+        assertThat(repository.findById(Long.MIN_VALUE).getName()).isEqualTo("회원");
+        assertThat(repository.findById(Long.MIN_VALUE).getGrade()).isNull();
+        assertThat(repository.findById(2L).getName()).isNull();
+        assertThat(repository.findById(3L)).isNull();
+        assertThat(repository.findById(null)).isNull();
+        assertThat(repository.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("조회한 회원의 값을 바꾸면 저장소에 바로 반영되고, 저장한 원래 객체를 바꾸면 반영되지 않는다")
+    void viewWritesThrough() {
+        // given
+        ColumnarMemberRepository repository = new ColumnarMemberRepository();
+        Member original = new Member(1L, "memberA", Grade.BASIC);
+        repository.save(original);
+
+        // when
+        original.setGrade(Grade.VIP);
+        Member view = repository.findById(1L);
+        view.setName("memberB");
+        view.setGrade(Grade.VIP);
+
+        // then
+        assertThat(repository.findById(1L).getName()).isEqualTo("memberB");
+        assertThat(repository.findByGrade(Grade.VIP)).extracting(Member::getId).containsExactly(1L);
+        assertThat(repository.findById(1L)).isEqualTo(view);
+        assertThatThrownBy(() -> view.setId(2L)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("배열이 여러 번 늘어나도 모든 회원을 찾고, 일괄 조회는 요청 순서를 따른다")
+    void growAndFindAll() {
+        // given
+        ColumnarMemberRepository repository = new ColumnarMemberRepository(1);
+        List<Member> members = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            members.add(new Member(id, "member" + (id % 100), id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        // when
+        repository.saveAll(members);
+        List<Member> found = repository.findAllById(Arrays.asList(3L, 99_999L, null, 10_000L));
+
+        // then
+        assertThat(repository.size()).isEqualTo(10_000);
+        for (long id = 1; id <= 10_000; id++) {
+            Member member = repository.findById(id);
+            assertThat(member.getName()).isEqualTo("member" + (id % 100));
+            assertThat(member.getGrade()).isEqualTo(id % 2 == 0 ? Grade.VIP : Grade.BASIC);
+        }
+        assertThat(found).extracting(member -> member == null ? null : member.getId())
+                .containsExactly(3L, null, null, 10_000L);
+    }
+
+    @Test
+    @DisplayName("등급으로는 id 순, 이름 앞부분으로는 이름 순으로 회원을 찾는다")
+    void findByGradeAndNamePrefix() {
+        // given
+        ColumnarMemberRepository repository = new ColumnarMemberRepository();
+        repository.save(new Member(3L, "kim", Grade.VIP));
+        repository.save(new Member(1L, "lee", Grade.VIP));
+        repository.save(new Member(2L, "kang", Grade.BASIC));
+        repository.save(new Member(4L, "kim", Grade.BASIC));
+        repository.save(new Member(5L, "k", null));
+
+        // when
+        List<Member> vip = repository.findByGrade(Grade.VIP);
+        List<Member> ka = repository.findByNamePrefix("k", 3);
+
+        // then
+        assertThat(vip).extracting(Member::getId).containsExactly(1L, 3L);
+        assertThat(ka).extracting(Member::getId).containsExactly(5L, 2L, 3L);
+        assertThat(repository.findByNamePrefix("ki", 10)).extracting(Member::getId).containsExactly(3L, 4L);
+        assertThat(repository.findByNamePrefix("park", 10)).isEmpty();
+    }
+}
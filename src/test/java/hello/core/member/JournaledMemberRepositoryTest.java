@@ -0,0 +1,137 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournaledMemberRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("여러 스레드가 저장한 회원을 다시 열었을 때 모두 복구한다")
+    void recoverFromJournal() throws Exception {
+        // given
+        int threads = 4;
+        int perThread = 500;
+        try (JournaledMemberRepository repository = new JournaledMemberRepository(tempDir, 32, 1, false, 0)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = (long) t * perThread + 1;
+                futures.add(executor.submit(() -> {
+                    for (long id = base; id < base + perThread; id++) {
+                        repository.save(new Member(id, "member" + id, Grade.VIP));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            repository.save(new Member(1L, "renamed", Grade.BASIC));
+        }
+
+        // when
+        try (JournaledMemberRepository recovered = new JournaledMemberRepository(tempDir)) {
+
+            // then
+            assertThat(recovered.size()).isEqualTo(threads * perThread);
+            assertThat(recovered.findById(1L).getName()).isEqualTo("renamed");
+            assertThat(recovered.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+            assertThat(recovered.findById(2_000L).getName()).isEqualTo("member2000");
+        }
+    }
+
+    @Test
+    @DisplayName("스냅샷 이후에는 스냅샷과 그 뒤 저널만 남고, 둘을 합쳐 복구한다")
+    void recoverFromSnapshotAndTail() throws Exception {
+        // given
+        try (JournaledMemberRepository repository = new JournaledMemberRepository(tempDir, 8, 1, true, 0)) {
+            repository.saveAll(Arrays.asList(
+                    new Member(1L, "memberA", Grade.VIP),
+                    new Member(2L, null, null)));
+            repository.snapshot();
+            repository.save(new Member(3L, "회원C", Grade.BASIC));
+        }
+
+        // when
+        try (JournaledMemberRepository recovered = new JournaledMemberRepository(tempDir)) {
+
+            // then
+            assertThat(fileNames()).filteredOn(name -> name.startsWith("snapshot-")).hasSize(1);
+            assertThat(recovered.size()).isEqualTo(3);
+            assertThat(recovered.findById(2L).getName()).isNull();
+            assertThat(recovered.findById(2L).getGrade()).isNull();
+            assertThat(recovered.findById(3L).getName()).isEqualTo("회원C");
+        }
+    }
+
+    @Test
+    @DisplayName("마지막 저널 끝의 반쯤 쓴 레코드는 버리고 복구한다")
+    void truncateTornTail() throws Exception {
+        // given
+        try (JournaledMemberRepository repository = new JournaledMemberRepository(tempDir, 8, 1, true, 0)) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+        }
+        String lastJournal = fileNames().stream().filter(name -> name.endsWith(".log")).sorted()
+                .reduce((first, second) -> second).get();
+        Files.write(tempDir.resolve(lastJournal), new byte[]{0, 0, 0, 30, 1, 2}, StandardOpenOption.APPEND);
+
+        // when
+        try (JournaledMemberRepository recovered = new JournaledMemberRepository(tempDir)) {
+            recovered.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+
+        // then
+        try (JournaledMemberRepository recovered = new JournaledMemberRepository(tempDir)) {
+            assertThat(recovered.size()).isEqualTo(2);
+            assertThat(recovered.findById(1L).getName()).isEqualTo("memberA");
+        }
+    }
+
+    private List<String> fileNames() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("저널 기록에 실패한 회원은 조회되지 않고, 기록된 회원만 남는다")
+    void failedWriteIsNotVisible() throws Exception {
+        try (JournaledMemberRepository repository = new JournaledMemberRepository(tempDir, 8, 1, true, 0)) {
+            // given
+            Member saved = new Member(1L, "memberA", Grade.VIP);
+            repository.save(saved);
+
+            // when: 세그먼트가 닫혀 다음 기록이 실패한다
+            repository.closeSegment();
+            Member failed = new Member(2L, "memberB", Grade.VIP);
+
+            // then
+            assertThatThrownBy(() -> repository.save(failed)).isInstanceOf(UncheckedIOException.class);
+            assertThat(repository.findById(2L)).isNull();
+            assertThat(repository.findById(1L)).isSameAs(saved);
+            assertThat(repository.findByGrade(Grade.VIP)).containsExactly(saved);
+            assertThat(repository.findByNamePrefix("member", 10)).containsExactly(saved);
+        }
+    }
+}
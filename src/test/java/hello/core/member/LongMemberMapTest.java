@@ -0,0 +1,136 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongMemberMapTest {
+
+    @Test
+    @DisplayName("저장한 회원을 id로 조회하고, 같은 id로 다시 저장하면 덮어쓴다")
+    void putAndGet() {
+        // given
+        LongMemberMap map = new LongMemberMap(1, 0);
+        Member memberA = new Member(1L, "memberA", Grade.VIP);
+        Member memberB = new Member(1L, "memberB", Grade.BASIC);
+        Member zero = new Member(0L, "zero", Grade.BASIC);
+
+        // when
+        Member first = map.put(1L, memberA);
+        Member previous = map.put(1L, memberB);
+        map.put(0L, zero);
+
+        // then
+        assertThat(first).isNull();
+        assertThat(previous).isSameAs(memberA);
+        assertThat(map.get(1L)).isSameAs(memberB);
+        assertThat(map.get(0L)).isSameAs(zero);
+        assertThat(map.get(2L)).isNull();
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("테이블이 커져도 기존 회원을 모두 찾을 수 있다")
+    void resize() {
+        // given
+        LongMemberMap map = new LongMemberMap(1, 0);
+
+        // when
+        for (long id = 1; id <= 10_000; id++) {
+            map.put(id, new Member(id, "member" + id, Grade.BASIC));
+        }
+
+        // then
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(map.get(id).getId()).isEqualTo(id);
+        }
+        assertThat(map.size()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("일괄 저장한 회원을 모두 찾을 수 있고, 같은 id는 뒤의 것이 남는다")
+    void putAll() {
+        // given
+        LongMemberMap map = new LongMemberMap(4, 0);
+        int n = 5_000;
+        long[] ids = new long[n + 1];
+        Member[] members = new Member[n + 1];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i; // 0번 id도 포함
+            members[i] = new Member((long) i, "member" + i, Grade.BASIC);
+        }
+        ids[n] = 7L;
+        members[n] = new Member(7L, "duplicate", Grade.VIP);
+
+        // when
+        map.putAll(ids, members);
+
+        // then
+        assertThat(map.size()).isEqualTo(n);
+        assertThat(map.get(0L)).isSameAs(members[0]);
+        assertThat(map.get(4_999L)).isSameAs(members[4_999]);
+        assertThat(map.get(7L).getName()).isEqualTo("duplicate");
+    }
+
+    @Test
+    @DisplayName("forEach는 저장된 회원을 한 번씩 모두 방문한다")
+    void forEach() {
+        // given
+        LongMemberMap map = new LongMemberMap(4, 0);
+        for (long id = 0; id < 1_000; id++) {
+            map.put(id, new Member(id, "member" + id, Grade.BASIC));
+        }
+
+        // when
+        List<Long> visited = new ArrayList<>();
+        map.forEach(member -> visited.add(member.getId()));
+
+        // then
+        assertThat(visited).hasSize(1_000).doesNotHaveDuplicates();
+        assertThat(visited).contains(0L, 999L);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 저장하고 조회해도 유실되는 회원이 없다")
+    void concurrentPutAndGet() throws Exception {
+        // given
+        LongMemberMap map = new LongMemberMap();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            long base = (long) t * perThread + 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long id = base; id < base + perThread; id++) {
+                    map.put(id, new Member(id, "member" + id, Grade.VIP));
+                    assertThat(map.get(id)).isNotNull(); // 자기가 쓴 값은 바로 보여야 함
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(map.size()).isEqualTo(threads * perThread);
+        for (long id = 1; id <= (long) threads * perThread; id++) {
+            assertThat(map.get(id).getId()).isEqualTo(id);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedMemberRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("저장한 회원을 조회하고, 같은 id로 다시 저장하면 덮어쓴다")
+    void saveAndFind() throws Exception {
+        try (MappedMemberRepository repository = new MappedMemberRepository(tempDir)) {
+            // given
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+            repository.save(new Member(0L, "회원0", Grade.BASIC));
+
+            // when
+            repository.save(new Member(1L, "memberB", Grade.BASIC));
+
+            // then
+            Member found = repository.findById(1L);
+            assertThat(found.getName()).isEqualTo("memberB");
+            assertThat(found.getGrade()).isEqualTo(Grade.BASIC);
+            assertThat(repository.findById(0L).getName()).isEqualTo("회원0");
+            assertThat(repository.findById(2L)).isNull();
+            assertThat(repository.findById(null)).isNull();
+            assertThat(repository.size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("테이블 파일이 커져도, 다시 열어도 모든 회원을 찾을 수 있다")
+    void growAndReopen() throws Exception {
+        // given
+        try (MappedMemberRepository repository = new MappedMemberRepository(tempDir, 1)) {
+            for (long id = 1; id <= 10_000; id++) {
+                repository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+            }
+        }
+
+        // when
+        try (MappedMemberRepository reopened = new MappedMemberRepository(tempDir)) {
+
+            // then
+            assertThat(reopened.size()).isEqualTo(10_000);
+            for (long id = 1; id <= 10_000; id++) {
+                Member member = reopened.findById(id);
+                assertThat(member.getName()).isEqualTo("member" + id);
+                assertThat(member.getGrade()).isEqualTo(id % 2 == 0 ? Grade.VIP : Grade.BASIC);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("일괄 저장한 회원을 요청 순서대로 일괄 조회한다")
+    void saveAllAndFindAll() throws Exception {
+        try (MappedMemberRepository repository = new MappedMemberRepository(tempDir, 4)) {
+            // given
+            List<Member> members = new ArrayList<>();
+            for (long id = 1; id <= 100; id++) {
+                members.add(new Member(id, null, Grade.VIP));
+            }
+
+            // when
+            repository.saveAll(members);
+            List<Member> found = repository.findAllById(Arrays.asList(3L, 999L, null, 1L));
+
+            // then
+            assertThat(found).hasSize(4);
+            assertThat(found.get(0).getId()).isEqualTo(3L);
+            assertThat(found.get(0).getName()).isNull();
+            assertThat(found.get(1)).isNull();
+            assertThat(found.get(2)).isNull();
+            assertThat(found.get(3).getId()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    @DisplayName("등급, 이름 앞부분으로 회원을 찾는다")
+    void findByGradeAndNamePrefix() throws Exception {
+        try (MappedMemberRepository repository = new MappedMemberRepository(tempDir)) {
+            // given
+            repository.save(new Member(3L, "sirzzang", Grade.VIP));
+            repository.save(new Member(1L, "sir", Grade.VIP));
+            repository.save(new Member(2L, "spring", Grade.BASIC));
+            repository.save(new Member(4L, null, Grade.BASIC));
+
+            // when
+            List<Member> vip = repository.findByGrade(Grade.VIP);
+            List<Member> sir = repository.findByNamePrefix("sir", 10);
+
+            // then
+            assertThat(vip).extracting(Member::getId).containsExactly(1L, 3L);
+            assertThat(sir).extracting(Member::getName).containsExactly("sir", "sirzzang");
+            assertThat(repository.findByNamePrefix("s", 2)).extracting(Member::getName).containsExactly("sir", "sirzzang");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberIndexTest {
+
+    LongMemberMap store = new LongMemberMap();
+    MemberIndex index = new MemberIndex(store);
+
+    @Test
+    @DisplayName("저장된 회원의 등급, 이름을 setter로 바꾸면 다시 저장하지 않아도 색인이 바로 바뀐다")
+    void reindexOnSetter() {
+        // given
+        Member memberA = new Member(1L, "kim", Grade.BASIC);
+        Member memberB = new Member(2L, "kang", Grade.VIP);
+        index.put(1L, memberA);
+        index.put(2L, memberB);
+
+        // when
+        memberA.setGrade(Grade.VIP);
+        memberB.setName("lee");
+
+        // then
+        assertThat(index.findByGrade(Grade.VIP)).containsExactly(memberA, memberB);
+        assertThat(index.findByGrade(Grade.BASIC)).isEmpty();
+        assertThat(index.findByNamePrefix("k", 10)).containsExactly(memberA);
+        assertThat(index.findByNamePrefix("le", 10)).containsExactly(memberB);
+    }
+
+    @Test
+    @DisplayName("같은 id로 다시 저장하면 이전 회원은 색인에서 빠지고, 이전 회원을 고쳐도 색인에 영향이 없다")
+    void replace() {
+        // given
+        Member before = new Member(1L, "kim", Grade.VIP);
+        Member after = new Member(1L, "park", Grade.BASIC);
+        index.put(1L, before);
+
+        // when
+        index.put(1L, after);
+        before.setName("kim2");
+
+        // then
+        assertThat(index.findByGrade(Grade.VIP)).isEmpty();
+        assertThat(index.findByGrade(Grade.BASIC)).containsExactly(after);
+        assertThat(index.findByNamePrefix("kim", 10)).isEmpty();
+        assertThat(index.findByNamePrefix("", 10)).containsExactly(after);
+    }
+
+    @Test
+    @DisplayName("같은 회원을 두 색인에 저장하면 setter로 바꾼 값이 두 색인에 모두 반영된다")
+    void sameMemberInTwoIndexes() {
+        // given
+        MemberIndex other = new MemberIndex(new LongMemberMap());
+        Member member = new Member(1L, "kim", Grade.BASIC);
+        index.put(1L, member);
+        other.put(1L, member);
+
+        // when
+        member.setGrade(Grade.VIP);
+        member.setName("park");
+
+        // then
+        assertThat(index.findByGrade(Grade.BASIC)).isEmpty();
+        assertThat(index.findByGrade(Grade.VIP)).containsExactly(member);
+        assertThat(other.findByGrade(Grade.VIP)).containsExactly(member);
+        assertThat(index.findByNamePrefix("kim", 10)).isEmpty();
+        assertThat(other.findByNamePrefix("park", 10)).containsExactly(member);
+    }
+
+    @Test
+    @DisplayName("이름 자동 완성은 이름 순으로 최대 limit명까지 찾는다")
+    void namePrefix() {
+        // given
+        long[] ids = {1L, 2L, 3L, 4L, 1L};
+        Member[] members = {
+                new Member(1L, "sir", Grade.BASIC),
+                new Member(2L, "sirzzang", Grade.VIP),
+                new Member(3L, "sirius", Grade.BASIC),
+                new Member(4L, "spring", Grade.BASIC),
+                new Member(1L, "sirzzang", Grade.BASIC)};
+
+        // when
+        index.putAll(ids, members);
+
+        // then
+        assertThat(index.findByNamePrefix("sir", 10)).containsExactly(members[2], members[4], members[1]);
+        assertThat(index.findByNamePrefix("sir", 2)).containsExactly(members[2], members[4]);
+        assertThat(index.findByNamePrefix("x", 10)).isEmpty();
+        assertThat(index.findByGrade(Grade.BASIC)).containsExactly(members[4], members[2], members[3]);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 setter로 등급을 바꾸거나 새 회원으로 저장해도 색인은 회원의 마지막 등급과 일치한다")
+    void concurrentChanges() throws Exception {
+        // given
+        int n = 1_000;
+        for (long id = 0; id < n; id++) {
+            index.put(id, new Member(id, "member" + id, Grade.BASIC));
+        }
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int round = 0; round < 20; round++) {
+                    for (long id = 0; id < n; id++) {
+                        Grade grade = (id + round + seed) % 2 == 0 ? Grade.VIP : Grade.BASIC;
+                        if (round % 5 == seed) {
+                            index.put(id, new Member(id, "member" + id, grade));
+                        } else {
+                            store.get(id).setGrade(grade);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        int vip = 0;
+        for (long id = 0; id < n; id++) {
+            if (store.get(id).getGrade() == Grade.VIP) {
+                vip++;
+            }
+        }
+        assertThat(index.findByGrade(Grade.VIP)).hasSize(vip);
+        assertThat(index.findByGrade(Grade.BASIC)).hasSize(n - vip);
+        assertThat(index.findByNamePrefix("member", 2 * n)).hasSize(n);
+    }
+}
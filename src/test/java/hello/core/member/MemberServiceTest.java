@@ -5,6 +5,10 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class MemberServiceTest {
 
 //    MemberService memberService = new MemberServiceImpl();
@@ -30,5 +34,37 @@ public class MemberServiceTest {
         Assertions.assertThat(member).isEqualTo(findMember);
     }
 
+    @Test
+    void 일괄_회원가입() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (long id = 1000; id < 3000; id++) {
+            members.add(new Member(id, "member" + id, Grade.BASIC));
+        }
+
+        // when
+        memberService.joinAll(members);
+        List<Member> findMembers = memberService.findMembers(Arrays.asList(1000L, -1L, 2999L));
+
+        // then
+        Assertions.assertThat(findMembers).containsExactly(members.get(0), null, members.get(1999));
+    }
+
+    @Test
+    void 등급_이름으로_회원조회() {
+        // given
+        Member memberA = new Member(5001L, "indexTestA", Grade.BASIC);
+        Member memberB = new Member(5002L, "indexTestB", Grade.VIP);
+        memberService.joinAll(Arrays.asList(memberA, memberB));
+
+        // when
+        memberA.setGrade(Grade.VIP);
+
+        // then
+        Assertions.assertThat(memberService.findMembersByGrade(Grade.VIP)).contains(memberA, memberB);
+        Assertions.assertThat(memberService.findMembersByGrade(Grade.BASIC)).doesNotContain(memberA);
+        Assertions.assertThat(memberService.findMembersByNamePrefix("indexTest", 10)).containsExactly(memberA, memberB);
+    }
+
 
 }
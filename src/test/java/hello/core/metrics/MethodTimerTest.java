@@ -0,0 +1,98 @@
+package hello.core.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MethodTimerTest {
+
+    @Test
+    @DisplayName("값이 들어가는 칸의 범위는 값을 포함하고, 폭은 값의 1/32 이하다")
+    void bucketBounds() {
+        for (long value = 0; value < (1L << 36); value = value * 3 / 2 + 1) {
+            int bucket = MethodTimer.bucketOf(value);
+            long low = MethodTimer.lowestValueOf(bucket);
+            long high = MethodTimer.highestValueOf(bucket);
+
+            assertThat(value).isBetween(low, high);
+            assertThat(high - low).isLessThanOrEqualTo(Math.max(0, value / 32));
+        }
+        assertThat(MethodTimer.bucketOf(Long.MAX_VALUE)).isEqualTo(MethodTimer.BUCKETS - 1);
+    }
+
+    @Test
+    @DisplayName("여러 스레드의 기록을 합쳐 호출 수, 최댓값, 백분위를 계산한다")
+    void mergeThreadLocalRecorders() throws Exception {
+        // given
+        MethodTimer timer = new MethodTimer("test.method");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when: 1 ~ 100,000ns를 네 스레드가 나눠서 기록
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                for (long value = 1 + offset; value <= 100_000; value += 4) {
+                    timer.record(value);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        LatencySnapshot snapshot = timer.snapshot();
+
+        // then
+        assertThat(snapshot.getName()).isEqualTo("test.method");
+        assertThat(snapshot.getCount()).isEqualTo(100_000);
+        assertThat(snapshot.getMaxNanos()).isEqualTo(100_000);
+        assertThat(snapshot.getMeanNanos()).isCloseTo(50_000.5, within(0.01));
+        assertThat((double) snapshot.getP50Nanos()).isCloseTo(50_000, within(50_000 / 32.0));
+        assertThat((double) snapshot.getP99Nanos()).isCloseTo(99_000, within(99_000 / 32.0));
+        assertThat((double) snapshot.getP999Nanos()).isCloseTo(99_900, within(99_900 / 32.0));
+    }
+
+    @Test
+    @DisplayName("읽어도 상태가 바뀌지 않고, 호출률은 이전에 읽은 결과와의 차이로 계산한다")
+    void snapshotDoesNotReset() {
+        // given
+        MethodTimer timer = new MethodTimer("test.method");
+        for (int i = 0; i < 1000; i++) {
+            timer.record(100);
+        }
+        LatencySnapshot first = timer.snapshot();
+
+        // when: 다른 곳에서 한 번 더 읽은 뒤 기록 추가
+        timer.snapshot();
+        for (int i = 0; i < 500; i++) {
+            timer.record(100);
+        }
+        LatencySnapshot second = timer.snapshot();
+
+        // then
+        assertThat(first.getCount()).isEqualTo(1000);
+        assertThat(second.getCount()).isEqualTo(1500);
+        assertThat(second.getTimestampMillis()).isGreaterThanOrEqualTo(first.getTimestampMillis());
+        long elapsedMillis = second.getTimestampMillis() - first.getTimestampMillis();
+        assertThat(second.ratePerSecondSince(first)).isEqualTo(elapsedMillis > 0 ? 500 * 1000.0 / elapsedMillis : 0);
+    }
+
+    @Test
+    @DisplayName("기록이 없으면 모두 0")
+    void empty() {
+        LatencySnapshot snapshot = new MethodTimer("empty").snapshot();
+
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.getP99Nanos()).isZero();
+        assertThat(snapshot.getMeanNanos()).isZero();
+    }
+}
@@ -0,0 +1,68 @@
+package hello.core.metrics;
+
+import hello.core.AutoAppConfig;
+import hello.core.discount.CompiledDiscountPolicy;
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import hello.core.order.OrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimedBeanPostProcessorTest {
+
+    @Test
+    @DisplayName("hello.metrics.enabled=true이면 서비스, 할인 정책 빈이 시간 재는 데코레이터로 등록되고 호출이 기록된다")
+    void timedBeans() {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext();
+        ac.getEnvironment().getPropertySources().addFirst(
+                new MapPropertySource("test", Collections.singletonMap("hello.metrics.enabled", "true")));
+        ac.register(AutoAppConfig.class);
+        ac.refresh();
+        MemberService memberService = ac.getBean(MemberService.class);
+        OrderService orderService = ac.getBean(OrderService.class);
+
+        // when
+        memberService.join(new Member(9101L, "memberA", Grade.VIP));
+        orderService.createOrder(9101L, "itemA", 10000);
+
+        // then
+        assertThat(memberService).isInstanceOf(TimedMemberService.class);
+        assertThat(orderService).isInstanceOf(TimedOrderService.class);
+        DiscountPolicy discountPolicy = ac.getBean(DiscountPolicy.class);
+        assertThat(((TimedDiscountPolicy) discountPolicy).getTarget()).isInstanceOf(RateDiscountPolicy.class);
+        assertThat(CompiledDiscountPolicy.compile(discountPolicy).discount(new Member(1L, "vip", Grade.VIP), 10000))
+                .isEqualTo(1000);
+
+        Map<String, Long> counts = ac.getBean(MethodMetrics.class).snapshots().stream()
+                .collect(Collectors.toMap(LatencySnapshot::getName, LatencySnapshot::getCount));
+        assertThat(counts).containsEntry("memberServiceImpl.join", 1L)
+                .containsEntry("orderServiceImpl.createOrder", 1L)
+                .containsEntry("rateDiscountPolicy.discount", 1L)
+                .containsEntry("fixDiscountPolicy.discount", 0L);
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("설정이 없으면 등록되지 않는다")
+    void disabledByDefault() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(AutoAppConfig.class);
+
+        List<String> names = List.of(ac.getBeanNamesForType(TimedBeanPostProcessor.class));
+        assertThat(names).isEmpty();
+        assertThat(ac.getBean(MemberService.class)).isNotInstanceOf(TimedMemberService.class);
+        ac.close();
+    }
+}
@@ -0,0 +1,86 @@
+package hello.core.order;
+
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderAggregatesTest {
+
+    @Test
+    @DisplayName("주문을 만들 때마다 회원별, 전체 주문 수와 결제 금액, 할인 금액이 쌓인다")
+    void recordOnCreateOrder() {
+        // given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(8001L, "memberA", Grade.VIP));
+        memberRepository.save(new Member(8002L, "memberB", Grade.BASIC));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+        OrderAggregates aggregates = new OrderAggregates();
+        orderService.setOrderAggregates(aggregates);
+
+        // when
+        orderService.createOrder(8001L, "itemA", 10000);
+        orderService.createOrder(8001L, "itemB", 20000);
+        orderService.createOrders(Arrays.asList(new OrderRequest(8002L, "itemC", 5000), new OrderRequest(8001L, "itemD", 3000)));
+
+        // then
+        OrderAggregates.Totals memberA = aggregates.getMemberTotals(8001L);
+        assertThat(memberA.getOrderCount()).isEqualTo(3);
+        assertThat(memberA.getTotalSpend()).isEqualTo(30000);
+        assertThat(memberA.getTotalDiscount()).isEqualTo(3000);
+        assertThat(aggregates.getMemberTotals(8002L).getTotalSpend()).isEqualTo(5000);
+        assertThat(aggregates.getMemberTotals(9999L).getOrderCount()).isZero();
+
+        OrderAggregates.Totals global = aggregates.getGlobalTotals();
+        assertThat(global.getOrderCount()).isEqualTo(4);
+        assertThat(global.getTotalSpend()).isEqualTo(35000);
+        assertThat(global.getTotalDiscount()).isEqualTo(3000);
+        assertThat(aggregates.getMemberCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 기록해도 합계가 맞다")
+    void concurrentRecord() throws Exception {
+        // given
+        OrderAggregates aggregates = new OrderAggregates();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        int members = 1000;
+        int ordersPerThread = 100_000;
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < ordersPerThread; i++) {
+                    aggregates.record(i % members, 1000, 100);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        long perMember = 8L * ordersPerThread / members;
+        for (long id = 0; id < members; id++) {
+            OrderAggregates.Totals totals = aggregates.getMemberTotals(id);
+            assertThat(totals.getOrderCount()).isEqualTo(perMember);
+            assertThat(totals.getTotalSpend()).isEqualTo(perMember * 900);
+            assertThat(totals.getTotalDiscount()).isEqualTo(perMember * 100);
+        }
+        assertThat(aggregates.getGlobalTotals().getOrderCount()).isEqualTo(8L * ordersPerThread);
+        assertThat(aggregates.getMemberCount()).isEqualTo(members);
+    }
+}
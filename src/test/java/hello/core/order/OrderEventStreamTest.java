@@ -0,0 +1,176 @@
+package hello.core.order;
+
+import hello.core.AutoAppConfig;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventStreamTest {
+
+    OrderEventStream stream = new OrderEventStream(4, OrderEventStream.OverflowPolicy.DROP, 10, 100, 2, 1);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        stream.close();
+    }
+
+    @Test
+    @DisplayName("createOrder가 만든 Order 객체가 그대로 구독자에게 전달된다")
+    void publishFromCreateOrder() throws Exception {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(AutoAppConfig.class);
+        MemberService memberService = ac.getBean(MemberService.class);
+        OrderService orderService = ac.getBean(OrderService.class);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, 1);
+        ac.getBean(OrderEventStream.class).subscribe(subscriber);
+        memberService.join(new Member(7001L, "memberA", Grade.VIP));
+
+        // when
+        Order order = orderService.createOrder(7001L, "itemA", 10000);
+
+        // then
+        assertThat(subscriber.received.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.orders).containsExactly(order);
+        assertThat(subscriber.orders.get(0)).isSameAs(order);
+        ac.close();
+        assertThat(subscriber.completed.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("createOrders로 한 번에 만든 주문도 요청 순서대로 구독자에게 전달된다")
+    void publishFromCreateOrders() throws Exception {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(AutoAppConfig.class);
+        MemberService memberService = ac.getBean(MemberService.class);
+        OrderService orderService = ac.getBean(OrderService.class);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, 3);
+        ac.getBean(OrderEventStream.class).subscribe(subscriber);
+        memberService.join(new Member(7002L, "memberA", Grade.VIP));
+        memberService.join(new Member(7003L, "memberB", Grade.BASIC));
+
+        // when
+        OrderBatch batch = orderService.createOrders(Arrays.asList(
+                new OrderRequest(7002L, "itemA", 10000),
+                new OrderRequest(7003L, "itemB", 20000),
+                new OrderRequest(7002L, "itemC", 30000)));
+
+        // then
+        assertThat(subscriber.received.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.orders).extracting(Order::getItemName).containsExactly("itemA", "itemB", "itemC");
+        assertThat(subscriber.orders).extracting(Order::getMemberId).containsExactly(7002L, 7003L, 7002L);
+        for (int i = 0; i < batch.size(); i++) {
+            assertThat(subscriber.orders.get(i).getDiscountPrice()).isEqualTo(batch.getDiscountPrice(i));
+        }
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("구독자가 요청하지 않으면 버퍼만큼만 남기고 나머지는 버리며, 요청하면 남은 주문을 순서대로 받는다")
+    void dropWhenSubscriberIsSlow() throws Exception {
+        // given
+        CollectingSubscriber subscriber = new CollectingSubscriber(0, 4);
+        stream.subscribe(subscriber);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            stream.publish(order(i));
+        }
+        subscriber.subscription.request(10);
+
+        // then
+        assertThat(subscriber.received.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.orders).extracting(Order::getItemPrice).containsExactly(0, 1, 2, 3);
+        assertThat(stream.getDroppedCount()).isEqualTo(96);
+    }
+
+    @Test
+    @DisplayName("SPILL 정책은 버퍼를 넘친 주문을 따로 보관했다가 순서대로 전달한다")
+    void spillWhenBufferIsFull() throws Exception {
+        // given
+        CollectingSubscriber subscriber = new CollectingSubscriber(0, 50);
+        stream.subscribe(subscriber, OrderEventStream.OverflowPolicy.SPILL, 4);
+
+        // when
+        for (int i = 0; i < 50; i++) {
+            stream.publish(order(i));
+        }
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // then
+        assertThat(subscriber.received.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.orders).extracting(Order::getItemPrice).isSorted().hasSize(50);
+        assertThat(stream.getDroppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("구독을 취소하면 더 받지 않고 구독자 목록에서 빠진다")
+    void cancel() throws Exception {
+        // given
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, 1);
+        stream.subscribe(subscriber);
+        stream.publish(order(0));
+        assertThat(subscriber.received.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        subscriber.subscription.cancel();
+        stream.publish(order(1));
+
+        // then
+        assertThat(stream.getSubscriberCount()).isZero();
+        assertThat(subscriber.orders).hasSize(1);
+    }
+
+    private static Order order(int price) {
+        return new Order(1L, "item" + price, price, 0);
+    }
+
+    static class CollectingSubscriber implements Flow.Subscriber<Order> {
+
+        final long initialRequest;
+        final List<Order> orders = new CopyOnWriteArrayList<>();
+        final CountDownLatch received;
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+
+        CollectingSubscriber(long initialRequest, int expected) {
+            this.initialRequest = initialRequest;
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(Order order) {
+            orders.add(order);
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
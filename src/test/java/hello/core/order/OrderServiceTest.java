@@ -9,6 +9,8 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 public class OrderServiceTest {
 
 //    MemberService memberService = new MemberServiceImpl();
@@ -39,4 +41,24 @@ public class OrderServiceTest {
         Assertions.assertThat(order.getDiscountPrice()).isEqualTo(1000);
     }
 
+    @Test
+    void 일괄_주문생성() {
+
+        // given
+        memberService.join(new Member(10L, "memberA", Grade.VIP));
+        memberService.join(new Member(11L, "memberB", Grade.BASIC));
+
+        // when
+        OrderBatch batch = orderService.createOrders(Arrays.asList(
+                new OrderRequest(10L, "itemA", 10000),
+                new OrderRequest(11L, "itemB", 20000),
+                new OrderRequest(10L, "itemC", 20000)));
+
+        // then
+        Assertions.assertThat(batch.size()).isEqualTo(3);
+        Assertions.assertThat(batch.memberIds()).containsExactly(10L, 11L, 10L);
+        Assertions.assertThat(batch.discountPrices()).containsExactly(1000, 0, 2000);
+        Assertions.assertThat(batch.calculatePrice(2)).isEqualTo(18000);
+    }
+
 }
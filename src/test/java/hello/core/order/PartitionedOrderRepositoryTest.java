@@ -0,0 +1,115 @@
+package hello.core.order;
+
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartitionedOrderRepositoryTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Test
+    @DisplayName("회원과 기간으로 조회하면 여러 구간에 걸친 주문이 주문 시각 순으로 나온다")
+    void findByMemberId() {
+        // given: 1시간 구간, 0시 ~ 4시 사이 주문
+        PartitionedOrderRepository orderRepository = new PartitionedOrderRepository(HOUR);
+        orderRepository.save(new Order(1L, "itemC", 30000, 0, 3 * HOUR + 10));
+        orderRepository.save(new Order(1L, "itemA", 10000, 1000, 10));
+        orderRepository.save(new Order(2L, "itemA", 10000, 1000, 20));
+        orderRepository.save(new Order(1L, "itemB", 20000, 2000, HOUR + 10));
+        orderRepository.save(new Order(1L, "itemD", 40000, 0, 4 * HOUR));
+
+        // when
+        List<Order> orders = orderRepository.findByMemberId(1L, 0, 4 * HOUR);
+
+        // then
+        assertThat(orders).extracting(Order::getItemName).containsExactly("itemA", "itemB", "itemC");
+        assertThat(orderRepository.findByMemberId(1L, HOUR, 2 * HOUR)).extracting(Order::getItemName).containsExactly("itemB");
+        assertThat(orderRepository.findByMemberId(3L, 0, 5 * HOUR)).isEmpty();
+        assertThat(orderRepository.partitionCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("봉인한 구간도 같은 결과로 조회되고, 더는 저장할 수 없다")
+    void seal() {
+        // given
+        PartitionedOrderRepository orderRepository = new PartitionedOrderRepository(HOUR);
+        for (int i = 0; i < 3000; i++) {
+            orderRepository.save(new Order((long) (i % 7), "item" + (i % 5), 1000 + i, i, i * 1000L));
+        }
+        List<Order> before = orderRepository.findByMemberId(3L, 100_000, 2_500_000);
+
+        // when: 0시 구간만 끝났다
+        int sealed = orderRepository.sealBefore(HOUR + 1);
+
+        // then
+        List<Order> after = orderRepository.findByMemberId(3L, 100_000, 2_500_000);
+        assertThat(sealed).isEqualTo(1);
+        assertThat(after).hasSameSizeAs(before);
+        for (int i = 0; i < before.size(); i++) {
+            assertThat(after.get(i).toString()).isEqualTo(before.get(i).toString());
+        }
+        assertThat(orderRepository.size()).isEqualTo(3000);
+        assertThatThrownBy(() -> orderRepository.save(new Order(1L, "itemA", 10000, 0, 10)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 같은 구간에 동시에 저장해도 주문이 빠지지 않는다")
+    void concurrentSave() throws Exception {
+        // given
+        PartitionedOrderRepository orderRepository = new PartitionedOrderRepository(HOUR);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // when: 스레드 8개가 각각 10000건, 회원 id는 스레드 번호
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long memberId = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    orderRepository.save(new Order(memberId, "itemA", i, 0, i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(orderRepository.size()).isEqualTo(80000);
+        for (long memberId = 0; memberId < 8; memberId++) {
+            assertThat(orderRepository.findByMemberId(memberId, 0, HOUR)).extracting(Order::getItemPrice)
+                    .hasSize(10000).isSorted();
+        }
+    }
+
+    @Test
+    @DisplayName("주문 서비스는 만든 주문을 저장소에 저장한다")
+    void savedByOrderService() {
+        // given
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(1L, "memberVIP", Grade.VIP));
+        PartitionedOrderRepository orderRepository = new PartitionedOrderRepository();
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+        orderService.setOrderRepository(orderRepository);
+
+        // when
+        Order order = orderService.createOrder(1L, "itemA", 10000);
+
+        // then
+        assertThat(orderRepository.findByMemberId(1L, order.getOrderedAt(), order.getOrderedAt() + 1)).containsExactly(order);
+    }
+}
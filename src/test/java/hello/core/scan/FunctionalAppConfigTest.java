@@ -0,0 +1,63 @@
+package hello.core.scan;
+
+import hello.core.FunctionalAppConfig;
+import hello.core.common.RequestLogger;
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import hello.core.order.Order;
+import hello.core.order.OrderService;
+import hello.core.order.OrderServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FunctionalAppConfigTest {
+
+    @Test
+    @DisplayName("컴포넌트 스캔 없이 같은 이름의 빈이 등록되고 의존관계가 연결된다")
+    void functionalRegistration() {
+        // given
+        GenericApplicationContext ac = new GenericApplicationContext();
+        new FunctionalAppConfig().initialize(ac);
+
+        // when
+        ac.refresh();
+
+        // then
+        assertThat(ac.getBeanDefinitionNames()).contains(
+                "memoryMemberRepository", "memberServiceImpl", "fixDiscountPolicy", "rateDiscountPolicy",
+                "discountPolicyRouter", "couponStore", "orderEventStream", "orderAggregates", "orderServiceImpl", "consoleLogWriter", "requestLogger", "contextRequestLogger",
+                "requestLogContextFilter", "requestContextScheduler", "demoLogService", "demoLogController");
+        assertThat(ac.getBean(DiscountPolicy.class)).isInstanceOf(RateDiscountPolicy.class);
+        assertThat(AopUtils.isCglibProxy(ac.getBean("requestLogger", RequestLogger.class))).isTrue();
+
+        MemberService memberService = ac.getBean(MemberService.class);
+        OrderService orderService = ac.getBean(OrderService.class);
+        assertThat(((OrderServiceImpl) orderService).getMemberRepository())
+                .isSameAs(ac.getBean("memoryMemberRepository"));
+
+        memberService.join(new Member(9001L, "memberA", Grade.VIP));
+        Order order = orderService.createOrder(9001L, "itemA", 20000);
+        assertThat(order.getDiscountPrice()).isEqualTo(2000);
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("웹 빈을 빼면 회원, 주문, 할인 빈만 등록된다")
+    void withoutWeb() {
+        GenericApplicationContext ac = new GenericApplicationContext();
+        new FunctionalAppConfig(false).initialize(ac);
+        ac.refresh();
+
+        assertThat(ac.getBeanDefinitionNames()).containsExactlyInAnyOrder(
+                "memoryMemberRepository", "memberServiceImpl", "fixDiscountPolicy", "rateDiscountPolicy",
+                "discountPolicyRouter", "couponStore", "orderEventStream", "orderAggregates", "orderServiceImpl");
+        ac.close();
+    }
+}
@@ -0,0 +1,203 @@
+package hello.core.scope;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledScopeTest {
+
+    @Test
+    @DisplayName("돌려준 인스턴스를 reset한 뒤 다시 준다. @PostConstruct는 처음 만들 때 한 번만 실행된다")
+    void reuse() {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(PooledConfig.class);
+        PooledScope scope = ac.getBean(PooledScope.class);
+        PooledObjectProvider<PooledBean> provider = scope.getProvider(PooledBean.class);
+
+        // when
+        PooledBean first;
+        try (PooledObjectProvider.Lease<PooledBean> lease = provider.borrow()) {
+            first = lease.get();
+            first.addCount();
+        }
+        PooledBean second;
+        try (PooledObjectProvider.Lease<PooledBean> lease = provider.borrow()) {
+            second = lease.get();
+            second.addCount();
+
+            // then
+            assertThat(second).isSameAs(first);
+            assertThat(second.getCount()).isEqualTo(1);
+        }
+        assertThat(second.initCount).isEqualTo(1);
+        assertThat(scope.getCreatedCount("pooledBean")).isEqualTo(1);
+        assertThat(scope.getReusedCount("pooledBean")).isEqualTo(1);
+        assertThat(scope.getIdleCount("pooledBean")).isEqualTo(1);
+
+        ac.close();
+        assertThat(first.destroyed).isTrue();
+    }
+
+    @Test
+    @DisplayName("풀이 가득 차면 돌려준 인스턴스를 소멸시킨다")
+    void bounded() {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(PooledConfig.class);
+        PooledScope scope = ac.getBean(PooledScope.class);
+        PooledObjectProvider<PooledBean> provider = scope.getProvider(PooledBean.class);
+
+        // when
+        List<PooledObjectProvider.Lease<PooledBean>> leases = new ArrayList<>();
+        List<PooledBean> borrowed = new ArrayList<>();
+        for (int i = 0; i < PooledConfig.CAPACITY + 1; i++) {
+            PooledObjectProvider.Lease<PooledBean> lease = provider.borrow();
+            leases.add(lease);
+            borrowed.add(lease.get());
+        }
+        leases.forEach(PooledObjectProvider.Lease::close);
+
+        // then
+        assertThat(scope.getCreatedCount("pooledBean")).isEqualTo(PooledConfig.CAPACITY + 1);
+        assertThat(scope.getIdleCount("pooledBean")).isEqualTo(PooledConfig.CAPACITY);
+        assertThat(scope.getDiscardedCount("pooledBean")).isEqualTo(1);
+        assertThat(borrowed).filteredOn(bean -> bean.destroyed).hasSize(1);
+
+        ac.close();
+        assertThat(borrowed).allMatch(bean -> bean.destroyed);
+    }
+
+    @Test
+    @DisplayName("Lease를 여러 번 닫아도 한 번만 돌려주므로, 같은 인스턴스를 두 곳에 빌려주지 않는다")
+    void closeTwice() {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(PooledConfig.class);
+        PooledScope scope = ac.getBean(PooledScope.class);
+        PooledObjectProvider<PooledBean> provider = scope.getProvider(PooledBean.class);
+        PooledObjectProvider.Lease<PooledBean> lease = provider.borrow();
+
+        // when
+        lease.close();
+        lease.close();
+
+        // then
+        assertThat(scope.getIdleCount("pooledBean")).isEqualTo(1);
+        assertThatThrownBy(lease::get).isInstanceOf(IllegalStateException.class);
+        try (PooledObjectProvider.Lease<PooledBean> first = provider.borrow();
+             PooledObjectProvider.Lease<PooledBean> second = provider.borrow()) {
+            assertThat(first.get()).isNotSameAs(second.get());
+        }
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 빌려도 같은 인스턴스를 두 곳에 빌려주지 않는다")
+    void concurrentBorrow() throws Exception {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(PooledConfig.class);
+        PooledObjectProvider<PooledBean> provider = ac.getBean(PooledScope.class).getProvider(PooledBean.class);
+        AtomicInteger shared = new AtomicInteger();
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    try (PooledObjectProvider.Lease<PooledBean> lease = provider.borrow()) {
+                        lease.get().addCount();
+                        if (lease.get().getCount() != 1) {
+                            shared.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(shared.get()).isZero();
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("pooled 스코프가 아닌 빈으로는 provider를 만들 수 없다")
+    void notPooled() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(PooledConfig.class);
+        PooledScope scope = ac.getBean(PooledScope.class);
+
+        assertThatThrownBy(() -> scope.getProvider("prototypeBean", PooledBean.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        ac.close();
+    }
+
+    @Configuration
+    static class PooledConfig {
+
+        static final int CAPACITY = 2;
+
+        @Bean
+        public static PooledScope pooledScope() {
+            return new PooledScope(CAPACITY);
+        }
+
+        @Bean
+        @Scope(PooledScope.SCOPE_NAME)
+        public PooledBean pooledBean() {
+            return new PooledBean();
+        }
+
+        @Bean
+        @Scope("prototype")
+        public PooledBean prototypeBean() {
+            return new PooledBean();
+        }
+    }
+
+    static class PooledBean implements Poolable {
+
+        private int count = 0;
+        int initCount;
+        volatile boolean destroyed;
+
+        public void addCount() {
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @PostConstruct
+        public void init() {
+            initCount++;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            destroyed = true;
+        }
+
+        @Override
+        public void reset() {
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package hello.core.singleton;
+
+import hello.core.LiteAppConfig;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberServiceImpl;
+import hello.core.order.OrderServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LiteAppConfig: CGLIB 프록시 없이도 MemoryMemberRepository가 하나만 생성되는지 확인
+ */
+class LiteConfigurationSingletonTest {
+
+    @Test
+    @DisplayName("파라미터로 주입받은 memberRepository는 컨테이너의 빈과 같은 인스턴스다")
+    void liteConfigurationTest() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(LiteAppConfig.class);
+
+        MemberServiceImpl memberService = ac.getBean("memberService", MemberServiceImpl.class);
+        OrderServiceImpl orderService = ac.getBean("orderService", OrderServiceImpl.class);
+        MemberRepository memberRepository = ac.getBean("memberRepository", MemberRepository.class);
+
+        assertThat(memberService.getMemberRepository()).isSameAs(memberRepository);
+        assertThat(orderService.getMemberRepository()).isSameAs(memberRepository);
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("설정 클래스는 CGLIB 하위 클래스가 아니라 원래 클래스 그대로 등록된다")
+    void noProxy() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(LiteAppConfig.class);
+
+        LiteAppConfig bean = ac.getBean(LiteAppConfig.class);
+
+        assertThat(bean.getClass()).isEqualTo(LiteAppConfig.class);
+        ac.close();
+    }
+}